@@ -0,0 +1,149 @@
+package com.example.boundvision;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+public class BoundVisionApplication extends Application {
+    // Each node keeps 10 minutes of history at the device's 5 Hz send rate
+    private static final long HISTORY_DURATION_MS = 10 * 60 * 1000;
+    private static final int SAMPLE_RATE_HZ = 5;
+
+    // Journal records at or after the synced count still have to be uploaded. Each installation
+    // uploads under its own id, since every journal numbers its records from zero.
+    private static final String SCORE_EVENTS_PATH = "app_score_events/";
+    private static final String KEY_SYNCED_RECORDS = "synced_score_records";
+    private static final String KEY_INSTALL_ID = "install_id";
+
+    private StartupTracer startupTracer;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // All sensor nodes around the rope and their history, written on one ingestion thread.
+    // They outlive the screens, so a rotation keeps the history.
+    private ScheduledExecutorService ingestionExecutor;
+    private NodeRegistry nodeRegistry;
+
+    // The match's score journal and timeline; set with the repository
+    private ScoreRecorder scoreRecorder;
+
+    // Set on the main thread once the database client is up; callers waiting for it queue here
+    private TelemetryRepository telemetryRepository;
+    private final List<Consumer<TelemetryRepository>> waitingForTelemetry = new ArrayList<>();
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        startupTracer = new StartupTracer(Process.getStartElapsedRealtime(), SystemClock::elapsedRealtime);
+        startupTracer.begin(StartupTracer.PHASE_APPLICATION);
+        ingestionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "node-ingestion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        nodeRegistry = new NodeRegistry(DetectionThresholds.DEFAULT,
+                SensorHistory.forDuration(HISTORY_DURATION_MS, SAMPLE_RATE_HZ).capacity(), HISTORY_DURATION_MS);
+
+        // The database client is brought up in the background, so the first screen can draw meanwhile
+        ExecutorService initExecutor = Executors.newSingleThreadExecutor();
+        initExecutor.execute(() -> {
+            startupTracer.begin(StartupTracer.PHASE_DATABASE);
+            // Cache the database on disk so the last known state survives going offline or a restart,
+            // and remote changes missed while offline are merged in when the connection returns.
+            // This has to happen before any other use of the database in the process.
+            FirebaseDatabase.getInstance().setPersistenceEnabled(true);
+            final TelemetryRepository repository = new TelemetryRepository(this);
+            startupTracer.end(StartupTracer.PHASE_DATABASE);
+            final ScoreRecorder recorder = openScoreRecorder();
+            mainHandler.post(() -> {
+                scoreRecorder = recorder;
+                // Uploads go on whether or not a screen is watching
+                repository.getConnection().observe(value -> recorder.setConnected(Boolean.TRUE.equals(value)));
+                telemetryRepository = repository;
+                for (Consumer<TelemetryRepository> callback : waitingForTelemetry) {
+                    callback.accept(repository);
+                }
+                waitingForTelemetry.clear();
+            });
+        });
+        initExecutor.shutdown();
+        startupTracer.end(StartupTracer.PHASE_APPLICATION);
+    }
+
+    /**
+     * Opens the score journal on the recorder's own thread; records written while offline in
+     * an earlier session are queued again for upload.
+     */
+    private ScoreRecorder openScoreRecorder() {
+        final SharedPreferences syncPreferences = getSharedPreferences("sync", Context.MODE_PRIVATE);
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "score-recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScoreRecorder recorder = new ScoreRecorder(new File(getFilesDir(), "score_events.journal"),
+                new FirebaseSyncBackend(FirebaseDatabase.getInstance().getReference()),
+                SCORE_EVENTS_PATH + installId(syncPreferences) + "/", syncPreferences.getLong(KEY_SYNCED_RECORDS, 0),
+                synced -> syncPreferences.edit().putLong(KEY_SYNCED_RECORDS, synced).apply(),
+                writer, System::currentTimeMillis);
+        startupTracer.begin(StartupTracer.PHASE_JOURNAL);
+        recorder.open();
+        writer.execute(() -> startupTracer.end(StartupTracer.PHASE_JOURNAL));
+        return recorder;
+    }
+
+    private static String installId(SharedPreferences preferences) {
+        String id = preferences.getString(KEY_INSTALL_ID, null);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            // Committed before any record is uploaded under it
+            preferences.edit().putString(KEY_INSTALL_ID, id).commit();
+        }
+        return id;
+    }
+
+    /**
+     * Hands over the subscriptions shared by every screen, on the main thread: straight away
+     * if they are ready, otherwise as soon as the database client is. They live as long as
+     * the process. Call from the main thread.
+     */
+    public void whenTelemetryReady(Consumer<TelemetryRepository> callback) {
+        if (telemetryRepository != null) {
+            callback.accept(telemetryRepository);
+        } else {
+            waitingForTelemetry.add(callback);
+        }
+    }
+
+    public StartupTracer getStartupTracer() {
+        return startupTracer;
+    }
+
+    public ScheduledExecutorService getIngestionExecutor() {
+        return ingestionExecutor;
+    }
+
+    /** Written on the ingestion thread only. */
+    public NodeRegistry getNodeRegistry() {
+        return nodeRegistry;
+    }
+
+    /** The match's scores, shared by every screen; null until the telemetry is ready. */
+    public ScoreRecorder getScoreRecorder() {
+        return scoreRecorder;
+    }
+}
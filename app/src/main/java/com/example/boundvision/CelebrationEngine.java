@@ -0,0 +1,201 @@
+package com.example.boundvision;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.cardview.widget.CardView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Plays the score card, ripple circles and event notification from animators built once.
+ * Celebrations that arrive while one is still on screen are queued and played in order;
+ * the notification simply restarts with the latest message. Must be used from the main thread.
+ */
+public class CelebrationEngine {
+
+    public interface Listener {
+        void onCelebrationStarted(String score, boolean highlight);
+    }
+
+    // Oldest celebrations are dropped beyond this so a burst of events can't lag far behind
+    private static final int MAX_QUEUED = 3;
+
+    private static final long CARD_POP_MS = 500;
+    private static final long CARD_HOLD_MS = 2000;
+    private static final long CARD_FADE_MS = 500;
+    private static final long CIRCLE_SCALE_MS = 800;
+    private static final long CIRCLE_FADE_DELAY_MS = 400;
+    private static final long CIRCLE_STAGGER_MS = 200;
+    private static final long NOTIFICATION_FADE_IN_MS = 500;
+    private static final long NOTIFICATION_HOLD_MS = 4000;
+    private static final long NOTIFICATION_FADE_OUT_MS = 1000;
+
+    private final CardView scoreCard;
+    private final TextView scoreText;
+    private final View[] circles;
+    private final CardView notificationCard;
+    private final TextView notificationText;
+    private final Listener listener;
+
+    private final AnimatorSet celebration = new AnimatorSet();
+    private final AnimatorSet notification = new AnimatorSet();
+    private final ArrayDeque<String> queuedScores = new ArrayDeque<>();
+    private final ArrayDeque<Boolean> queuedHighlights = new ArrayDeque<>();
+    private boolean playing = false;
+    private boolean cancelled = false;
+
+    public CelebrationEngine(CardView scoreCard, TextView scoreText, View[] circles,
+                             CardView notificationCard, TextView notificationText, Listener listener) {
+        this.scoreCard = scoreCard;
+        this.scoreText = scoreText;
+        this.circles = circles;
+        this.notificationCard = notificationCard;
+        this.notificationText = notificationText;
+        this.listener = listener;
+        buildCelebration();
+        buildNotification();
+    }
+
+    private void buildCelebration() {
+        AnimatorSet.Builder builder = celebration.play(
+                timed(ObjectAnimator.ofFloat(scoreCard, View.SCALE_X, 0f, 1f), CARD_POP_MS, 0));
+        builder.with(timed(ObjectAnimator.ofFloat(scoreCard, View.SCALE_Y, 0f, 1f), CARD_POP_MS, 0));
+        builder.with(timed(ObjectAnimator.ofFloat(scoreCard, View.ALPHA, 1f, 0f), CARD_FADE_MS, CARD_HOLD_MS));
+
+        for (int i = 0; i < circles.length; i++) {
+            View circle = circles[i];
+            long offset = i * CIRCLE_STAGGER_MS;
+            builder.with(timed(ObjectAnimator.ofFloat(circle, View.SCALE_X, 0f, 1f), CIRCLE_SCALE_MS, offset));
+            builder.with(timed(ObjectAnimator.ofFloat(circle, View.SCALE_Y, 0f, 1f), CIRCLE_SCALE_MS, offset));
+            builder.with(timed(ObjectAnimator.ofFloat(circle, View.ALPHA, 1f, 0f), CIRCLE_SCALE_MS,
+                    offset + CIRCLE_FADE_DELAY_MS));
+        }
+
+        celebration.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                cancelled = true;
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                scoreCard.setVisibility(View.INVISIBLE);
+                scoreCard.setLayerType(View.LAYER_TYPE_NONE, null);
+                for (View circle : circles) {
+                    circle.setVisibility(View.INVISIBLE);
+                    circle.setLayerType(View.LAYER_TYPE_NONE, null);
+                }
+                playing = false;
+                if (!cancelled) {
+                    playNext();
+                }
+            }
+        });
+    }
+
+    private void buildNotification() {
+        notification.play(timed(ObjectAnimator.ofFloat(notificationCard, View.ALPHA, 0f, 1f),
+                        NOTIFICATION_FADE_IN_MS, 0))
+                .before(timed(ObjectAnimator.ofFloat(notificationCard, View.ALPHA, 1f, 0f),
+                        NOTIFICATION_FADE_OUT_MS, NOTIFICATION_HOLD_MS));
+
+        notification.addListener(new AnimatorListenerAdapter() {
+            private boolean restarted;
+
+            @Override
+            public void onAnimationStart(Animator animation) {
+                restarted = false;
+            }
+
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                restarted = true;
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                // A cancel from showNotification() is followed by a fresh start; keep the card up
+                if (!restarted) {
+                    notificationCard.setVisibility(View.GONE);
+                    notificationCard.setLayerType(View.LAYER_TYPE_NONE, null);
+                }
+            }
+        });
+    }
+
+    private static ObjectAnimator timed(ObjectAnimator animator, long duration, long delay) {
+        animator.setDuration(duration);
+        animator.setStartDelay(delay);
+        return animator;
+    }
+
+    /**
+     * Shows a score celebration now, or after the ones already queued.
+     * The listener is told when it actually starts, e.g. to play the highlight video.
+     */
+    public void celebrate(String score, boolean highlight) {
+        if (queuedScores.size() == MAX_QUEUED) {
+            queuedScores.pollFirst();
+            queuedHighlights.pollFirst();
+        }
+        queuedScores.addLast(score);
+        queuedHighlights.addLast(highlight);
+        if (!playing) {
+            playNext();
+        }
+    }
+
+    private void playNext() {
+        String score = queuedScores.pollFirst();
+        if (score == null) {
+            return;
+        }
+        boolean highlight = queuedHighlights.pollFirst();
+
+        scoreText.setText(score);
+        prepare(scoreCard, 0f);
+        for (View circle : circles) {
+            prepare(circle, 0f);
+        }
+        playing = true;
+        cancelled = false;
+        celebration.start();
+        listener.onCelebrationStarted(score, highlight);
+    }
+
+    private static void prepare(View view, float scale) {
+        view.setScaleX(scale);
+        view.setScaleY(scale);
+        view.setAlpha(1f);
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        view.setVisibility(View.VISIBLE);
+    }
+
+    /**
+     * Shows a notification banner, replacing any that is currently on screen.
+     */
+    public void showNotification(CharSequence message, int color) {
+        notification.cancel();
+        notificationText.setText(message);
+        notificationCard.setCardBackgroundColor(color);
+        notificationCard.setAlpha(0f);
+        notificationCard.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        notificationCard.setVisibility(View.VISIBLE);
+        notification.start();
+    }
+
+    /**
+     * Stops everything on screen and drops queued celebrations.
+     */
+    public void cancel() {
+        queuedScores.clear();
+        queuedHighlights.clear();
+        celebration.cancel();
+        notification.cancel();
+    }
+}
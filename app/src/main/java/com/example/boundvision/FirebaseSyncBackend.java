@@ -0,0 +1,22 @@
+package com.example.boundvision;
+
+import com.google.firebase.database.DatabaseReference;
+
+import java.util.Map;
+
+/**
+ * {@link SyncBackend} that applies each batch as one atomic multi-path update under {@code root}.
+ */
+public class FirebaseSyncBackend implements SyncBackend {
+    private final DatabaseReference root;
+
+    public FirebaseSyncBackend(DatabaseReference root) {
+        this.root = root;
+    }
+
+    @Override
+    public void write(Map<String, Object> updates, Completion completion) {
+        root.updateChildren(updates)
+                .addOnCompleteListener(task -> completion.onComplete(task.isSuccessful()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.boundvision;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+
+/**
+ * Node updates from the Realtime Database: every node writes {@code sensors/{nodeId}}.
+ * The nodes are kept synced only while the source is started.
+ */
+public class FirebaseTelemetrySource implements TelemetrySource {
+    private final DatabaseReference sensorsReference;
+    private ChildEventListener listener;
+
+    public FirebaseTelemetrySource(DatabaseReference sensorsReference) {
+        this.sensorsReference = sensorsReference;
+    }
+
+    @Override
+    public void start(final Sink sink) {
+        if (listener != null) {
+            return;
+        }
+        listener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                sink.submit(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                sink.submit(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                sink.remove(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Handle error
+            }
+        };
+        sensorsReference.keepSynced(true);
+        sensorsReference.addChildEventListener(listener);
+    }
+
+    @Override
+    public void stop() {
+        if (listener != null) {
+            sensorsReference.removeEventListener(listener);
+            sensorsReference.keepSynced(false);
+            listener = null;
+        }
+    }
+}
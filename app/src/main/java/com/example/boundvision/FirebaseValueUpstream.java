@@ -0,0 +1,61 @@
+package com.example.boundvision;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.function.Consumer;
+
+/**
+ * The value of one database node for a {@link SharedValue}. While started the node is also
+ * kept synced, so it stays fresh in the disk cache; stopping lets it go quiet.
+ */
+public class FirebaseValueUpstream implements SharedValue.Upstream<Object> {
+    private final DatabaseReference reference;
+    private final boolean keepSynced;
+    private ValueEventListener listener;
+
+    /**
+     * @param keepSynced false for nodes that can't be synced, such as {@code .info/connected}
+     */
+    public FirebaseValueUpstream(DatabaseReference reference, boolean keepSynced) {
+        this.reference = reference;
+        this.keepSynced = keepSynced;
+    }
+
+    @Override
+    public void start(final Consumer<Object> sink) {
+        if (listener != null) {
+            return;
+        }
+        listener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                sink.accept(snapshot.getValue());
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Handle error
+            }
+        };
+        if (keepSynced) {
+            reference.keepSynced(true);
+        }
+        reference.addValueEventListener(listener);
+    }
+
+    @Override
+    public void stop() {
+        if (listener != null) {
+            reference.removeEventListener(listener);
+            listener = null;
+        }
+        if (keepSynced) {
+            reference.keepSynced(false);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.boundvision;
+
+import android.view.Choreographer;
+
+/**
+ * Collapses telemetry frames that arrive faster than the display refresh rate.
+ * Only the latest frame offered before a vsync is rendered, and the listener is told
+ * which fields actually changed since the previous render. Frames may be offered from
+ * any thread; the listener is called on the thread that created the coalescer.
+ */
+public class FrameCoalescer implements Choreographer.FrameCallback {
+
+    public interface FrameListener {
+        void onFrame(TelemetryFrame frame, int changedFields);
+    }
+
+    /** Where the vsync callback is posted; the Choreographer, or a fake in tests. */
+    interface VsyncScheduler {
+        void post(Choreographer.FrameCallback callback);
+
+        void remove(Choreographer.FrameCallback callback);
+    }
+
+    private final VsyncScheduler scheduler;
+    private final FrameListener listener;
+    private final TelemetryFrame pending = new TelemetryFrame();
+    private final TelemetryFrame rendered = new TelemetryFrame();
+    private final TelemetryFrame next = new TelemetryFrame();
+    private boolean scheduled = false;
+
+    public FrameCoalescer(FrameListener listener) {
+        this(listener, new VsyncScheduler() {
+            private final Choreographer choreographer = Choreographer.getInstance();
+
+            @Override
+            public void post(Choreographer.FrameCallback callback) {
+                choreographer.postFrameCallback(callback);
+            }
+
+            @Override
+            public void remove(Choreographer.FrameCallback callback) {
+                choreographer.removeFrameCallback(callback);
+            }
+        });
+    }
+
+    FrameCoalescer(FrameListener listener, VsyncScheduler scheduler) {
+        this.listener = listener;
+        this.scheduler = scheduler;
+    }
+
+    public void offer(TelemetryFrame frame) {
+        synchronized (pending) {
+            pending.copyFrom(frame);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        scheduler.post(this);
+    }
+
+    /**
+     * Forgets the last rendered frame, so the next frame rebinds every field.
+     * Used when switching to a different source node.
+     */
+    public void reset() {
+        synchronized (pending) {
+            pending.clear();
+        }
+        rendered.clear();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        synchronized (pending) {
+            scheduled = false;
+            next.copyFrom(pending);
+        }
+        int changed = next.diff(rendered);
+        rendered.copyFrom(next);
+        if (changed != 0) {
+            listener.onFrame(rendered, changed);
+        }
+    }
+
+    public void cancel() {
+        synchronized (pending) {
+            if (!scheduled) {
+                return;
+            }
+            scheduled = false;
+        }
+        scheduler.remove(this);
+    }
+}
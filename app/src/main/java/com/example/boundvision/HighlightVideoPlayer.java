@@ -0,0 +1,154 @@
+package com.example.boundvision;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.graphics.SurfaceTexture;
+import android.media.MediaPlayer;
+import android.view.Surface;
+import android.view.TextureView;
+
+import java.io.IOException;
+
+/**
+ * Keeps one prepared {@link MediaPlayer} for a short raw-resource clip so replays start
+ * without reopening or re-preparing the file. The clip is rewound as soon as it finishes,
+ * so {@link #play()} only has to call start. Must be used from the main thread.
+ */
+public class HighlightVideoPlayer implements TextureView.SurfaceTextureListener,
+        MediaPlayer.OnPreparedListener, MediaPlayer.OnCompletionListener, MediaPlayer.OnErrorListener {
+
+    private final Context context;
+    private final TextureView textureView;
+    private final int rawResId;
+    private MediaPlayer player;
+    private Surface surface;
+    private boolean prepared = false;
+    private boolean startWhenPrepared = false;
+
+    public HighlightVideoPlayer(Context context, TextureView textureView, int rawResId) {
+        this.context = context.getApplicationContext();
+        this.textureView = textureView;
+        this.rawResId = rawResId;
+        // The view stays laid out but transparent, so its surface exists before the first play
+        textureView.setAlpha(0f);
+        textureView.setSurfaceTextureListener(this);
+        if (textureView.isAvailable()) {
+            onSurfaceTextureAvailable(textureView.getSurfaceTexture(),
+                    textureView.getWidth(), textureView.getHeight());
+        }
+    }
+
+    /**
+     * Opens and prepares the clip in the background if it isn't already.
+     */
+    public void prepare() {
+        if (player != null) {
+            return;
+        }
+        player = new MediaPlayer();
+        player.setOnPreparedListener(this);
+        player.setOnCompletionListener(this);
+        player.setOnErrorListener(this);
+        try (AssetFileDescriptor fd = context.getResources().openRawResourceFd(rawResId)) {
+            player.setDataSource(fd.getFileDescriptor(), fd.getStartOffset(), fd.getLength());
+        } catch (IOException e) {
+            release();
+            return;
+        }
+        if (surface != null) {
+            player.setSurface(surface);
+        }
+        player.prepareAsync();
+    }
+
+    /**
+     * Plays the clip from the start, restarting it if it is already playing.
+     */
+    public void play() {
+        textureView.setAlpha(1f);
+        if (!prepared) {
+            startWhenPrepared = true;
+            prepare();
+            return;
+        }
+        if (player.isPlaying()) {
+            player.seekTo(0);
+        }
+        player.start();
+    }
+
+    public boolean isPlaying() {
+        return prepared && player.isPlaying();
+    }
+
+    /**
+     * Drops the prepared player when memory runs low; the next play prepares it again.
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW && !isPlaying()) {
+            release();
+        }
+    }
+
+    public void release() {
+        if (player != null) {
+            player.release();
+            player = null;
+        }
+        prepared = false;
+        startWhenPrepared = false;
+        textureView.setAlpha(0f);
+    }
+
+    @Override
+    public void onPrepared(MediaPlayer mp) {
+        prepared = true;
+        if (startWhenPrepared) {
+            startWhenPrepared = false;
+            mp.start();
+        }
+    }
+
+    @Override
+    public void onCompletion(MediaPlayer mp) {
+        textureView.setAlpha(0f);
+        // Rewind now rather than on the next play, so the next start is immediate
+        mp.seekTo(0);
+    }
+
+    @Override
+    public boolean onError(MediaPlayer mp, int what, int extra) {
+        // The player is unusable after an error; start over with a fresh one next time
+        release();
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surfaceTexture, int width, int height) {
+        surface = new Surface(surfaceTexture);
+        if (player != null) {
+            player.setSurface(surface);
+        }
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surfaceTexture, int width, int height) {
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surfaceTexture) {
+        if (player != null) {
+            player.setSurface(null);
+        }
+        if (surface != null) {
+            surface.release();
+            surface = null;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surfaceTexture) {
+    }
+}
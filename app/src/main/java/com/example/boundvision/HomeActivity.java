@@ -1,29 +1,28 @@
 package com.example.boundvision;
 
+import android.content.pm.ApplicationInfo;
 import android.graphics.Color;
-import android.media.MediaPlayer;
-import android.net.Uri;
 import android.os.Bundle;
-import android.os.Handler;
+import android.view.Choreographer;
+import android.view.TextureView;
 import android.view.View;
-import android.view.animation.AlphaAnimation;
-import android.view.animation.Animation;
-import android.view.animation.ScaleAnimation;
 import android.widget.Button;
-import android.widget.MediaController;
 import android.widget.TextView;
-import android.widget.VideoView;
+import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.constraintlayout.widget.ConstraintLayout;
+import androidx.core.content.ContextCompat;
 
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 
 public class HomeActivity extends AppCompatActivity {
 
@@ -32,49 +31,213 @@ public class HomeActivity extends AppCompatActivity {
     private View circleOne, circleTwo, circleThree;
     private Button sixButton, fourButton, wicketButton;
     private TextView scoreTextView;
-    private VideoView sixVideoView;
+    private TextureView sixVideoView;
+    private HighlightVideoPlayer sixVideoPlayer;
 
     // Sensor display components
     private TextView distanceValueText, soundValueText, vibrationValueText, foilContactValueText;
     private View foilIndicator, vibrationIndicator, soundIndicator;
-    private TextView monitoringStatusText, monitoringTimeText;
+    private TextView monitoringStatusText, monitoringTimeText, matchTotalsText;
     private CardView eventNotificationCard;
     private TextView eventNotificationText;
 
-    // Firebase reference
-    private FirebaseDatabase firebaseDatabase;
-    private DatabaseReference scoreReference;
-    private DatabaseReference sensorReference;
-    private DatabaseReference systemReference;
-    private DatabaseReference detectionReference;
-
-    // Monitoring state
-    private boolean isMonitoring = false;
-    private Handler monitoringHandler = new Handler();
-    private Runnable monitoringRunnable;
+    // Subscriptions shared with every other screen, observed while this one is started.
+    // Null until the database client is up, which happens off the main thread.
+    private TelemetryRepository telemetryRepository;
+    private boolean started = false;
+    private final Consumer<Object> rulesObserver = this::applyClassifierRules;
+    private final Consumer<Object> thresholdsObserver = value -> nodeIngestion.getRegistry()
+            .setThresholdConfig(AdaptiveThresholds.Config.fromMap(value));
+    private final ScoreEventStream.Listener scoreObserver = (nodeId, seq, decision, event) -> celebrate(decision);
+
+    // Score celebrations and notifications, animated from pre-built animators
+    private CelebrationEngine celebrationEngine;
+
+    // Detection-to-screen latency per pipeline stage, shown in a debug overlay
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder(500);
+    private final StringBuilder latencySummary = new StringBuilder();
+    private TextView latencyOverlayText;
+
+    // Monitoring countdown, computed from the focused node's session on every frame
+    private MonitoringTicker monitoringTicker;
+
+    // Telemetry frames of the focused node, coalesced to at most one view update per display frame
+    private FrameCoalescer frameCoalescer;
+    private final DisplayTextFormatter distanceFormatter = new DisplayTextFormatter(32);
+    private final DisplayTextFormatter soundFormatter = new DisplayTextFormatter(24);
+
+    // All sensor nodes around the rope, ingested on the application's ingestion thread
+    private static final long FUSION_TOLERANCE_MS = 1000;
+    private static final int FUSION_NEIGHBOUR_SPAN = 1;
+    private ScheduledExecutorService ingestionExecutor;
+    private NodeIngestion nodeIngestion;
+    private NodeRingView nodeRingView;
+    private SensorChartView sensorChartView;
+
+    // Boundary classification runs off the main thread
+    private ExecutorService classifierExecutor;
+    private BoundaryClassifier boundaryClassifier;
+
+    // Detected score events, journaled and uploaded by the application; null until the telemetry is ready
+    private ScoreRecorder scoreRecorder;
+    private final ScoreRecorder.Listener totalsListener = this::showMatchTotals;
+
+    // Startup: cached state first, everything slow after the first frame or off the main thread
+    private StartupTracer startupTracer;
+    private LastKnownStateStore lastKnownState;
+    private boolean firstFrameDrawn = false;
+    private boolean liveData = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        BoundVisionApplication application = (BoundVisionApplication) getApplication();
+        startupTracer = application.getStartupTracer();
+        startupTracer.begin(StartupTracer.PHASE_VIEWS);
         setContentView(R.layout.activity_home);
 
         // Initialize views
         initViews();
+        startupTracer.end(StartupTracer.PHASE_VIEWS);
+        startupTracer.begin(StartupTracer.PHASE_PIPELINE);
+
+        frameCoalescer = new FrameCoalescer(this::bindTelemetry);
+        classifierExecutor = Executors.newSingleThreadExecutor();
+        boundaryClassifier = new BoundaryClassifier(DecisionTable.defaults(), DetectionThresholds.DEFAULT,
+                classifierExecutor, ContextCompat.getMainExecutor(this));
+
+        ingestionExecutor = application.getIngestionExecutor();
+        NodeRegistry registry = application.getNodeRegistry();
+        nodeIngestion = new NodeIngestion(registry, FUSION_TOLERANCE_MS, FUSION_NEIGHBOUR_SPAN,
+                ingestionExecutor, System::currentTimeMillis, new NodeIngestion.Listener() {
+            @Override
+            public void onFocusedFrame(String nodeId, TelemetryFrame frame) {
+                frameCoalescer.offer(frame);
+            }
+
+            @Override
+            public void onFusedDetection(FusedDetection detection) {
+                if (classifierExecutor.isShutdown()) {
+                    return;
+                }
+                final LatencyTrace trace = LatencyTrace.of(detection);
+                boundaryClassifier.classifyEvidenceAsync(detection.getEvidenceMask(),
+                        detection.getFirstTimestampMs(),
+                        (decision, evidenceMask, event) ->
+                                onBoundaryClassified(decision, evidenceMask, event, trace));
+            }
 
-        // Initialize Firebase
-        setupFirebase();
+            @Override
+            public void onProvisionalDetection(NodeDetection detection) {
+                if (classifierExecutor.isShutdown()) {
+                    return;
+                }
+                final DecisionState state = detection.getState();
+                boundaryClassifier.classifyEvidenceAsync(detection.getEvidenceMask(),
+                        detection.getTimestampMs(),
+                        (decision, evidenceMask, event) -> onProvisionalClassified(decision, evidenceMask, state));
+            }
+        });
+        nodeRingView.setRegistry(registry);
+        sensorChartView.setRegistry(registry);
+        nodeRingView.setOnNodeSelectedListener(nodeId -> {
+            frameCoalescer.reset();
+            nodeIngestion.setFocusedNode(nodeId);
+            sensorChartView.setNode(nodeId);
+        });
+        sensorDataCardView.setOnLongClickListener(v -> {
+            // Node updates come from the database or, on the ground, straight from the nodes over the LAN
+            if (telemetryRepository == null) {
+                return false;
+            }
+            String next = TelemetryRepository.SOURCE_LAN.equals(telemetryRepository.getTelemetrySourceName())
+                    ? TelemetryRepository.SOURCE_FIREBASE : TelemetryRepository.SOURCE_LAN;
+            String source = telemetryRepository.setTelemetrySource(next);
+            Toast.makeText(this, "Sensor source: " + source, Toast.LENGTH_SHORT).show();
+            return true;
+        });
 
-        // Set up VideoView
-        setupVideoView();
+        // Set up the SIX highlight video; it is prepared after the first frame
+        sixVideoPlayer = new HighlightVideoPlayer(this, sixVideoView, R.raw.six_video);
 
         // Set click listeners for demo buttons
         setupDemoButtons();
+        startupTracer.end(StartupTracer.PHASE_PIPELINE);
+
+        // Show what the focused node last reported until live data arrives
+        lastKnownState = new LastKnownStateStore(new File(getFilesDir(), "last_known_state"));
+        restoreLastKnownState();
+
+        // Database-backed parts start once the client is up
+        application.whenTelemetryReady(this::onTelemetryReady);
+
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos ->
+                // Posted from the frame callback, so it runs once the frame has been drawn
+                mainLayout.post(this::onFirstFrameDrawn));
+    }
+
+    private void restoreLastKnownState() {
+        startupTracer.begin(StartupTracer.PHASE_LAST_KNOWN_STATE);
+        TelemetryFrame frame = new TelemetryFrame();
+        String nodeId = lastKnownState.load(frame);
+        if (nodeId != null) {
+            // Only sensor values are stored, so the monitoring card is left alone
+            bindTelemetry(frame, frame.getPresentFields());
+            monitoringStatusText.setText("LAST KNOWN STATE");
+            monitoringStatusText.setTextColor(Color.GRAY);
+        }
+        startupTracer.end(StartupTracer.PHASE_LAST_KNOWN_STATE);
+    }
+
+    private void saveLastKnownState() {
+        if (ingestionExecutor.isShutdown()) {
+            return;
+        }
+        ingestionExecutor.execute(() -> {
+            NodeState node = focusedNode();
+            if (node == null || node.getFrameCount() == 0) {
+                return;
+            }
+            try {
+                lastKnownState.save(node.getNodeId(), node.getFrame(), System.currentTimeMillis());
+            } catch (IOException e) {
+                // The next start just shows an empty card until data arrives
+            }
+        });
+    }
+
+    private void onFirstFrameDrawn() {
+        startupTracer.end(StartupTracer.PHASE_FIRST_FRAME);
+        firstFrameDrawn = true;
+        if (started) {
+            prepareVideo();
+        }
+        updateLatencyOverlay();
+    }
+
+    private void prepareVideo() {
+        startupTracer.begin(StartupTracer.PHASE_VIDEO);
+        sixVideoPlayer.prepare();
+        startupTracer.end(StartupTracer.PHASE_VIDEO);
+    }
+
+    private void onTelemetryReady(TelemetryRepository repository) {
+        if (isDestroyed()) {
+            return;
+        }
+        telemetryRepository = repository;
+        scoreRecorder = ((BoundVisionApplication) getApplication()).getScoreRecorder();
+        if (started) {
+            observeTelemetry();
+        }
     }
 
     private void initViews() {
         mainLayout = findViewById(R.id.mainLayout);
         scoreCardView = findViewById(R.id.scoreCardView);
         sensorDataCardView = findViewById(R.id.sensorDataCardView);
+        nodeRingView = findViewById(R.id.nodeRingView);
+        sensorChartView = findViewById(R.id.sensorChartView);
         circleOne = findViewById(R.id.circleOne);
         circleTwo = findViewById(R.id.circleTwo);
         circleThree = findViewById(R.id.circleThree);
@@ -96,223 +259,116 @@ public class HomeActivity extends AppCompatActivity {
 
         monitoringStatusText = findViewById(R.id.monitoringStatusText);
         monitoringTimeText = findViewById(R.id.monitoringTimeText);
+        matchTotalsText = findViewById(R.id.matchTotalsText);
+        monitoringTicker = new MonitoringTicker(monitoringTimeText);
 
         eventNotificationCard = findViewById(R.id.eventNotificationCard);
         eventNotificationText = findViewById(R.id.eventNotificationText);
 
+        latencyOverlayText = findViewById(R.id.latencyOverlayText);
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            latencyOverlayText.setVisibility(View.VISIBLE);
+            latencyOverlayText.setOnLongClickListener(v -> {
+                exportLatencyLog();
+                return true;
+            });
+            updateLatencyOverlay();
+        }
+
         // Initially hide notification
         eventNotificationCard.setVisibility(View.GONE);
-    }
-
-    private void setupVideoView() {
-        MediaController mediaController = new MediaController(this);
-        mediaController.setAnchorView(sixVideoView);
-        sixVideoView.setMediaController(mediaController);
 
-        sixVideoView.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
-            @Override
-            public void onCompletion(MediaPlayer mp) {
-                sixVideoView.setVisibility(View.GONE);
-            }
-        });
+        celebrationEngine = new CelebrationEngine(scoreCardView, scoreTextView,
+                new View[] {circleOne, circleTwo, circleThree},
+                eventNotificationCard, eventNotificationText, this::onCelebrationStarted);
     }
 
-    private void setupFirebase() {
-        firebaseDatabase = FirebaseDatabase.getInstance();
-        scoreReference = firebaseDatabase.getReference("cricket_score");
-        sensorReference = firebaseDatabase.getReference("sensor");
-        systemReference = firebaseDatabase.getReference("system");
-        detectionReference = firebaseDatabase.getReference("detection");
+    /**
+     * Classifier rules from {@code config/classifier_rules}, so they can be tuned without
+     * reflashing the device.
+     */
+    private void applyClassifierRules(Object value) {
+        DecisionTable rules;
+        try {
+            rules = value instanceof String ? DecisionTable.parse((String) value) : DecisionTable.defaults();
+        } catch (IllegalArgumentException e) {
+            // Keep the current rules if the new set is malformed
+            return;
+        }
+        // The scores celebrated from score_events are decided by the same rules as the ones recorded
+        boundaryClassifier.setRules(rules);
+        telemetryRepository.getScoreEvents().setRules(rules);
+    }
 
-        // Score listener
-        scoreReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    String scoreType = snapshot.child("type").getValue(String.class);
-                    if (scoreType != null) {
-                        switch (scoreType) {
-                            case "SIX":
-                                showSixAnimation();
-                                break;
-                            case "FOUR":
-                                showFourAnimation();
-                                break;
-                            case "WICKET":
-                                showWicketAnimation();
-                                break;
-                        }
-                    }
-                }
-            }
+    private void celebrate(BoundaryDecision decision) {
+        switch (decision) {
+            case SIX:
+                showSixAnimation();
+                break;
+            case FOUR:
+                showFourAnimation();
+                break;
+            case WICKET:
+                showWicketAnimation();
+                break;
+        }
+    }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Handle error
-            }
-        });
+    private void bindTelemetry(TelemetryFrame frame, int changed) {
+        // The first node to report is focused on the ingestion thread
+        sensorChartView.setNode(nodeIngestion.getFocusedNode());
+        if (!liveData && frame != null && nodeIngestion.getFocusedNode() != null) {
+            liveData = true;
+            startupTracer.end(StartupTracer.PHASE_FIRST_DATA);
+            // Replace the last known state's status line
+            updateMonitoringStatus(frame.isMonitoringActive());
+        }
 
-        // Sensor data listener
-        sensorReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    // Distance
-                    if (snapshot.hasChild("distance")) {
-                        Object distanceObj = snapshot.child("distance").getValue();
-                        if (distanceObj != null) {
-                            try {
-                                double distance;
-                                if (distanceObj instanceof Long) {
-                                    distance = ((Long) distanceObj).doubleValue();
-                                } else if (distanceObj instanceof Double) {
-                                    distance = (Double) distanceObj;
-                                } else {
-                                    distance = Double.parseDouble(distanceObj.toString());
-                                }
-                                distanceValueText.setText(String.format("%.1f cm", distance));
-                                distanceValueText.setTextColor(distance < 15 ? Color.RED : Color.BLACK);
-                            } catch (Exception e) {
-                                distanceValueText.setText("N/A cm");
-                            }
-                        }
-                    }
-
-                    // Sound
-                    if (snapshot.hasChild("sound")) {
-                        Object soundObj = snapshot.child("sound").getValue();
-                        if (soundObj != null) {
-                            try {
-                                long sound;
-                                if (soundObj instanceof Long) {
-                                    sound = (Long) soundObj;
-                                } else if (soundObj instanceof Double) {
-                                    sound = ((Double) soundObj).longValue();
-                                } else {
-                                    sound = Long.parseLong(soundObj.toString());
-                                }
-                                soundValueText.setText(String.valueOf(sound));
-                                soundValueText.setTextColor(sound > 1000 ? Color.RED : Color.BLACK);
-                            } catch (Exception e) {
-                                soundValueText.setText("N/A");
-                            }
-                        }
-                    }
-
-                    // Vibration
-                    if (snapshot.hasChild("vibration")) {
-                        Boolean vibration = snapshot.child("vibration").getValue(Boolean.class);
-                        if (vibration != null) {
-                            vibrationValueText.setText(vibration ? "ACTIVE" : "Inactive");
-                            vibrationValueText.setTextColor(vibration ? Color.RED : Color.BLACK);
-                        }
-                    }
-
-                    // Foil Contact
-                    if (snapshot.hasChild("foil_contact")) {
-                        Boolean foilContact = snapshot.child("foil_contact").getValue(Boolean.class);
-                        if (foilContact != null) {
-                            foilContactValueText.setText(foilContact ? "CONTACT" : "No Contact");
-                            foilContactValueText.setTextColor(foilContact ? Color.RED : Color.BLACK);
-                        }
-                    }
-                }
-            }
+        if ((changed & TelemetryFrame.FIELD_DISTANCE) != 0) {
+            double distance = frame.getDistanceCm();
+            distanceFormatter.formatFixed1(distance, " cm");
+            distanceValueText.setText(distanceFormatter.buffer(), 0, distanceFormatter.length());
+            distanceValueText.setTextColor(distance < 15 ? Color.RED : Color.BLACK);
+        }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Handle error
-            }
-        });
+        if ((changed & TelemetryFrame.FIELD_SOUND) != 0) {
+            long sound = frame.getSound();
+            soundFormatter.formatLong(sound);
+            soundValueText.setText(soundFormatter.buffer(), 0, soundFormatter.length());
+            soundValueText.setTextColor(sound > 1000 ? Color.RED : Color.BLACK);
+        }
 
-        // System status listener
-        systemReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    if (snapshot.hasChild("monitoring_active")) {
-                        Boolean active = snapshot.child("monitoring_active").getValue(Boolean.class);
-                        if (active != null) {
-                            isMonitoring = active;
-                            updateMonitoringStatus(active);
-
-                            if (active) {
-                                if (snapshot.hasChild("monitoring_remaining_ms")) {
-                                    Object timeObj = snapshot.child("monitoring_remaining_ms").getValue();
-                                    if (timeObj != null) {
-                                        try {
-                                            long remainingMs;
-                                            if (timeObj instanceof Long) {
-                                                remainingMs = (Long) timeObj;
-                                            } else if (timeObj instanceof Double) {
-                                                remainingMs = ((Double) timeObj).longValue();
-                                            } else {
-                                                remainingMs = Long.parseLong(timeObj.toString());
-                                            }
-                                            updateMonitoringCountdown(remainingMs);
-                                        } catch (Exception e) {
-                                            monitoringTimeText.setText("Error");
-                                        }
-                                    }
-                                }
-                            } else {
-                                if (monitoringRunnable != null) {
-                                    monitoringHandler.removeCallbacks(monitoringRunnable);
-                                }
-                                monitoringTimeText.setText("");
-                            }
-                        }
-                    }
-                }
-            }
+        if ((changed & TelemetryFrame.FIELD_VIBRATION) != 0) {
+            boolean vibration = frame.isVibration();
+            vibrationValueText.setText(vibration ? "ACTIVE" : "Inactive");
+            vibrationValueText.setTextColor(vibration ? Color.RED : Color.BLACK);
+        }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Handle error
-            }
-        });
+        if ((changed & TelemetryFrame.FIELD_FOIL_CONTACT) != 0) {
+            boolean foilContact = frame.isFoilContact();
+            foilContactValueText.setText(foilContact ? "CONTACT" : "No Contact");
+            foilContactValueText.setTextColor(foilContact ? Color.RED : Color.BLACK);
+        }
 
-        // Detection listener
-        detectionReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    boolean foilDetected = false;
-                    boolean vibrationDetected = false;
-                    boolean soundDetected = false;
-
-                    if (snapshot.hasChild("foil_contact")) {
-                        Boolean detected = snapshot.child("foil_contact").getValue(Boolean.class);
-                        foilDetected = detected != null && detected;
-                    }
-
-                    if (snapshot.hasChild("vibration")) {
-                        Boolean detected = snapshot.child("vibration").getValue(Boolean.class);
-                        vibrationDetected = detected != null && detected;
-                    }
-
-                    if (snapshot.hasChild("sound")) {
-                        Boolean detected = snapshot.child("sound").getValue(Boolean.class);
-                        soundDetected = detected != null && detected;
-                    }
-
-                    updateDetectionIndicators(foilDetected, vibrationDetected, soundDetected);
-
-                    if (foilDetected && !vibrationDetected && !soundDetected) {
-                        showEventNotification("Possible SIX RUNS: Player caught ball on boundary!", "#FF5722");
-                    } else if (vibrationDetected && soundDetected) {
-                        showEventNotification("Possible FOUR RUNS: Ball hit boundary rope!", "#2196F3");
-                    } else if (vibrationDetected && !soundDetected) {
-                        showEventNotification("Possible OUT: Player touched boundary!", "#F44336");
-                    }
-                }
+        // With overlapping windows the next one can take over while the node stays active
+        int monitoringFields = TelemetryFrame.FIELD_MONITORING_ACTIVE | TelemetryFrame.FIELD_MONITORING_STARTED
+                | TelemetryFrame.FIELD_MONITORING_WINDOWS;
+        if ((changed & monitoringFields) != 0) {
+            boolean active = frame.isMonitoringActive();
+            updateMonitoringStatus(active);
+
+            NodeState node = focusedNode();
+            if (active && node != null) {
+                monitoringTicker.start(node.getMonitoringSession());
+            } else {
+                monitoringTicker.stop();
             }
+        }
+    }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Handle error
-            }
-        });
+    private NodeState focusedNode() {
+        String nodeId = nodeIngestion.getFocusedNode();
+        return nodeId == null ? null : nodeIngestion.getRegistry().get(nodeId);
     }
 
     private void updateMonitoringStatus(boolean active) {
@@ -320,27 +376,98 @@ public class HomeActivity extends AppCompatActivity {
         monitoringStatusText.setTextColor(active ? Color.GREEN : Color.GRAY);
     }
 
-    private void updateMonitoringCountdown(final long remainingMs) {
-        if (monitoringRunnable != null) {
-            monitoringHandler.removeCallbacks(monitoringRunnable);
+    /**
+     * Shows the match totals, e.g. "23/1 (3.2 ov, RR 6.9)". Runs on the recorder's thread,
+     * which owns the timeline.
+     */
+    private void showMatchTotals(ScoreTimeline timeline) {
+        if (timeline.size() == 0) {
+            return;
         }
+        final String totals = timeline.formatTotals();
+        runOnUiThread(() -> matchTotalsText.setText(totals));
+    }
 
-        monitoringRunnable = new Runnable() {
-            long remaining = remainingMs;
+    private void onBoundaryClassified(BoundaryDecision decision, int evidenceMask, ScoreEvent event,
+                                      LatencyTrace trace) {
+        trace.mark(LatencyStage.CLASSIFIED, System.currentTimeMillis());
+        trace.setDecision(decision);
+        updateDetectionIndicators((evidenceMask & DetectionThresholds.EVIDENCE_FOIL) != 0,
+                (evidenceMask & DetectionThresholds.EVIDENCE_VIBRATION) != 0,
+                (evidenceMask & DetectionThresholds.EVIDENCE_SOUND) != 0);
+        if (event != null && scoreRecorder != null) {
+            scoreRecorder.record(event);
+        }
+        switch (decision) {
+            case SIX:
+                showEventNotification("Possible SIX RUNS: Player caught ball on boundary!", "#FF5722");
+                break;
+            case FOUR:
+                showEventNotification("Possible FOUR RUNS: Ball hit boundary rope!", "#2196F3");
+                break;
+            case WICKET:
+                showEventNotification("Possible OUT: Player touched boundary!", "#F44336");
+                break;
+        }
+        recordLatency(trace, decision != BoundaryDecision.NONE);
+    }
 
-            @Override
-            public void run() {
-                double seconds = remaining / 1000.0;
-                runOnUiThread(() -> monitoringTimeText.setText(String.format("%.1f sec remaining", seconds)));
+    /**
+     * Shows a node's early verdict; the confirmed result follows through onBoundaryClassified.
+     * Nothing is recorded or celebrated until then.
+     */
+    private void onProvisionalClassified(BoundaryDecision decision, int evidenceMask, DecisionState state) {
+        if (decision == BoundaryDecision.NONE) {
+            return;
+        }
+        String name = decision == BoundaryDecision.WICKET ? "OUT" : decision.name();
+        if (state == DecisionState.PROVISIONAL) {
+            updateDetectionIndicators((evidenceMask & DetectionThresholds.EVIDENCE_FOIL) != 0,
+                    (evidenceMask & DetectionThresholds.EVIDENCE_VIBRATION) != 0,
+                    (evidenceMask & DetectionThresholds.EVIDENCE_SOUND) != 0);
+            showEventNotification("Checking: likely " + name + "...", "#9E9E9E");
+        } else {
+            showEventNotification(name + " ruled out", "#607D8B");
+        }
+    }
 
-                remaining -= 100;
-                if (remaining > 0 && isMonitoring) {
-                    monitoringHandler.postDelayed(this, 100);
-                }
-            }
-        };
+    /**
+     * Closes the trace once the frame showing the result has been drawn.
+     */
+    private void recordLatency(final LatencyTrace trace, boolean rendered) {
+        if (!rendered) {
+            latencyRecorder.record(trace);
+            updateLatencyOverlay();
+            return;
+        }
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos -> {
+            trace.mark(LatencyStage.RENDERED, System.currentTimeMillis());
+            latencyRecorder.record(trace);
+            updateLatencyOverlay();
+        });
+    }
 
-        monitoringHandler.post(monitoringRunnable);
+    private void updateLatencyOverlay() {
+        if (latencyOverlayText.getVisibility() != View.VISIBLE) {
+            return;
+        }
+        latencySummary.setLength(0);
+        startupTracer.writeSummary(latencySummary);
+        latencyRecorder.writeSummary(latencySummary);
+        latencyOverlayText.setText(latencySummary);
+    }
+
+    private void exportLatencyLog() {
+        File dir = getExternalFilesDir(null);
+        File csv = new File(dir, "latency.csv");
+        File json = new File(dir, "latency.json");
+        try (Writer csvWriter = new FileWriter(csv); Writer jsonWriter = new FileWriter(json)) {
+            latencyRecorder.writeCsv(csvWriter);
+            latencyRecorder.writeJson(jsonWriter);
+            Toast.makeText(this, "Latency log saved to " + dir, Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Could not save latency log", Toast.LENGTH_SHORT).show();
+        }
     }
 
     private void updateDetectionIndicators(boolean foil, boolean vibration, boolean sound) {
@@ -350,31 +477,7 @@ public class HomeActivity extends AppCompatActivity {
     }
 
     private void showEventNotification(String message, String colorHex) {
-        eventNotificationText.setText(message);
-        eventNotificationCard.setCardBackgroundColor(Color.parseColor(colorHex));
-
-        eventNotificationCard.setVisibility(View.VISIBLE);
-        AlphaAnimation fadeIn = new AlphaAnimation(0f, 1f);
-        fadeIn.setDuration(500);
-        eventNotificationCard.startAnimation(fadeIn);
-
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                AlphaAnimation fadeOut = new AlphaAnimation(1f, 0f);
-                fadeOut.setDuration(1000);
-                fadeOut.setAnimationListener(new Animation.AnimationListener() {
-                    @Override public void onAnimationStart(Animation animation) {}
-                    @Override public void onAnimationRepeat(Animation animation) {}
-
-                    @Override
-                    public void onAnimationEnd(Animation animation) {
-                        eventNotificationCard.setVisibility(View.GONE);
-                    }
-                });
-                eventNotificationCard.startAnimation(fadeOut);
-            }
-        }, 4000);
+        celebrationEngine.showNotification(message, Color.parseColor(colorHex));
     }
 
     private void setupDemoButtons() {
@@ -401,102 +504,78 @@ public class HomeActivity extends AppCompatActivity {
     }
 
     private void showSixAnimation() {
-        showScoreCard("6");
-        animateCircles();
-        playSixVideo();
+        celebrationEngine.celebrate("6", true);
     }
 
     private void showFourAnimation() {
-        showScoreCard("4");
-        animateCircles();
+        celebrationEngine.celebrate("4", false);
     }
 
     private void showWicketAnimation() {
-        showScoreCard("W");
-        animateCircles();
+        celebrationEngine.celebrate("W", false);
     }
 
-    private void showScoreCard(String score) {
-        scoreCardView.setVisibility(View.VISIBLE);
-        scoreTextView.setText(score);
-
-        ScaleAnimation scaleAnimation = new ScaleAnimation(
-                0f, 1f, 0f, 1f,
-                Animation.RELATIVE_TO_SELF, 0.5f,
-                Animation.RELATIVE_TO_SELF, 0.5f
-        );
-        scaleAnimation.setDuration(500);
-        scoreCardView.startAnimation(scaleAnimation);
-
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                AlphaAnimation fadeOut = new AlphaAnimation(1f, 0f);
-                fadeOut.setDuration(500);
-                fadeOut.setAnimationListener(new Animation.AnimationListener() {
-                    @Override public void onAnimationStart(Animation animation) {}
-                    @Override public void onAnimationRepeat(Animation animation) {}
-
-                    @Override
-                    public void onAnimationEnd(Animation animation) {
-                        scoreCardView.setVisibility(View.INVISIBLE);
-                    }
-                });
-                scoreCardView.startAnimation(fadeOut);
-            }
-        }, 2000);
+    private void onCelebrationStarted(String score, boolean highlight) {
+        if (highlight) {
+            playSixVideo();
+        }
     }
 
-    private void animateCircles() {
-        animateCircle(circleOne, 0);
-        animateCircle(circleTwo, 200);
-        animateCircle(circleThree, 400);
+    private void playSixVideo() {
+        sixVideoPlayer.play();
     }
 
-    private void animateCircle(final View circle, long delay) {
-        circle.setVisibility(View.VISIBLE);
-
-        final ScaleAnimation scaleAnimation = new ScaleAnimation(
-                0f, 1f, 0f, 1f,
-                Animation.RELATIVE_TO_SELF, 0.5f,
-                Animation.RELATIVE_TO_SELF, 0.5f
-        );
-        scaleAnimation.setDuration(800);
-
-        final AlphaAnimation alphaAnimation = new AlphaAnimation(1f, 0f);
-        alphaAnimation.setDuration(800);
-        alphaAnimation.setStartOffset(400);
-        alphaAnimation.setAnimationListener(new Animation.AnimationListener() {
-            @Override public void onAnimationStart(Animation animation) {}
-            @Override public void onAnimationRepeat(Animation animation) {}
+    @Override
+    protected void onStart() {
+        super.onStart();
+        started = true;
+        // Warm the player again if it was released while the app was in the background
+        if (firstFrameDrawn) {
+            prepareVideo();
+        }
+        if (telemetryRepository != null) {
+            observeTelemetry();
+        }
+    }
 
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                circle.setVisibility(View.INVISIBLE);
-            }
-        });
+    private void observeTelemetry() {
+        // Sensor nodes, from the database or the local network, handed straight to the ingestion thread;
+        // threshold settings are shared with the nodes, a missing node means the fixed defaults
+        telemetryRepository.observeTelemetry(nodeIngestion);
+        telemetryRepository.getScoreEvents().observe(scoreObserver);
+        telemetryRepository.getClassifierRules().observe(rulesObserver);
+        telemetryRepository.getThresholds().observe(thresholdsObserver);
+        scoreRecorder.addListener(totalsListener);
+    }
 
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                circle.startAnimation(scaleAnimation);
-                circle.startAnimation(alphaAnimation);
-            }
-        }, delay);
+    @Override
+    protected void onStop() {
+        super.onStop();
+        started = false;
+        saveLastKnownState();
+        if (telemetryRepository == null) {
+            return;
+        }
+        telemetryRepository.removeTelemetryObserver(nodeIngestion);
+        telemetryRepository.getScoreEvents().removeObserver(scoreObserver);
+        telemetryRepository.getClassifierRules().removeObserver(rulesObserver);
+        telemetryRepository.getThresholds().removeObserver(thresholdsObserver);
+        scoreRecorder.removeListener(totalsListener);
     }
 
-    private void playSixVideo() {
-        String videoPath = "android.resource://" + getPackageName() + "/" + R.raw.six_video;
-        sixVideoView.setVideoURI(Uri.parse(videoPath));
-        sixVideoView.setVisibility(View.VISIBLE);
-        sixVideoView.start();
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        sixVideoPlayer.onTrimMemory(level);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (monitoringRunnable != null) {
-            monitoringHandler.removeCallbacks(monitoringRunnable);
-        }
+        frameCoalescer.cancel();
+        classifierExecutor.shutdown();
+        monitoringTicker.stop();
+        celebrationEngine.cancel();
+        sixVideoPlayer.release();
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.boundvision;
+
+import android.view.Choreographer;
+import android.widget.TextView;
+
+/**
+ * Renders the monitoring countdown once per display frame from a {@link MonitoringSession}.
+ * The countdown is for the window that resolves next, followed by how many more are open.
+ * The text is only rebuilt when either changes, and ticking stops by itself when the last
+ * window closes. Must be used from the main thread.
+ */
+public class MonitoringTicker implements Choreographer.FrameCallback {
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final DisplayTextFormatter formatter = new DisplayTextFormatter(32);
+    private final TextView target;
+    private MonitoringSession session;
+    private boolean running = false;
+    private long shownTenths = -1;
+    private int shownWindows = -1;
+
+    public MonitoringTicker(TextView target) {
+        this.target = target;
+    }
+
+    public void start(MonitoringSession session) {
+        this.session = session;
+        if (!running) {
+            running = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    public void stop() {
+        if (running) {
+            choreographer.removeFrameCallback(this);
+            running = false;
+        }
+        session = null;
+        shownTenths = -1;
+        shownWindows = -1;
+        target.setText("");
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        long now = System.currentTimeMillis();
+        long remaining = session.remainingMs(now);
+        if (remaining <= 0) {
+            running = false;
+            stop();
+            return;
+        }
+
+        long tenths = remaining / 100;
+        int windows = session.getOpenWindows(now);
+        if (tenths != shownTenths || windows != shownWindows) {
+            shownTenths = tenths;
+            shownWindows = windows;
+            formatter.formatFixed1(tenths / 10.0, " sec remaining");
+            if (windows > 1) {
+                formatter.append(" (+").append(windows - 1).append(" more)");
+            }
+            target.setText(formatter.buffer(), 0, formatter.length());
+        }
+        choreographer.postFrameCallback(this);
+    }
+}
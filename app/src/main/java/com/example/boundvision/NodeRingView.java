@@ -0,0 +1,170 @@
+package com.example.boundvision;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows every sensor node as a dot on a ring, in rope order.
+ * Grey is silent, green is reporting, red is showing evidence, and the focused node is outlined.
+ * The view polls the registry a few times a second instead of redrawing on every update.
+ */
+public class NodeRingView extends View {
+
+    public interface OnNodeSelectedListener {
+        void onNodeSelected(String nodeId);
+    }
+
+    private static final long REFRESH_INTERVAL_MS = 250;
+    private static final long STALE_AFTER_MS = 2000;
+
+    private final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint focusPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint ringPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final List<NodeState> nodes = new ArrayList<>();
+    private final Runnable refresh = this::refreshIfChanged;
+
+    private NodeRegistry registry;
+    private OnNodeSelectedListener selectedListener;
+    private String focusedNodeId;
+    private long drawnVersion = -1;
+    private long drawnAtMs = 0;
+
+    public NodeRingView(Context context) {
+        this(context, null);
+    }
+
+    public NodeRingView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        ringPaint.setStyle(Paint.Style.STROKE);
+        ringPaint.setColor(Color.LTGRAY);
+        ringPaint.setStrokeWidth(2f);
+        focusPaint.setStyle(Paint.Style.STROKE);
+        focusPaint.setColor(Color.BLACK);
+        focusPaint.setStrokeWidth(3f);
+    }
+
+    public void setRegistry(NodeRegistry registry) {
+        this.registry = registry;
+        drawnVersion = -1;
+        invalidate();
+    }
+
+    public void setOnNodeSelectedListener(OnNodeSelectedListener listener) {
+        this.selectedListener = listener;
+    }
+
+    public void setFocusedNode(String nodeId) {
+        focusedNodeId = nodeId;
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        postDelayed(refresh, REFRESH_INTERVAL_MS);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(refresh);
+        super.onDetachedFromWindow();
+    }
+
+    private void refreshIfChanged() {
+        // Redraw when nodes reported, and at least every stale interval so silent nodes turn grey
+        if (registry != null && (registry.getVersion() != drawnVersion
+                || System.currentTimeMillis() - drawnAtMs >= STALE_AFTER_MS)) {
+            invalidate();
+        }
+        postDelayed(refresh, REFRESH_INTERVAL_MS);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (registry == null) {
+            return;
+        }
+        drawnVersion = registry.getVersion();
+        drawnAtMs = System.currentTimeMillis();
+        registry.snapshot(nodes);
+
+        float cx = getWidth() / 2f;
+        float cy = getHeight() / 2f;
+        float dotRadius = Math.min(getWidth(), getHeight()) / 24f;
+        float radius = Math.min(cx, cy) - dotRadius * 1.5f;
+        canvas.drawCircle(cx, cy, radius, ringPaint);
+
+        int positions = ringSize();
+        for (int i = 0; i < nodes.size(); i++) {
+            NodeState node = nodes.get(i);
+            double angle = 2 * Math.PI * node.getRingIndex() / positions - Math.PI / 2;
+            float x = cx + (float) (radius * Math.cos(angle));
+            float y = cy + (float) (radius * Math.sin(angle));
+
+            dotPaint.setColor(colorOf(node, drawnAtMs));
+            canvas.drawCircle(x, y, dotRadius, dotPaint);
+            if (node.getNodeId().equals(focusedNodeId)) {
+                canvas.drawCircle(x, y, dotRadius * 1.4f, focusPaint);
+            }
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (event.getAction() != MotionEvent.ACTION_UP || nodes.isEmpty()) {
+            return true;
+        }
+        float cx = getWidth() / 2f;
+        float cy = getHeight() / 2f;
+        double touchAngle = Math.atan2(event.getY() - cy, event.getX() - cx) + Math.PI / 2;
+        int positions = ringSize();
+
+        NodeState closest = null;
+        double closestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < nodes.size(); i++) {
+            NodeState node = nodes.get(i);
+            double angle = 2 * Math.PI * node.getRingIndex() / positions;
+            double distance = Math.abs(Math.atan2(Math.sin(touchAngle - angle), Math.cos(touchAngle - angle)));
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = node;
+            }
+        }
+        if (closest != null && selectedListener != null) {
+            setFocusedNode(closest.getNodeId());
+            selectedListener.onNodeSelected(closest.getNodeId());
+        }
+        performClick();
+        return true;
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    private int ringSize() {
+        int max = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            max = Math.max(max, nodes.get(i).getRingIndex() + 1);
+        }
+        return Math.max(max, nodes.size());
+    }
+
+    private static int colorOf(NodeState node, long nowMs) {
+        if (nowMs - node.getLastSeenMs() > STALE_AFTER_MS) {
+            return Color.GRAY;
+        }
+        int evidence = node.getLiveEvidence() & ~DetectionThresholds.EVIDENCE_PROXIMITY;
+        return evidence != 0 || node.isMonitoring() ? Color.RED : Color.GREEN;
+    }
+}
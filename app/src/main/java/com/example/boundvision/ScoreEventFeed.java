@@ -0,0 +1,180 @@
+package com.example.boundvision;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Scores the nodes append to {@code score_events}, shared by every screen that celebrates them.
+ * Only children after the acknowledged one are downloaded, so resuming or reconnecting doesn't
+ * fetch the match again, and each score reaches the observers once. Scores that arrive while
+ * no screen is watching are held for the next one.
+ */
+public class ScoreEventFeed extends SharedSubscription<ScoreEventStream.Listener> {
+    private static final String KEY_ACKNOWLEDGED_SCORE = "acknowledged_score_key";
+    private static final String KEY_SCORE_EPOCH_PREFIX = "score_epoch_";
+    private static final String KEY_SCORE_SEQ_PREFIX = "score_seq_";
+
+    private static final class Score {
+        final String nodeId;
+        final long seq;
+        final BoundaryDecision decision;
+        final ScoreEvent event;
+
+        Score(String nodeId, long seq, BoundaryDecision decision, ScoreEvent event) {
+            this.nodeId = nodeId;
+            this.seq = seq;
+            this.decision = decision;
+            this.event = event;
+        }
+    }
+
+    private final DatabaseReference reference;
+    private final SharedPreferences preferences;
+    private final ScoreEventStream stream;
+    // Scores that came in with nobody watching, in arrival order
+    private final List<Score> undelivered = new ArrayList<>();
+    private Query query;
+    private ChildEventListener listener;
+
+    public ScoreEventFeed(DatabaseReference reference, SharedPreferences preferences,
+                          ScheduledExecutorService scheduler, long lingerMs) {
+        super(scheduler, lingerMs);
+        this.reference = reference;
+        this.preferences = preferences;
+        Map<String, Long> acknowledgedEpochs = new HashMap<>();
+        Map<String, Long> acknowledgedSeqs = new HashMap<>();
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            if (!(entry.getValue() instanceof Long)) {
+                continue;
+            }
+            if (entry.getKey().startsWith(KEY_SCORE_EPOCH_PREFIX)) {
+                acknowledgedEpochs.put(entry.getKey().substring(KEY_SCORE_EPOCH_PREFIX.length()),
+                        (Long) entry.getValue());
+            } else if (entry.getKey().startsWith(KEY_SCORE_SEQ_PREFIX)) {
+                acknowledgedSeqs.put(entry.getKey().substring(KEY_SCORE_SEQ_PREFIX.length()),
+                        (Long) entry.getValue());
+            }
+        }
+        stream = new ScoreEventStream(preferences.getString(KEY_ACKNOWLEDGED_SCORE, null), acknowledgedEpochs,
+                acknowledgedSeqs, this::onScoreEvent);
+    }
+
+    private void onScoreEvent(String nodeId, long seq, BoundaryDecision decision, ScoreEvent event) {
+        preferences.edit()
+                .putLong(KEY_SCORE_EPOCH_PREFIX + nodeId, stream.getAcknowledgedEpochs().get(nodeId))
+                .putLong(KEY_SCORE_SEQ_PREFIX + nodeId, seq)
+                .apply();
+        if (observers().isEmpty()) {
+            undelivered.add(new Score(nodeId, seq, decision, event));
+        }
+        for (ScoreEventStream.Listener observer : observers()) {
+            observer.onScoreEvent(nodeId, seq, decision, event);
+        }
+    }
+
+    /** Rules for deciding scores from their evidence; set along with the classifier's. */
+    public synchronized void setRules(DecisionTable rules) {
+        stream.setRules(rules);
+    }
+
+    @Override
+    protected void start() {
+        String acknowledgedKey = stream.getAcknowledgedKey();
+        if (acknowledgedKey != null) {
+            listen(reference.orderByKey().startAt(acknowledgedKey));
+            return;
+        }
+        // First run: earlier matches' scores are history, so start after the newest one
+        reference.orderByKey().limitToLast(1).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                synchronized (ScoreEventFeed.this) {
+                    if (!isStarted() || listener != null) {
+                        return;
+                    }
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        stream.skipTo(child.getKey());
+                    }
+                    String key = stream.getAcknowledgedKey();
+                    listen(key == null ? reference.orderByKey() : reference.orderByKey().startAt(key));
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                synchronized (ScoreEventFeed.this) {
+                    if (isStarted() && listener == null) {
+                        listen(reference.orderByKey());
+                    }
+                }
+            }
+        });
+    }
+
+    private void listen(Query query) {
+        this.query = query;
+        // Only the children after the acknowledged one, not the whole list
+        query.keepSynced(true);
+        listener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                synchronized (ScoreEventFeed.this) {
+                    stream.accept(snapshot.getKey(), snapshot.getValue(), System.currentTimeMillis());
+                    preferences.edit().putString(KEY_ACKNOWLEDGED_SCORE, stream.getAcknowledgedKey()).apply();
+                }
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                // Score events are append-only
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                // Old matches may be cleared out; the acknowledged key stays valid
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Handle error
+            }
+        };
+        query.addChildEventListener(listener);
+    }
+
+    @Override
+    protected void stop() {
+        if (listener != null) {
+            query.removeEventListener(listener);
+            query.keepSynced(false);
+            listener = null;
+            query = null;
+        }
+    }
+
+    @Override
+    protected void replay(ScoreEventStream.Listener observer) {
+        for (Score score : undelivered) {
+            observer.onScoreEvent(score.nodeId, score.seq, score.decision, score.event);
+        }
+        undelivered.clear();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.boundvision;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * Scrolling charts of one node's channels, one strip each, newest on the right. Each pixel
+ * column is drawn as the min-max range of the buckets it covers, so short spikes stay visible
+ * over a long span, with the thresholds the node is judged against as lines across the strip.
+ * Checks for new data on every display frame but only redraws when some arrived, and draws
+ * from buffers sized once per layout, so a frame never allocates.
+ */
+public class SensorChartView extends View {
+    private static final int[] CHANNELS = {SensorCharts.DISTANCE, SensorCharts.SOUND,
+            SensorCharts.VIBRATION, SensorCharts.FOIL_CONTACT};
+    private static final int[] COLORS = {Color.rgb(0x21, 0x96, 0xF3), Color.rgb(0xFF, 0x57, 0x22),
+            Color.rgb(0x9C, 0x27, 0xB0), Color.rgb(0x4C, 0xAF, 0x50)};
+    private static final float STRIP_GAP = 4f;
+
+    private final Paint linePaint = new Paint();
+    private final Paint thresholdPaint = new Paint();
+    private final Paint gridPaint = new Paint();
+    private final Runnable frameCheck = this::redrawIfChanged;
+
+    private NodeRegistry registry;
+    private String nodeId;
+    private NodeState node;
+    private long drawnVersion = -1;
+
+    // Reused on every draw
+    private float[] mins = new float[SensorCharts.DEFAULT_BUCKETS];
+    private float[] maxs = new float[SensorCharts.DEFAULT_BUCKETS];
+    private float[] columnMins = new float[0];
+    private float[] columnMaxs = new float[0];
+    private float[] lines = new float[0];
+
+    public SensorChartView(Context context) {
+        this(context, null);
+    }
+
+    public SensorChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        linePaint.setStrokeWidth(1.5f);
+        thresholdPaint.setColor(Color.RED);
+        thresholdPaint.setStrokeWidth(1f);
+        gridPaint.setColor(Color.rgb(0xEE, 0xEE, 0xEE));
+    }
+
+    public void setRegistry(NodeRegistry registry) {
+        this.registry = registry;
+        node = null;
+        drawnVersion = -1;
+        invalidate();
+    }
+
+    /** Charts this node, or nothing for null. */
+    public void setNode(String nodeId) {
+        if (nodeId == null ? this.nodeId == null : nodeId.equals(this.nodeId)) {
+            return;
+        }
+        this.nodeId = nodeId;
+        node = null;
+        drawnVersion = -1;
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        postOnAnimation(frameCheck);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(frameCheck);
+        super.onDetachedFromWindow();
+    }
+
+    private void redrawIfChanged() {
+        if (node == null && registry != null && nodeId != null) {
+            // The node may not have reported yet
+            node = registry.get(nodeId);
+        }
+        if (node != null && node.getCharts().getVersion() != drawnVersion && getVisibility() == VISIBLE) {
+            invalidate();
+        }
+        postOnAnimation(frameCheck);
+    }
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        int columns = Math.min(Math.max(width, 1), SensorCharts.DEFAULT_BUCKETS);
+        columnMins = new float[columns];
+        columnMaxs = new float[columns];
+        // A min-max bar and a link to the previous column, per column
+        lines = new float[columns * 8];
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (node == null || columnMins.length == 0) {
+            return;
+        }
+        SensorCharts charts = node.getCharts();
+        drawnVersion = charts.getVersion();
+        DetectionThresholds thresholds = node.getThresholds();
+        float stripHeight = (getHeight() - STRIP_GAP * (CHANNELS.length - 1)) / CHANNELS.length;
+        for (int i = 0; i < CHANNELS.length; i++) {
+            float top = i * (stripHeight + STRIP_GAP);
+            canvas.drawRect(0, top, getWidth(), top + stripHeight, gridPaint);
+            MinMaxDownsampler channel = charts.channel(CHANNELS[i]);
+            if (channel.buckets() > mins.length) {
+                mins = new float[channel.buckets()];
+                maxs = new float[channel.buckets()];
+            }
+            channel.copyTo(mins, maxs);
+            drawStrip(canvas, channel.buckets(), CHANNELS[i], thresholds, top, stripHeight, COLORS[i]);
+        }
+    }
+
+    private void drawStrip(Canvas canvas, int buckets, int channel, DetectionThresholds thresholds,
+                           float top, float height, int color) {
+        // Merge buckets into columns, then scale to the range shown
+        int columns = columnMins.length;
+        float low = Float.POSITIVE_INFINITY;
+        float high = Float.NEGATIVE_INFINITY;
+        for (int c = 0; c < columns; c++) {
+            float min = Float.NaN;
+            float max = Float.NaN;
+            for (int b = c * buckets / columns, end = (c + 1) * buckets / columns; b < end; b++) {
+                if (Float.isNaN(mins[b])) continue;
+                if (Float.isNaN(min) || mins[b] < min) min = mins[b];
+                if (Float.isNaN(max) || maxs[b] > max) max = maxs[b];
+            }
+            columnMins[c] = min;
+            columnMaxs[c] = max;
+            if (!Float.isNaN(min)) {
+                low = Math.min(low, min);
+                high = Math.max(high, max);
+            }
+        }
+        if (low > high) {
+            return;
+        }
+        float threshold = Float.NaN;
+        if (thresholds != null && channel == SensorCharts.DISTANCE) {
+            threshold = (float) thresholds.getBoundaryDistanceCm();
+        } else if (thresholds != null && channel == SensorCharts.SOUND) {
+            threshold = thresholds.getSoundMin();
+        }
+        if (channel == SensorCharts.VIBRATION || channel == SensorCharts.FOIL_CONTACT) {
+            low = 0;
+            high = 1;
+        } else if (!Float.isNaN(threshold)) {
+            low = Math.min(low, threshold);
+            high = Math.max(high, threshold);
+        }
+        float scale = high > low ? (height - 2) / (high - low) : 0;
+        float bottom = top + height - 1;
+
+        int count = 0;
+        float columnWidth = (float) getWidth() / columns;
+        float previousX = Float.NaN;
+        float previousY = Float.NaN;
+        for (int c = 0; c < columns; c++) {
+            if (Float.isNaN(columnMins[c])) {
+                previousX = Float.NaN;
+                continue;
+            }
+            float x = (c + 0.5f) * columnWidth;
+            float yMin = bottom - (columnMins[c] - low) * scale;
+            float yMax = bottom - (columnMaxs[c] - low) * scale;
+            lines[count++] = x;
+            lines[count++] = yMin + 0.5f;
+            lines[count++] = x;
+            lines[count++] = yMax - 0.5f;
+            if (!Float.isNaN(previousX)) {
+                lines[count++] = previousX;
+                lines[count++] = previousY;
+                lines[count++] = x;
+                lines[count++] = (yMin + yMax) / 2;
+            }
+            previousX = x;
+            previousY = (yMin + yMax) / 2;
+        }
+        linePaint.setColor(color);
+        canvas.drawLines(lines, 0, count, linePaint);
+
+        if (!Float.isNaN(threshold)) {
+            float y = bottom - (threshold - low) * scale;
+            canvas.drawLine(0, y, getWidth(), y, thresholdPaint);
+        }
+    }
+}
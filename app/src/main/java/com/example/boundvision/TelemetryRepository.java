@@ -0,0 +1,157 @@
+package com.example.boundvision;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.wifi.WifiManager;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Process-wide owner of everything the screens watch: node telemetry, score events, the
+ * classifier rules, the threshold settings and the connection state. Each is subscribed once,
+ * however many screens observe it, and delivered to all of them. Screens observe while they
+ * are started; once none has been watching for a while the subscriptions are dropped, so an
+ * idle tablet stops pulling updates, and a screen coming back starts from the cached state.
+ */
+public class TelemetryRepository {
+    // Node updates come from the database or, on the ground, straight from the nodes over the LAN
+    public static final String SOURCE_FIREBASE = "firebase";
+    public static final String SOURCE_LAN = "lan";
+    private static final String KEY_TELEMETRY_SOURCE = "telemetry_source";
+
+    // Long enough to ride out a rotation or a quick look at another app
+    private static final long LINGER_MS = 30_000;
+
+    private final Context context;
+    private final SharedPreferences settingsPreferences;
+    private final DatabaseReference sensorsReference;
+    private final SharedTelemetry telemetry;
+    private final ScoreEventFeed scoreEvents;
+    private final SharedValue<Object> classifierRules;
+    private final SharedValue<Object> thresholds;
+    private final SharedValue<Object> connection;
+    private String telemetrySourceName;
+
+    public TelemetryRepository(Context context) {
+        this.context = context.getApplicationContext();
+        settingsPreferences = this.context.getSharedPreferences("settings", Context.MODE_PRIVATE);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "telemetry-repository");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        sensorsReference = database.getReference("sensors");
+        telemetrySourceName = settingsPreferences.getString(KEY_TELEMETRY_SOURCE, SOURCE_FIREBASE);
+        telemetry = new SharedTelemetry(createSource(telemetrySourceName), scheduler, LINGER_MS);
+        scoreEvents = new ScoreEventFeed(database.getReference(ScoreEventStream.PATH),
+                this.context.getSharedPreferences("score_stream", Context.MODE_PRIVATE), scheduler, LINGER_MS);
+        classifierRules = new SharedValue<>(
+                new FirebaseValueUpstream(database.getReference("config/classifier_rules"), true),
+                scheduler, LINGER_MS);
+        thresholds = new SharedValue<>(
+                new FirebaseValueUpstream(database.getReference("config/thresholds"), true),
+                scheduler, LINGER_MS);
+        connection = new SharedValue<>(
+                new FirebaseValueUpstream(database.getReference(".info/connected"), false),
+                scheduler, LINGER_MS);
+    }
+
+    /**
+     * Starts delivering node updates to the sink, beginning with the last value of every node.
+     */
+    public void observeTelemetry(TelemetrySource.Sink sink) {
+        telemetry.observe(sink);
+        if (telemetry.getStartFailure() != null) {
+            // The LAN port is unavailable; fall back to the database, which can't fail to start
+            setTelemetrySource(SOURCE_FIREBASE);
+        }
+    }
+
+    public void removeTelemetryObserver(TelemetrySource.Sink sink) {
+        telemetry.removeObserver(sink);
+    }
+
+    /**
+     * Switches where node updates come from and remembers the choice.
+     *
+     * @return the source now in use, the database if the LAN port could not be opened
+     */
+    public String setTelemetrySource(String name) {
+        try {
+            telemetry.setSource(createSource(name));
+        } catch (IOException e) {
+            name = SOURCE_FIREBASE;
+            try {
+                telemetry.setSource(createSource(name));
+            } catch (IOException cannotHappen) {
+                // The database source never throws
+            }
+        }
+        telemetrySourceName = name;
+        settingsPreferences.edit().putString(KEY_TELEMETRY_SOURCE, name).apply();
+        return name;
+    }
+
+    public String getTelemetrySourceName() {
+        return telemetrySourceName;
+    }
+
+    private TelemetrySource createSource(String name) {
+        if (!SOURCE_LAN.equals(name)) {
+            return new FirebaseTelemetrySource(sensorsReference);
+        }
+        final UdpTelemetrySource udp = new UdpTelemetrySource(LanPacketCodec.DEFAULT_PORT);
+        return new TelemetrySource() {
+            private WifiManager.MulticastLock lock;
+
+            @Override
+            public void start(Sink sink) throws IOException {
+                // Some devices filter broadcast packets unless a multicast lock is held
+                WifiManager wifi = (WifiManager) context.getSystemService(Context.WIFI_SERVICE);
+                lock = wifi.createMulticastLock("boundvision-lan");
+                lock.acquire();
+                try {
+                    udp.start(sink);
+                } catch (IOException e) {
+                    stop();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void stop() {
+                udp.stop();
+                if (lock != null) {
+                    lock.release();
+                    lock = null;
+                }
+            }
+        };
+    }
+
+    public ScoreEventFeed getScoreEvents() {
+        return scoreEvents;
+    }
+
+    /** Value of {@code config/classifier_rules}, the rule table text or null. */
+    public SharedValue<Object> getClassifierRules() {
+        return classifierRules;
+    }
+
+    /** Value of {@code config/thresholds}, for {@link AdaptiveThresholds.Config#fromMap}. */
+    public SharedValue<Object> getThresholds() {
+        return thresholds;
+    }
+
+    /** Value of {@code .info/connected}. */
+    public SharedValue<Object> getConnection() {
+        return connection;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.boundvision;
+
+import android.view.Choreographer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link FrameCoalescer}, with the vsync driven by hand.
+ */
+public class FrameCoalescerTest {
+    private final List<Choreographer.FrameCallback> posted = new ArrayList<>();
+    private final List<String> rendered = new ArrayList<>();
+
+    private final FrameCoalescer coalescer = new FrameCoalescer(
+            (frame, changed) -> rendered.add(frame.getSound() + "/" + changed),
+            new FrameCoalescer.VsyncScheduler() {
+                @Override
+                public void post(Choreographer.FrameCallback callback) {
+                    posted.add(callback);
+                }
+
+                @Override
+                public void remove(Choreographer.FrameCallback callback) {
+                    posted.remove(callback);
+                }
+            });
+
+    private static TelemetryFrame frame(double distance, long sound) {
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setDistanceCm(distance);
+        frame.setSound(sound);
+        return frame;
+    }
+
+    private void vsync() {
+        List<Choreographer.FrameCallback> due = new ArrayList<>(posted);
+        posted.clear();
+        for (Choreographer.FrameCallback callback : due) {
+            callback.doFrame(0);
+        }
+    }
+
+    @Test
+    public void onlyTheLatestFrameBeforeAVsyncIsRendered() {
+        coalescer.offer(frame(50, 100));
+        coalescer.offer(frame(50, 200));
+        coalescer.offer(frame(50, 300));
+        assertEquals(1, posted.size());
+
+        vsync();
+        int all = TelemetryFrame.FIELD_DISTANCE | TelemetryFrame.FIELD_SOUND;
+        assertEquals(List.of("300/" + all), rendered);
+
+        // Only the sound changed since the last render
+        coalescer.offer(frame(50, 400));
+        vsync();
+        assertEquals("400/" + TelemetryFrame.FIELD_SOUND, rendered.get(1));
+
+        // Nothing changed: nothing to rebind
+        coalescer.offer(frame(50, 400));
+        vsync();
+        assertEquals(2, rendered.size());
+    }
+
+    @Test
+    public void resetRebindsEveryFieldAndCancelDropsThePendingFrame() {
+        coalescer.offer(frame(50, 100));
+        vsync();
+        coalescer.reset();
+        coalescer.offer(frame(50, 100));
+        vsync();
+        assertEquals(2, rendered.size());
+        assertEquals(rendered.get(0), rendered.get(1));
+
+        coalescer.offer(frame(60, 100));
+        coalescer.cancel();
+        assertTrue(posted.isEmpty());
+        vsync();
+        assertEquals(2, rendered.size());
+    }
+}
@@ -0,0 +1,27 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+// ./gradlew :benchmark:jmh writes build/results/jmh/results.json.
+// Traces are generated from fixed seeds, so runs are comparable across machines and commits.
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    resultFormat.set("JSON")
+    // e.g. ./gradlew :benchmark:jmh -Pjmh.includes=Decode
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
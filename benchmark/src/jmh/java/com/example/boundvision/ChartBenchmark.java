@@ -0,0 +1,73 @@
+package com.example.boundvision;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chart downsampling for a full ground of 32 nodes x 4 channels: feeding one second of
+ * telemetry into every node's charts, and copying every chart out as a frame would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChartBenchmark {
+    private static final int NODES = 32;
+
+    @Param({"5", "50"})
+    public int rateHz;
+
+    private SensorCharts[] charts;
+    private final TelemetryFrame frame = new TelemetryFrame();
+    private final float[] mins = new float[SensorCharts.DEFAULT_BUCKETS];
+    private final float[] maxs = new float[SensorCharts.DEFAULT_BUCKETS];
+    private long timeMs = 0;
+
+    @Setup
+    public void setUp() {
+        charts = new SensorCharts[NODES];
+        for (int i = 0; i < NODES; i++) {
+            charts[i] = new SensorCharts(SensorCharts.DEFAULT_BUCKETS, SensorCharts.DEFAULT_SPAN_MS);
+        }
+        // Start with full charts, an hour into the session
+        Object value = SensorTraces.generate(1, 5, 1000).values.get(0).get(NodeRegistry.KEY_TELEMETRY);
+        TelemetryFrameDecoder.decode(value, frame);
+        for (; timeMs < 60 * 60 * 1000; timeMs += 200) {
+            for (SensorCharts chart : charts) {
+                chart.add(frame, timeMs);
+            }
+        }
+    }
+
+    @Benchmark
+    public long feedOneSecond() {
+        long step = 1000 / rateHz;
+        for (int i = 0; i < rateHz; i++) {
+            timeMs += step;
+            for (SensorCharts chart : charts) {
+                chart.add(frame, timeMs);
+            }
+        }
+        return timeMs;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODES * SensorCharts.CHANNELS)
+    public long copyAllCharts() {
+        long end = 0;
+        for (SensorCharts chart : charts) {
+            for (int c = 0; c < SensorCharts.CHANNELS; c++) {
+                end += chart.channel(c).copyTo(mins, maxs);
+            }
+        }
+        return end;
+    }
+}
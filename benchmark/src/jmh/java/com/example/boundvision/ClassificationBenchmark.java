@@ -0,0 +1,100 @@
+package com.example.boundvision;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SIX/FOUR/OUT classification: rule lookup, rule parsing, thresholding a 5 s monitoring
+ * window from the history ring buffer and from sample lists, and fusing a ring's detections.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClassificationBenchmark {
+    private static final long WINDOW_MS = 5_000;
+    private static final long DURATION_MS = 10 * 60 * 1000;
+
+    @Param({"5", "50"})
+    public int rateHz;
+
+    private final DecisionTable table = DecisionTable.defaults();
+    private BoundaryClassifier classifier;
+    private SensorHistory history;
+    private List<SensorSample> window;
+    private SensorTraces ringTrace;
+    private long newest;
+    private int windowIndex;
+
+    @Setup
+    public void setUp() {
+        classifier = new BoundaryClassifier(table, DetectionThresholds.DEFAULT, Runnable::run, Runnable::run);
+
+        SensorTraces trace = SensorTraces.generate(1, rateHz, DURATION_MS);
+        history = SensorHistory.forDuration(DURATION_MS, rateHz);
+        TelemetryFrame frame = new TelemetryFrame();
+        window = new ArrayList<>();
+        for (int i = 0; i < trace.size(); i++) {
+            TelemetryFrameDecoder.decode(trace.values.get(i).get(NodeRegistry.KEY_TELEMETRY), frame);
+            long timestamp = trace.timestamps.get(i);
+            history.append(frame, timestamp);
+            if (timestamp < WINDOW_MS) {
+                window.add(SensorSample.fromFrame(frame, timestamp));
+            }
+        }
+        newest = history.newestTimestamp();
+
+        ringTrace = SensorTraces.generate(32, rateHz, 60_000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void lookupEveryMask(Blackhole blackhole) {
+        for (int mask = 0; mask < 16; mask++) {
+            blackhole.consume(table.lookup(mask));
+        }
+    }
+
+    @Benchmark
+    public DecisionTable parseRules() {
+        return DecisionTable.parse(DecisionTable.DEFAULT_RULES);
+    }
+
+    @Benchmark
+    public BoundaryDecision classifyHistoryWindow() {
+        // Slide the window so every call touches a different part of the ring
+        long to = newest - (windowIndex++ % 100) * WINDOW_MS;
+        return classifier.classify(history, to - WINDOW_MS, to);
+    }
+
+    @Benchmark
+    public BoundaryDecision classifySampleWindow() {
+        return classifier.classify(window);
+    }
+
+    @Benchmark
+    public int fuseRingDetections() {
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 16);
+        int[] fused = new int[1];
+        DetectionFusion fusion = new DetectionFusion(1_000, 1, detection -> fused[0]++);
+        fusion.setRingSize(32);
+        for (int i = 0; i < ringTrace.size(); i++) {
+            long now = ringTrace.timestamps.get(i);
+            NodeDetection detection = registry.ingest(ringTrace.nodeIds.get(i), ringTrace.values.get(i), now);
+            if (detection != null) fusion.offer(detection);
+            fusion.flush(now);
+        }
+        return fused[0];
+    }
+}
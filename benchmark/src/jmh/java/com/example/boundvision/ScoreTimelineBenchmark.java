@@ -0,0 +1,102 @@
+package com.example.boundvision;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Score event creation, storage in the journal and timeline, and timeline queries over
+ * a T20 innings (120 balls) and a 50-over innings (300 balls), with one event per ball.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoreTimelineBenchmark {
+    private static final int[] RUNS = {0, 1, 1, 2, 0, 4, 1, 0, 6, 1, 3, 0};
+
+    @Param({"120", "300"})
+    public int balls;
+
+    private ScoreTimeline timeline;
+    private int[] queryBalls;
+    private int query;
+    private File journalFile;
+    private ScoreJournal journal;
+    private int appended;
+
+    @Setup
+    public void setUp() {
+        timeline = buildTimeline();
+        Random random = new Random(SensorTraces.SEED);
+        queryBalls = new int[1024];
+        for (int i = 0; i < queryBalls.length; i++) {
+            queryBalls[i] = random.nextInt(balls);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openJournal() throws IOException {
+        journalFile = Files.createTempFile("score", ".journal").toFile();
+        journal = ScoreJournal.open(journalFile, (recordNumber, event) -> { });
+        appended = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeJournal() throws IOException {
+        journal.close();
+        journalFile.delete();
+    }
+
+    private ScoreTimeline buildTimeline() {
+        ScoreTimeline built = new ScoreTimeline();
+        for (int ball = 0; ball < balls; ball++) {
+            built.add(eventAt(ball));
+        }
+        return built;
+    }
+
+    private static ScoreEvent eventAt(int ball) {
+        int runs = RUNS[ball % RUNS.length];
+        int type = ball % 17 == 16 ? ScoreEvent.TYPE_WICKET : ScoreEvent.TYPE_RUN;
+        return new ScoreEvent(type, type == ScoreEvent.TYPE_WICKET ? 0 : runs, ball,
+                1_700_000_000_000L + ball * 40_000L, true);
+    }
+
+    @Benchmark
+    public ScoreTimeline buildInnings() {
+        return buildTimeline();
+    }
+
+    @Benchmark
+    public ScoreEvent createFromLegacyStrings() {
+        return new ScoreEvent(ScoreEvent.TYPE_RUN, 4, "13.5", "1717252330000", true);
+    }
+
+    @Benchmark
+    public int runsAtRandomBall() {
+        return timeline.runsAt(queryBalls[query++ & (queryBalls.length - 1)]);
+    }
+
+    @Benchmark
+    public double runRateAtRandomBall() {
+        return timeline.runRateAt(queryBalls[query++ & (queryBalls.length - 1)]);
+    }
+
+    @Benchmark
+    public int appendToJournal() throws IOException {
+        return journal.append(eventAt(appended++ % balls));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic sensor traces for the benchmarks: a ring of simulated nodes at a given send rate,
+ * with a detection somewhere on the ring every few seconds. Fixed seeds keep runs comparable.
+ */
+final class SensorTraces {
+    static final long SEED = 20240601L;
+
+    final List<String> nodeIds = new ArrayList<>();
+    final List<Map<String, Object>> values = new ArrayList<>();
+    final List<Long> timestamps = new ArrayList<>();
+
+    private SensorTraces() {
+    }
+
+    static SensorTraces generate(int nodeCount, int rateHz, long durationMs) {
+        SimulatedNodeFeed feed = new SimulatedNodeFeed(nodeCount, rateHz, SEED);
+        int[] evidence = {
+                DetectionThresholds.EVIDENCE_FOIL,
+                DetectionThresholds.EVIDENCE_VIBRATION | DetectionThresholds.EVIDENCE_SOUND,
+                DetectionThresholds.EVIDENCE_VIBRATION,
+        };
+        int n = 0;
+        for (long at = 2_000; at < durationMs; at += 7_000, n++) {
+            feed.scheduleDetection(n * 5 % nodeCount, at, evidence[n % evidence.length]);
+        }
+
+        SensorTraces trace = new SensorTraces();
+        feed.run(0, durationMs, (nodeId, value, timeMs) -> {
+            trace.nodeIds.add(nodeId);
+            trace.values.add(value);
+            trace.timestamps.add(timeMs);
+        });
+        return trace;
+    }
+
+    int size() {
+        return values.size();
+    }
+}
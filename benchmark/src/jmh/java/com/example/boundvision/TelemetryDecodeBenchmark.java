@@ -0,0 +1,95 @@
+package com.example.boundvision;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of node snapshots: single values, telemetry frames, LAN packets and full
+ * registry ingestion of one minute of traffic from eight nodes.
+ * Rates are the firmware's 5 Hz send rate and 10x that.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelemetryDecodeBenchmark {
+    private static final int NODES = 8;
+    private static final long DURATION_MS = 60_000;
+
+    @Param({"5", "50"})
+    public int rateHz;
+
+    private SensorTraces trace;
+    private Object[] telemetryValues;
+    private ByteBuffer[] packets;
+    private final TelemetryFrame frame = new TelemetryFrame();
+    private final Object[] scalars = {42L, 12.5, "17.25", "1800", true, "true", null};
+
+    @Setup
+    public void setUp() {
+        trace = SensorTraces.generate(NODES, rateHz, DURATION_MS);
+        telemetryValues = new Object[trace.size()];
+        packets = new ByteBuffer[trace.size()];
+        TelemetryFrame source = new TelemetryFrame();
+        for (int i = 0; i < trace.size(); i++) {
+            telemetryValues[i] = trace.values.get(i).get(NodeRegistry.KEY_TELEMETRY);
+            TelemetryFrameDecoder.decode(telemetryValues[i], source);
+            ByteBuffer packet = ByteBuffer.allocate(LanPacketCodec.MAX_PACKET_SIZE);
+            LanPacketCodec.encode(trace.nodeIds.get(i), i % NODES, source, 0, 0, packet);
+            packet.flip();
+            packets[i] = packet;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public void decodeScalars(Blackhole blackhole) {
+        for (Object value : scalars) {
+            blackhole.consume(SensorValueDecoder.decodeDouble(value, Double.NaN));
+        }
+    }
+
+    @Benchmark
+    public int decodeTelemetryTrace() {
+        int decoded = 0;
+        for (Object value : telemetryValues) {
+            if (TelemetryFrameDecoder.decode(value, frame)) decoded++;
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public int decodeLanTrace() {
+        int decoded = 0;
+        Map<String, Object> value = new HashMap<>();
+        for (ByteBuffer packet : packets) {
+            value.clear();
+            if (LanPacketCodec.decode(packet.duplicate(), value) != null) decoded++;
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public long ingestTrace() {
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 1024);
+        long detections = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (registry.ingest(trace.nodeIds.get(i), trace.values.get(i), trace.timestamps.get(i)) != null) {
+                detections++;
+            }
+        }
+        return detections + registry.getVersion();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.boundvision;
+
+import java.util.Map;
+
+/**
+ * Sound and vibration thresholds that follow the ambient noise of the ground instead of
+ * fixed constants. Each channel keeps an {@link AmbientBaseline} and its lower threshold is
+ * the baseline mean plus a number of standard deviations, never below the configured floor
+ * nor above the channel maximum. Readings inside a detection are kept out of the baseline,
+ * unless the channel stays up for longer than an event could, which is then a new ambient level.
+ * The same rules run in the sketch; both read their settings from {@code config/thresholds}.
+ * Not thread-safe; feed it from one thread.
+ */
+public class AdaptiveThresholds {
+    // Keys under config/thresholds, shared with the firmware
+    public static final String KEY_MODE = "mode";
+    public static final String KEY_DISTANCE = "distance";
+    public static final String KEY_SOUND_MIN = "sound_min";
+    public static final String KEY_SOUND_MAX = "sound_max";
+    public static final String KEY_VIBRATION_MIN = "vibration_min";
+    public static final String KEY_VIBRATION_MAX = "vibration_max";
+    public static final String KEY_SOUND_SIGMA = "sound_sigma";
+    public static final String KEY_VIBRATION_SIGMA = "vibration_sigma";
+    public static final String KEY_TIME_CONSTANT = "time_constant_ms";
+
+    public static final String MODE_FIXED = "fixed";
+    public static final String MODE_ADAPTIVE = "adaptive";
+
+    public static final double DEFAULT_SIGMA = 4;
+    public static final long DEFAULT_TIME_CONSTANT_MS = 30_000;
+    // A channel above its threshold for longer than this has a new ambient level
+    public static final long MAX_EVENT_MS = 10_000;
+
+    // Floors used in adaptive mode when the config leaves them out; quiet grounds need them low
+    static final DetectionThresholds ADAPTIVE_LIMITS = new DetectionThresholds(15, 300, 4000, 500, 1800);
+
+    /**
+     * Threshold settings. In fixed mode the limits are used as they are; in adaptive mode the
+     * lower sound and vibration limits are floors under the noise-relative thresholds.
+     */
+    public static final class Config {
+        public static final Config DEFAULT = fixed(DetectionThresholds.DEFAULT);
+
+        private final boolean adaptive;
+        private final DetectionThresholds limits;
+        private final double soundSigma;
+        private final double vibrationSigma;
+        private final long timeConstantMs;
+
+        public Config(boolean adaptive, DetectionThresholds limits, double soundSigma, double vibrationSigma,
+                      long timeConstantMs) {
+            if (timeConstantMs <= 0) {
+                throw new IllegalArgumentException("Time constant must be positive: " + timeConstantMs);
+            }
+            this.adaptive = adaptive;
+            this.limits = limits;
+            this.soundSigma = soundSigma;
+            this.vibrationSigma = vibrationSigma;
+            this.timeConstantMs = timeConstantMs;
+        }
+
+        public static Config fixed(DetectionThresholds thresholds) {
+            return new Config(false, thresholds, DEFAULT_SIGMA, DEFAULT_SIGMA, DEFAULT_TIME_CONSTANT_MS);
+        }
+
+        public static Config adaptive(DetectionThresholds floors, double sigma, long timeConstantMs) {
+            return new Config(true, floors, sigma, sigma, timeConstantMs);
+        }
+
+        /**
+         * Reads the value of {@code config/thresholds}. Missing or undecodable keys keep their
+         * defaults and anything that is not a map gives {@link #DEFAULT}, so a bad push never
+         * leaves a node without thresholds.
+         */
+        public static Config fromMap(Object value) {
+            if (!(value instanceof Map)) {
+                return DEFAULT;
+            }
+            Map<?, ?> map = (Map<?, ?>) value;
+            boolean adaptive = MODE_ADAPTIVE.equals(map.get(KEY_MODE));
+            DetectionThresholds defaults = adaptive ? ADAPTIVE_LIMITS : DetectionThresholds.DEFAULT;
+            long soundMin = SensorValueDecoder.decodeLong(map.get(KEY_SOUND_MIN), defaults.getSoundMin());
+            long soundMax = SensorValueDecoder.decodeLong(map.get(KEY_SOUND_MAX), defaults.getSoundMax());
+            long vibrationMin = SensorValueDecoder.decodeLong(map.get(KEY_VIBRATION_MIN), defaults.getVibrationMin());
+            long vibrationMax = SensorValueDecoder.decodeLong(map.get(KEY_VIBRATION_MAX), defaults.getVibrationMax());
+            if (soundMin > soundMax || vibrationMin > vibrationMax) {
+                return DEFAULT;
+            }
+            DetectionThresholds limits = new DetectionThresholds(
+                    SensorValueDecoder.decodeDouble(map.get(KEY_DISTANCE), defaults.getBoundaryDistanceCm()),
+                    soundMin, soundMax, vibrationMin, vibrationMax);
+            long timeConstant = SensorValueDecoder.decodeLong(map.get(KEY_TIME_CONSTANT), DEFAULT_TIME_CONSTANT_MS);
+            return new Config(adaptive, limits,
+                    SensorValueDecoder.decodeDouble(map.get(KEY_SOUND_SIGMA), DEFAULT_SIGMA),
+                    SensorValueDecoder.decodeDouble(map.get(KEY_VIBRATION_SIGMA), DEFAULT_SIGMA),
+                    timeConstant > 0 ? timeConstant : DEFAULT_TIME_CONSTANT_MS);
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public DetectionThresholds getLimits() {
+            return limits;
+        }
+
+        public double getSoundSigma() {
+            return soundSigma;
+        }
+
+        public double getVibrationSigma() {
+            return vibrationSigma;
+        }
+
+        public long getTimeConstantMs() {
+            return timeConstantMs;
+        }
+
+        @Override
+        public String toString() {
+            if (!adaptive) {
+                return limits.toString();
+            }
+            return limits + ",sigma=" + soundSigma + "/" + vibrationSigma + ",tau=" + timeConstantMs;
+        }
+    }
+
+    private static final class Channel {
+        final AmbientBaseline baseline;
+        final double sigma;
+        final long floor;
+        final long max;
+        long min;
+        long aboveSinceMs = -1;
+
+        Channel(long timeConstantMs, double sigma, long floor, long max) {
+            this.baseline = new AmbientBaseline(timeConstantMs);
+            this.sigma = sigma;
+            this.floor = floor;
+            this.max = max;
+            // Silent until the baseline is warm, rather than firing on whatever the floor lets through
+            this.min = max + 1;
+        }
+
+        /** Returns true if the threshold moved. */
+        boolean update(long timeMs, long value) {
+            // Everything counts while warming up; after that detections stay out of the baseline
+            if (baseline.isWarm() && value >= min) {
+                if (aboveSinceMs < 0) aboveSinceMs = timeMs;
+                if (timeMs - aboveSinceMs < MAX_EVENT_MS) {
+                    return false;
+                }
+            } else {
+                aboveSinceMs = -1;
+            }
+            baseline.update(timeMs, value);
+            if (!baseline.isWarm()) {
+                return false;
+            }
+            long next = Math.max(floor, Math.min(max, Math.round(baseline.upperBound(sigma))));
+            if (next == min) {
+                return false;
+            }
+            min = next;
+            return true;
+        }
+    }
+
+    private final Config config;
+    private final Channel sound;
+    private final Channel vibration;
+    private DetectionThresholds current;
+
+    public AdaptiveThresholds(Config config) {
+        this.config = config;
+        DetectionThresholds limits = config.getLimits();
+        this.sound = new Channel(config.timeConstantMs, config.soundSigma, limits.getSoundMin(), limits.getSoundMax());
+        this.vibration = new Channel(config.timeConstantMs, config.vibrationSigma,
+                limits.getVibrationMin(), limits.getVibrationMax());
+        this.current = config.adaptive ? thresholdsOf(limits) : limits;
+    }
+
+    private DetectionThresholds thresholdsOf(DetectionThresholds limits) {
+        return new DetectionThresholds(limits.getBoundaryDistanceCm(), sound.min, sound.max,
+                vibration.min, vibration.max);
+    }
+
+    /**
+     * Feeds one reading per channel and returns the thresholds to apply to it. A negative
+     * vibration means the analog value is not known (app telemetry only carries the flag).
+     * Only allocates when a threshold actually moves.
+     */
+    public DetectionThresholds update(long timeMs, long soundValue, long vibrationValue) {
+        if (!config.adaptive) {
+            return current;
+        }
+        boolean changed = sound.update(timeMs, soundValue);
+        if (vibrationValue >= 0) {
+            changed |= vibration.update(timeMs, vibrationValue);
+        }
+        if (changed) {
+            current = thresholdsOf(config.getLimits());
+        }
+        return current;
+    }
+
+    public DetectionThresholds current() {
+        return current;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public AmbientBaseline getSoundBaseline() {
+        return sound.baseline;
+    }
+
+    public AmbientBaseline getVibrationBaseline() {
+        return vibration.baseline;
+    }
+}
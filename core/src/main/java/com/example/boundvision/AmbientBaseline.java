@@ -0,0 +1,68 @@
+package com.example.boundvision;
+
+/**
+ * Exponentially weighted running mean and variance of one channel's ambient level.
+ * Each sample is weighted by the time since the previous one, so the baseline forgets at the
+ * same rate whether it is fed at 1 kHz on a node or at 5 Hz in the app. Until a time constant
+ * has passed the weight never drops below 1/n, so early estimates are a plain average.
+ */
+public class AmbientBaseline {
+    // Samples needed before the estimate is trusted
+    static final int MIN_SAMPLES = 20;
+
+    private final double timeConstantMs;
+    private double mean;
+    private double variance;
+    private long lastMs;
+    private long count = 0;
+
+    public AmbientBaseline(long timeConstantMs) {
+        if (timeConstantMs <= 0) {
+            throw new IllegalArgumentException("Time constant must be positive: " + timeConstantMs);
+        }
+        this.timeConstantMs = timeConstantMs;
+    }
+
+    public void update(long timeMs, double value) {
+        count++;
+        if (count == 1) {
+            mean = value;
+            variance = 0;
+            lastMs = timeMs;
+            return;
+        }
+        long elapsed = Math.max(0, timeMs - lastMs);
+        lastMs = timeMs;
+        double alpha = Math.max(1 - Math.exp(-elapsed / timeConstantMs), 1.0 / count);
+        double delta = value - mean;
+        mean += alpha * delta;
+        variance = (1 - alpha) * (variance + alpha * delta * delta);
+    }
+
+    public boolean isWarm() {
+        return count >= MIN_SAMPLES;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(variance);
+    }
+
+    /** Mean plus {@code sigmas} standard deviations. */
+    public double upperBound(double sigmas) {
+        return mean + sigmas * getStdDev();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void reset() {
+        count = 0;
+        mean = 0;
+        variance = 0;
+    }
+}
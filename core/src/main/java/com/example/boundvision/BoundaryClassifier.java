@@ -0,0 +1,92 @@
+package com.example.boundvision;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Classifies boundary evidence into SIX/FOUR/WICKET using a {@link DecisionTable}.
+ * Classification runs on a background executor and results are delivered on the
+ * callback executor (the UI thread in the app). Rules can be swapped at any time.
+ */
+public class BoundaryClassifier {
+
+    public interface Listener {
+        /**
+         * @param event the score event for the decision, or null for {@link BoundaryDecision#NONE}
+         */
+        void onClassified(BoundaryDecision decision, int evidenceMask, ScoreEvent event);
+    }
+
+    private final Executor worker;
+    private final Executor callbackExecutor;
+    private volatile DecisionTable table;
+    private volatile DetectionThresholds thresholds;
+
+    public BoundaryClassifier(DecisionTable table, DetectionThresholds thresholds,
+                              Executor worker, Executor callbackExecutor) {
+        this.table = table;
+        this.thresholds = thresholds;
+        this.worker = worker;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public void setRules(DecisionTable table) {
+        this.table = table;
+    }
+
+    public DecisionTable getRules() {
+        return table;
+    }
+
+    public void setThresholds(DetectionThresholds thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Combines the evidence of every sample in the window.
+     */
+    public int evidenceOf(List<SensorSample> window) {
+        DetectionThresholds current = thresholds;
+        int mask = 0;
+        for (int i = 0; i < window.size(); i++) {
+            mask |= current.evidenceOf(window.get(i));
+        }
+        return mask;
+    }
+
+    public BoundaryDecision classify(List<SensorSample> window) {
+        return table.lookup(evidenceOf(window));
+    }
+
+    /**
+     * Classifies the samples in [{@code fromMs}, {@code toMs}) of a node's history.
+     * Call from the thread that appends to the history.
+     */
+    public BoundaryDecision classify(SensorHistory history, long fromMs, long toMs) {
+        return table.lookup(history.evidenceOf(fromMs, toMs, thresholds));
+    }
+
+    /**
+     * Classifies a window of samples off the calling thread. The window must not be
+     * modified until the listener has been called.
+     */
+    public void classifyAsync(final List<SensorSample> window, final Listener listener) {
+        worker.execute(() -> {
+            long timestampMs = window.isEmpty() ? 0 : window.get(window.size() - 1).getTimestampMs();
+            deliver(evidenceOf(window), timestampMs, listener);
+        });
+    }
+
+    /**
+     * Classifies evidence that has already been thresholded, e.g. by the device.
+     */
+    public void classifyEvidenceAsync(final int evidenceMask, final long timestampMs, final Listener listener) {
+        worker.execute(() -> deliver(evidenceMask, timestampMs, listener));
+    }
+
+    private void deliver(final int evidenceMask, long timestampMs, final Listener listener) {
+        final BoundaryDecision decision = table.lookup(evidenceMask);
+        final ScoreEvent event = decision.toScoreEvent(Overs.UNKNOWN, timestampMs);
+        callbackExecutor.execute(() -> listener.onClassified(decision, evidenceMask, event));
+    }
+}
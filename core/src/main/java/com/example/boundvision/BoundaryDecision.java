@@ -0,0 +1,27 @@
+package com.example.boundvision;
+
+/**
+ * Outcome of classifying the evidence collected around the boundary rope
+ */
+public enum BoundaryDecision {
+    NONE,
+    SIX,
+    FOUR,
+    WICKET;
+
+    /**
+     * Builds the score event for this decision, or returns null for {@link #NONE}.
+     */
+    public ScoreEvent toScoreEvent(int balls, long timestampMs) {
+        switch (this) {
+            case SIX:
+                return new ScoreEvent(ScoreEvent.TYPE_RUN, 6, balls, timestampMs, true);
+            case FOUR:
+                return new ScoreEvent(ScoreEvent.TYPE_RUN, 4, balls, timestampMs, true);
+            case WICKET:
+                return new ScoreEvent(ScoreEvent.TYPE_WICKET, 0, balls, timestampMs, true);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.boundvision;
+
+/**
+ * Estimates the offset between a device's millis() clock and the local clock from frames
+ * that carry the device time they were sent at. Network delay only ever makes a frame look
+ * older, so the largest (device - local) difference among recent frames is the best estimate.
+ * A device time earlier than the last one means the device rebooted, which starts afresh.
+ */
+public class ClockOffsetEstimator {
+    private static final int WINDOW = 32;
+
+    private final long[] candidates = new long[WINDOW];
+    private int count = 0;
+    private int next = 0;
+    private long offset = 0;
+    private long lastDeviceMs = Long.MIN_VALUE;
+
+    public void observe(long deviceMs, long localMs) {
+        if (deviceMs < lastDeviceMs) {
+            // millis() restarted; offsets from before the reboot no longer apply
+            reset();
+        }
+        lastDeviceMs = deviceMs;
+        candidates[next] = deviceMs - localMs;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) count++;
+
+        long best = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (candidates[i] > best) best = candidates[i];
+        }
+        offset = best;
+    }
+
+    public boolean hasEstimate() {
+        return count > 0;
+    }
+
+    /** Device time minus local time. */
+    public long getOffset() {
+        return offset;
+    }
+
+    public long toDeviceTime(long localMs) {
+        return localMs + offset;
+    }
+
+    public long toLocalTime(long deviceMs) {
+        return deviceMs - offset;
+    }
+
+    public void reset() {
+        count = 0;
+        next = 0;
+        offset = 0;
+        lastDeviceMs = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.boundvision;
+
+/**
+ * Where a window's verdict stands. A provisional verdict is reported as soon as the evidence
+ * makes it likely and is later confirmed or retracted; a verdict that no further evidence
+ * could change is confirmed straight away.
+ */
+public enum DecisionState {
+    PROVISIONAL("provisional"),
+    CONFIRMED("confirmed"),
+    RETRACTED("retracted");
+
+    private final String key;
+
+    DecisionState(String key) {
+        this.key = key;
+    }
+
+    /** Value of the {@code state} key of a detection, as written by the firmware. */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Decodes a {@code state} value. Firmware that predates early decisions writes none,
+     * and everything it reports is final.
+     */
+    public static DecisionState fromKey(Object value) {
+        for (DecisionState state : values()) {
+            if (state.key.equals(value)) {
+                return state;
+            }
+        }
+        return CONFIRMED;
+    }
+}
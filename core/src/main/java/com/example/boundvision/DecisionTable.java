@@ -0,0 +1,118 @@
+package com.example.boundvision;
+
+import java.util.Locale;
+
+/**
+ * Rule table compiled into a lookup indexed by the evidence bitmask.
+ * Rules are written as "foil !vibration !sound = SIX; vibration sound = FOUR",
+ * evaluated in order, and the first matching rule decides.
+ */
+public class DecisionTable {
+    // The rules the app and the firmware have used so far
+    public static final String DEFAULT_RULES =
+            "foil !vibration !sound = SIX; vibration sound = FOUR; vibration !sound = WICKET";
+
+    private static final String[] EVIDENCE_NAMES = {"foil", "vibration", "sound", "proximity"};
+
+    private final BoundaryDecision[] decisions = new BoundaryDecision[1 << DetectionThresholds.EVIDENCE_BITS];
+    private final double[] agreement = new double[decisions.length];
+    private final String rules;
+
+    private DecisionTable(String rules) {
+        this.rules = rules;
+    }
+
+    public static DecisionTable defaults() {
+        return parse(DEFAULT_RULES);
+    }
+
+    /**
+     * Compiles a rule set.
+     *
+     * @throws IllegalArgumentException if the rules cannot be parsed
+     */
+    public static DecisionTable parse(String rules) {
+        String[] parsedRules = rules.split(";");
+        int[] required = new int[parsedRules.length];
+        int[] forbidden = new int[parsedRules.length];
+        BoundaryDecision[] outcomes = new BoundaryDecision[parsedRules.length];
+        int count = 0;
+
+        for (String rule : parsedRules) {
+            if (rule.trim().isEmpty()) continue;
+            int equals = rule.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Rule without outcome: " + rule.trim());
+            }
+            try {
+                outcomes[count] = BoundaryDecision.valueOf(rule.substring(equals + 1).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown outcome in rule: " + rule.trim());
+            }
+            for (String term : rule.substring(0, equals).trim().split("\\s+")) {
+                if (term.isEmpty()) continue;
+                boolean negated = term.startsWith("!");
+                int bit = evidenceBit(negated ? term.substring(1) : term);
+                if (negated) {
+                    forbidden[count] |= bit;
+                } else {
+                    required[count] |= bit;
+                }
+            }
+            count++;
+        }
+
+        DecisionTable table = new DecisionTable(rules);
+        for (int mask = 0; mask < table.decisions.length; mask++) {
+            table.decisions[mask] = BoundaryDecision.NONE;
+            for (int r = 0; r < count; r++) {
+                if ((mask & required[r]) == required[r] && (mask & forbidden[r]) == 0) {
+                    table.decisions[mask] = outcomes[r];
+                    break;
+                }
+            }
+        }
+        for (int mask = 0; mask < table.decisions.length; mask++) {
+            table.agreement[mask] = table.agreementOf(mask);
+        }
+        return table;
+    }
+
+    private double agreementOf(int mask) {
+        int missing = DetectionThresholds.WINDOW_EVIDENCE & ~mask;
+        int total = 0;
+        int same = 0;
+        // Every subset of the missing evidence, including none of it
+        for (int extra = missing; ; extra = (extra - 1) & missing) {
+            total++;
+            if (decisions[mask | extra] == decisions[mask]) same++;
+            if (extra == 0) break;
+        }
+        return (double) same / total;
+    }
+
+    public BoundaryDecision lookup(int evidenceMask) {
+        return decisions[evidenceMask & (decisions.length - 1)];
+    }
+
+    /**
+     * Share of the evidence sets a window holding {@code evidenceMask} could still end up with
+     * that lead to the same decision. 1 means no further evidence can change the decision.
+     */
+    public double agreement(int evidenceMask) {
+        return agreement[evidenceMask & (agreement.length - 1)];
+    }
+
+    public String getRules() {
+        return rules;
+    }
+
+    private static int evidenceBit(String name) {
+        for (int i = 0; i < EVIDENCE_NAMES.length; i++) {
+            if (EVIDENCE_NAMES[i].equalsIgnoreCase(name)) {
+                return 1 << i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown evidence: " + name);
+    }
+}
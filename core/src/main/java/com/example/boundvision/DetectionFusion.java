@@ -0,0 +1,143 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges detections from neighbouring nodes that arrive within a time tolerance into one event.
+ * A ball hitting the rope between two nodes is usually reported by both; their evidence is
+ * combined so the classifier sees it once. Call {@link #flush(long)} at or after
+ * {@link #nextDeadline()} to release clusters whose tolerance has passed.
+ */
+public class DetectionFusion {
+
+    public interface Listener {
+        void onFused(FusedDetection detection);
+    }
+
+    private final long toleranceMs;
+    private final int neighbourSpan;
+    private final Listener listener;
+    private final List<Cluster> pending = new ArrayList<>();
+    private int ringSize = 0;
+
+    /**
+     * @param toleranceMs   how far apart in time detections of the same ball can be
+     * @param neighbourSpan how many positions apart on the ring nodes count as neighbours
+     */
+    public DetectionFusion(long toleranceMs, int neighbourSpan, Listener listener) {
+        this.toleranceMs = toleranceMs;
+        this.neighbourSpan = neighbourSpan;
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the number of positions on the ring, so the last and first node are neighbours.
+     */
+    public synchronized void setRingSize(int ringSize) {
+        this.ringSize = ringSize;
+    }
+
+    public synchronized void offer(NodeDetection detection) {
+        if (detection.getEvidenceMask() == 0) {
+            return;
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            Cluster cluster = pending.get(i);
+            if (Math.abs(detection.getTimestampMs() - cluster.firstMs) <= toleranceMs
+                    && cluster.isNeighbour(detection.getRingIndex())) {
+                cluster.add(detection);
+                return;
+            }
+        }
+        pending.add(new Cluster(detection));
+    }
+
+    public void flush(long nowMs) {
+        List<FusedDetection> ready = null;
+        synchronized (this) {
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                Cluster cluster = pending.get(i);
+                if (nowMs - cluster.firstMs >= toleranceMs) {
+                    if (ready == null) ready = new ArrayList<>();
+                    ready.add(0, cluster.toDetection(nowMs));
+                    pending.remove(i);
+                }
+            }
+        }
+        if (ready != null) {
+            for (FusedDetection detection : ready) {
+                listener.onFused(detection);
+            }
+        }
+    }
+
+    /**
+     * Time at which the oldest pending cluster can be released, or {@link Long#MAX_VALUE}.
+     */
+    public synchronized long nextDeadline() {
+        long deadline = Long.MAX_VALUE;
+        for (int i = 0; i < pending.size(); i++) {
+            deadline = Math.min(deadline, pending.get(i).firstMs + toleranceMs);
+        }
+        return deadline;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private int ringDistance(int a, int b) {
+        int distance = Math.abs(a - b);
+        if (ringSize <= 0) {
+            return distance;
+        }
+        distance %= ringSize;
+        return Math.min(distance, ringSize - distance);
+    }
+
+    private static long earliest(long a, long b) {
+        if (a == LatencyTrace.UNKNOWN) return b;
+        if (b == LatencyTrace.UNKNOWN) return a;
+        return Math.min(a, b);
+    }
+
+    private class Cluster {
+        final long firstMs;
+        long lastMs;
+        long triggeredMs = LatencyTrace.UNKNOWN;
+        long decidedMs = LatencyTrace.UNKNOWN;
+        int evidenceMask;
+        final List<String> nodeIds = new ArrayList<>(2);
+        final List<Integer> ringIndexes = new ArrayList<>(2);
+
+        Cluster(NodeDetection detection) {
+            firstMs = detection.getTimestampMs();
+            add(detection);
+        }
+
+        void add(NodeDetection detection) {
+            lastMs = Math.max(lastMs, detection.getTimestampMs());
+            evidenceMask |= detection.getEvidenceMask();
+            triggeredMs = earliest(triggeredMs, detection.getTriggeredMs());
+            decidedMs = earliest(decidedMs, detection.getDecidedMs());
+            if (!nodeIds.contains(detection.getNodeId())) {
+                nodeIds.add(detection.getNodeId());
+                ringIndexes.add(detection.getRingIndex());
+            }
+        }
+
+        boolean isNeighbour(int ringIndex) {
+            for (int i = 0; i < ringIndexes.size(); i++) {
+                if (ringDistance(ringIndexes.get(i), ringIndex) <= neighbourSpan) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        FusedDetection toDetection(long nowMs) {
+            return new FusedDetection(firstMs, lastMs, evidenceMask, nodeIds, triggeredMs, decidedMs, nowMs);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.boundvision;
+
+/**
+ * Thresholds that turn raw sensor readings into evidence bits.
+ * Defaults match the constants in the ESP32 sketch.
+ */
+public class DetectionThresholds {
+    // Evidence bits, combined into the index of a DecisionTable
+    public static final int EVIDENCE_FOIL = 1;
+    public static final int EVIDENCE_VIBRATION = 1 << 1;
+    public static final int EVIDENCE_SOUND = 1 << 2;
+    public static final int EVIDENCE_PROXIMITY = 1 << 3;
+    public static final int EVIDENCE_BITS = 4;
+    // Evidence a monitoring window collects; proximity only opens one
+    public static final int WINDOW_EVIDENCE = EVIDENCE_FOIL | EVIDENCE_VIBRATION | EVIDENCE_SOUND;
+
+    public static final DetectionThresholds DEFAULT = new DetectionThresholds(15, 600, 4000, 1000, 1800);
+
+    private final double boundaryDistanceCm; // Ultrasonic threshold (cm)
+    private final long soundMin;             // Sound detection min
+    private final long soundMax;             // Sound detection max
+    private final long vibrationMin;         // Vibration detection min (analog reading)
+    private final long vibrationMax;         // Vibration detection max (analog reading)
+
+    public DetectionThresholds(double boundaryDistanceCm, long soundMin, long soundMax) {
+        this(boundaryDistanceCm, soundMin, soundMax, DEFAULT.vibrationMin, DEFAULT.vibrationMax);
+    }
+
+    public DetectionThresholds(double boundaryDistanceCm, long soundMin, long soundMax,
+                               long vibrationMin, long vibrationMax) {
+        this.boundaryDistanceCm = boundaryDistanceCm;
+        this.soundMin = soundMin;
+        this.soundMax = soundMax;
+        this.vibrationMin = vibrationMin;
+        this.vibrationMax = vibrationMax;
+    }
+
+    /**
+     * Parses a threshold set such as {@code "distance=15,sound=600-4000,vibration=1000-1800"}.
+     * Keys that are left out keep their default.
+     *
+     * @throws IllegalArgumentException if the set cannot be parsed
+     */
+    public static DetectionThresholds parse(String spec) {
+        double distance = DEFAULT.boundaryDistanceCm;
+        long[] sound = {DEFAULT.soundMin, DEFAULT.soundMax};
+        long[] vibration = {DEFAULT.vibrationMin, DEFAULT.vibrationMax};
+        for (String part : spec.split(",")) {
+            String entry = part.trim();
+            if (entry.isEmpty()) continue;
+            int equals = entry.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + entry);
+            }
+            String key = entry.substring(0, equals).trim();
+            String value = entry.substring(equals + 1).trim();
+            switch (key) {
+                case "distance":
+                    distance = SensorValueDecoder.parseDouble(value, Double.NaN);
+                    if (Double.isNaN(distance)) throw new IllegalArgumentException("Bad distance: " + value);
+                    break;
+                case "sound":
+                    sound = parseRange(value);
+                    break;
+                case "vibration":
+                    vibration = parseRange(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown threshold: " + key);
+            }
+        }
+        return new DetectionThresholds(distance, sound[0], sound[1], vibration[0], vibration[1]);
+    }
+
+    private static long[] parseRange(String value) {
+        int dash = value.indexOf('-');
+        long min = SensorValueDecoder.decodeLong(dash < 0 ? value : value.substring(0, dash), Long.MIN_VALUE);
+        long max = dash < 0 ? Long.MAX_VALUE
+                : SensorValueDecoder.decodeLong(value.substring(dash + 1), Long.MIN_VALUE);
+        if (min == Long.MIN_VALUE || max == Long.MIN_VALUE || min > max) {
+            throw new IllegalArgumentException("Bad range: " + value);
+        }
+        return new long[]{min, max};
+    }
+
+    public int evidenceOf(SensorSample sample) {
+        return evidenceOf(sample.getDistanceCm(), sample.getSound(), sample.isVibration(), sample.isFoilContact());
+    }
+
+    public int evidenceOf(double distanceCm, long sound, boolean vibration, boolean foilContact) {
+        int mask = 0;
+        if (foilContact) mask |= EVIDENCE_FOIL;
+        if (vibration) mask |= EVIDENCE_VIBRATION;
+        if (sound >= soundMin && sound <= soundMax) mask |= EVIDENCE_SOUND;
+        if (distanceCm < boundaryDistanceCm) mask |= EVIDENCE_PROXIMITY;
+        return mask;
+    }
+
+    /**
+     * Evidence from raw readings as the firmware sees them, with vibration as an analog value.
+     */
+    public int evidenceOfRaw(double distanceCm, long sound, long vibration, boolean foilContact) {
+        return evidenceOf(distanceCm, sound, vibration >= vibrationMin && vibration <= vibrationMax, foilContact);
+    }
+
+    public static int evidenceOf(boolean foil, boolean vibration, boolean sound) {
+        int mask = 0;
+        if (foil) mask |= EVIDENCE_FOIL;
+        if (vibration) mask |= EVIDENCE_VIBRATION;
+        if (sound) mask |= EVIDENCE_SOUND;
+        return mask;
+    }
+
+    // Getters
+    public double getBoundaryDistanceCm() {
+        return boundaryDistanceCm;
+    }
+
+    public long getSoundMin() {
+        return soundMin;
+    }
+
+    public long getSoundMax() {
+        return soundMax;
+    }
+
+    public long getVibrationMin() {
+        return vibrationMin;
+    }
+
+    public long getVibrationMax() {
+        return vibrationMax;
+    }
+
+    @Override
+    public String toString() {
+        return "distance=" + boundaryDistanceCm + ",sound=" + soundMin + "-" + soundMax
+                + ",vibration=" + vibrationMin + "-" + vibrationMax;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.boundvision;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formats sensor readings into a reusable char buffer instead of a new String per update.
+ * Pass the result to {@code TextView.setText(char[], int, int)}. The TextView keeps a reference
+ * to the buffer, so use one formatter per TextView and only format right before setText.
+ */
+public class DisplayTextFormatter {
+    // Below this many tenths the multiplication's rounding error stays well inside the tolerance
+    private static final double MAX_FAST_TENTHS = 1e9;
+    private static final double HALF_TOLERANCE = 1e-6;
+
+    private final char[] buffer;
+    private int length;
+
+    public DisplayTextFormatter(int capacity) {
+        buffer = new char[capacity];
+    }
+
+    /**
+     * Formats {@code value} with one decimal place followed by {@code suffix}, e.g. "12.3 cm",
+     * as {@code String.format("%.1f")} would: half away from zero on the shortest decimal form
+     * of the double (what {@code Double.toString} prints), and "-0.0" for small negatives.
+     * NaN, infinities and values too long for the buffer are shown as "N/A".
+     */
+    public DisplayTextFormatter formatFixed1(double value, String suffix) {
+        length = 0;
+        if (Double.isNaN(value) || Double.isInfinite(value)
+                || !appendFixed1(value, buffer.length - suffix.length())) {
+            length = 0;
+            appendString("N/A");
+        }
+        appendString(suffix);
+        return this;
+    }
+
+    private boolean appendFixed1(double value, int limit) {
+        double magnitude = Math.abs(value);
+        double scaled = magnitude * 10;
+        double fraction = scaled - Math.floor(scaled);
+        // Near a .x5 boundary the multiplication may round the wrong way, and huge values would
+        // overflow the tenths; both are rare enough to settle with BigDecimal
+        if (scaled >= MAX_FAST_TENTHS || Math.abs(fraction - 0.5) < HALF_TOLERANCE) {
+            String exact = BigDecimal.valueOf(magnitude).setScale(1, RoundingMode.HALF_UP).toPlainString();
+            if (exact.length() + 1 > limit) {
+                return false;
+            }
+            if (Double.doubleToRawLongBits(value) < 0) buffer[length++] = '-';
+            appendString(exact);
+            return true;
+        }
+        long tenths = (long) Math.floor(scaled + 0.5);
+        if (Double.doubleToRawLongBits(value) < 0) buffer[length++] = '-';
+        appendLong(tenths / 10);
+        buffer[length++] = '.';
+        buffer[length++] = (char) ('0' + tenths % 10);
+        return true;
+    }
+
+    /** Formats {@code value} as a plain integer. */
+    public DisplayTextFormatter formatLong(long value) {
+        length = 0;
+        return append(value);
+    }
+
+    /** Appends {@code value} to what was formatted last. */
+    public DisplayTextFormatter append(long value) {
+        if (value < 0) {
+            buffer[length++] = '-';
+        }
+        appendLong(value);
+        return this;
+    }
+
+    /** Appends {@code text} to what was formatted last. */
+    public DisplayTextFormatter append(String text) {
+        appendString(text);
+        return this;
+    }
+
+    public char[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    /** Appends the digits of {@code value}, without its sign. */
+    private void appendLong(long value) {
+        int start = length;
+        // Counted on the negative side, which also holds Long.MIN_VALUE
+        long rest = value > 0 ? -value : value;
+        do {
+            buffer[length++] = (char) ('0' - rest % 10);
+            rest /= 10;
+        } while (rest < 0);
+
+        // Digits were written least significant first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    private void appendString(String text) {
+        int count = text.length();
+        text.getChars(0, count, buffer, length);
+        length += count;
+    }
+}
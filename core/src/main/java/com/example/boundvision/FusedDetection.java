@@ -0,0 +1,67 @@
+package com.example.boundvision;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One boundary event assembled from the detections of neighbouring nodes
+ */
+public class FusedDetection {
+    private final long firstTimestampMs;
+    private final long lastTimestampMs;
+    private final int evidenceMask;
+    private final List<String> nodeIds;
+    private final long triggeredMs;
+    private final long decidedMs;
+    private final long fusedMs;
+
+    public FusedDetection(long firstTimestampMs, long lastTimestampMs, int evidenceMask, List<String> nodeIds) {
+        this(firstTimestampMs, lastTimestampMs, evidenceMask, nodeIds,
+                LatencyTrace.UNKNOWN, LatencyTrace.UNKNOWN, LatencyTrace.UNKNOWN);
+    }
+
+    /**
+     * @param triggeredMs earliest window start among the nodes, or {@link LatencyTrace#UNKNOWN}
+     * @param decidedMs   earliest node result, or {@link LatencyTrace#UNKNOWN}
+     * @param fusedMs     time the event was released by the fusion, or {@link LatencyTrace#UNKNOWN}
+     */
+    public FusedDetection(long firstTimestampMs, long lastTimestampMs, int evidenceMask, List<String> nodeIds,
+                          long triggeredMs, long decidedMs, long fusedMs) {
+        this.firstTimestampMs = firstTimestampMs;
+        this.lastTimestampMs = lastTimestampMs;
+        this.evidenceMask = evidenceMask;
+        this.nodeIds = Collections.unmodifiableList(nodeIds);
+        this.triggeredMs = triggeredMs;
+        this.decidedMs = decidedMs;
+        this.fusedMs = fusedMs;
+    }
+
+    // Getters
+    public long getFirstTimestampMs() {
+        return firstTimestampMs;
+    }
+
+    public long getLastTimestampMs() {
+        return lastTimestampMs;
+    }
+
+    public int getEvidenceMask() {
+        return evidenceMask;
+    }
+
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    public long getTriggeredMs() {
+        return triggeredMs;
+    }
+
+    public long getDecidedMs() {
+        return decidedMs;
+    }
+
+    public long getFusedMs() {
+        return fusedMs;
+    }
+}
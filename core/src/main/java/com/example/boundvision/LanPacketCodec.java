@@ -0,0 +1,149 @@
+package com.example.boundvision;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary frame a node broadcasts on the local network. Each packet carries the node's full
+ * current state, so a lost packet is simply superseded by the next one.
+ *
+ * <p>Layout (big-endian): magic "BV" (2), version (1), node id length (1), node id (ASCII),
+ * ring index (1), telemetry seq (4), device ms (4), distance cm (float, 4), sound (2),
+ * flags (1), monitoring started ms (4), monitoring period ms (4), detection seq (4),
+ * detection evidence mask (1), detection trigger ms (4). The mask's upper bits carry the
+ * detection state: 0 confirmed (all that older firmware sends), 1 provisional, 2 retracted.
+ * The trigger is the start of the window the detection decided, which needn't be the oldest
+ * open window; version 1 packets don't have it, and their detections have no trigger time.
+ */
+public final class LanPacketCodec {
+    public static final int DEFAULT_PORT = 4210;
+    public static final int MAX_NODE_ID_LENGTH = 32;
+    public static final int MAX_PACKET_SIZE = 4 + MAX_NODE_ID_LENGTH + 33;
+
+    private static final int MAGIC = 0x4256; // "BV"
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_TRIGGER = 1;
+    private static final long NO_TRIGGER = 0xFFFFFFFFL;
+    private static final int FLAG_VIBRATION = 1;
+    private static final int FLAG_FOIL_CONTACT = 2;
+    private static final int FLAG_MONITORING_ACTIVE = 4;
+    private static final long UINT32 = 0xFFFFFFFFL;
+    private static final int STATE_SHIFT = 4;
+    private static final DecisionState[] STATES =
+            {DecisionState.CONFIRMED, DecisionState.PROVISIONAL, DecisionState.RETRACTED};
+
+    private LanPacketCodec() {
+    }
+
+    /**
+     * Writes one packet into {@code out}, with a confirmed detection of unknown trigger time.
+     * {@code detectionMask} uses the {@link DetectionThresholds} evidence bits.
+     */
+    public static void encode(String nodeId, int ringIndex, TelemetryFrame frame,
+                              long detectionSeq, int detectionMask, ByteBuffer out) {
+        encode(nodeId, ringIndex, frame, detectionSeq, detectionMask, DecisionState.CONFIRMED,
+                LatencyTrace.UNKNOWN, out);
+    }
+
+    /**
+     * @param detectionTriggerMs device time the decided window opened, or {@link LatencyTrace#UNKNOWN}
+     */
+    public static void encode(String nodeId, int ringIndex, TelemetryFrame frame,
+                              long detectionSeq, int detectionMask, DecisionState detectionState,
+                              long detectionTriggerMs, ByteBuffer out) {
+        byte[] id = nodeId.getBytes(StandardCharsets.US_ASCII);
+        if (id.length > MAX_NODE_ID_LENGTH) {
+            throw new IllegalArgumentException("Node id too long: " + nodeId);
+        }
+        int flags = (frame.isVibration() ? FLAG_VIBRATION : 0)
+                | (frame.isFoilContact() ? FLAG_FOIL_CONTACT : 0)
+                | (frame.isMonitoringActive() ? FLAG_MONITORING_ACTIVE : 0);
+
+        out.putShort((short) MAGIC);
+        out.put((byte) VERSION);
+        out.put((byte) id.length);
+        out.put(id);
+        out.put((byte) ringIndex);
+        out.putInt((int) frame.getSequence());
+        out.putInt((int) frame.getDeviceTimeMs());
+        out.putFloat((float) frame.getDistanceCm());
+        out.putShort((short) frame.getSound());
+        out.put((byte) flags);
+        out.putInt((int) frame.getMonitoringStartedMs());
+        out.putInt((int) frame.getMonitoringPeriodMs());
+        out.putInt((int) detectionSeq);
+        int state = 0;
+        for (int i = 0; i < STATES.length; i++) {
+            if (STATES[i] == detectionState) state = i;
+        }
+        out.put((byte) ((detectionMask & DetectionThresholds.WINDOW_EVIDENCE) | state << STATE_SHIFT));
+        out.putInt((int) (detectionTriggerMs < 0 ? NO_TRIGGER : detectionTriggerMs));
+    }
+
+    /**
+     * Decodes one packet into {@code out} in the shape of a {@code sensors/{nodeId}} value,
+     * as read from the database.
+     *
+     * @return the node id, or null if the packet is not a valid frame
+     */
+    public static String decode(ByteBuffer in, Map<String, Object> out) {
+        try {
+            if ((in.getShort() & 0xFFFF) != MAGIC) {
+                return null;
+            }
+            int version = in.get();
+            if (version != VERSION && version != VERSION_WITHOUT_TRIGGER) {
+                return null;
+            }
+            int idLength = in.get() & 0xFF;
+            if (idLength == 0 || idLength > MAX_NODE_ID_LENGTH) {
+                return null;
+            }
+            byte[] id = new byte[idLength];
+            in.get(id);
+
+            long ringIndex = in.get() & 0xFF;
+            Map<String, Object> telemetry = new HashMap<>();
+            telemetry.put(TelemetryFrameDecoder.KEY_SEQUENCE, in.getInt() & UINT32);
+            telemetry.put(TelemetryFrameDecoder.KEY_DEVICE_TIME, in.getInt() & UINT32);
+            telemetry.put(TelemetryFrameDecoder.KEY_DISTANCE, (double) in.getFloat());
+            telemetry.put(TelemetryFrameDecoder.KEY_SOUND, (long) (in.getShort() & 0xFFFF));
+            int flags = in.get();
+            telemetry.put(TelemetryFrameDecoder.KEY_VIBRATION, (flags & FLAG_VIBRATION) != 0);
+            telemetry.put(TelemetryFrameDecoder.KEY_FOIL_CONTACT, (flags & FLAG_FOIL_CONTACT) != 0);
+            telemetry.put(TelemetryFrameDecoder.KEY_MONITORING_ACTIVE, (flags & FLAG_MONITORING_ACTIVE) != 0);
+            telemetry.put(TelemetryFrameDecoder.KEY_MONITORING_STARTED, in.getInt() & UINT32);
+            telemetry.put(TelemetryFrameDecoder.KEY_MONITORING_PERIOD, in.getInt() & UINT32);
+
+            // The node sends a packet as soon as it decides, so the packet's device time is the
+            // decision time; the trigger is the decided window's own start, not the oldest window's
+            Map<String, Object> detection = new HashMap<>();
+            detection.put(TelemetryFrameDecoder.KEY_SEQUENCE, in.getInt() & UINT32);
+            detection.put(TelemetryFrameDecoder.KEY_DEVICE_TIME,
+                    telemetry.get(TelemetryFrameDecoder.KEY_DEVICE_TIME));
+            int mask = in.get();
+            if (version != VERSION_WITHOUT_TRIGGER) {
+                long triggerMs = in.getInt() & UINT32;
+                if (triggerMs != NO_TRIGGER) {
+                    detection.put(TelemetryFrameDecoder.KEY_TRIGGER_TIME, triggerMs);
+                }
+            }
+            detection.put(TelemetryFrameDecoder.KEY_FOIL_CONTACT, (mask & DetectionThresholds.EVIDENCE_FOIL) != 0);
+            detection.put(TelemetryFrameDecoder.KEY_VIBRATION, (mask & DetectionThresholds.EVIDENCE_VIBRATION) != 0);
+            detection.put(TelemetryFrameDecoder.KEY_SOUND, (mask & DetectionThresholds.EVIDENCE_SOUND) != 0);
+            int state = (mask >> STATE_SHIFT) & 3;
+            detection.put(TelemetryFrameDecoder.KEY_DECISION_STATE,
+                    STATES[Math.min(state, STATES.length - 1)].getKey());
+
+            out.put(NodeRegistry.KEY_RING_INDEX, ringIndex);
+            out.put(NodeRegistry.KEY_TELEMETRY, telemetry);
+            out.put(NodeRegistry.KEY_DETECTION, detection);
+            return new String(id, StandardCharsets.US_ASCII);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.boundvision;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The focused node's last telemetry, kept in a small file so the next start can show it
+ * before the database or the LAN has delivered anything. Stored with the same keys as a
+ * telemetry node and read back through {@link TelemetryFrameDecoder}. Only the sensor values
+ * are kept; a monitoring window from an earlier run is long over.
+ */
+public class LastKnownStateStore {
+    private static final String KEY_NODE = "node";
+    private static final String KEY_SAVED_AT = "saved_ms";
+
+    private final File file;
+
+    public LastKnownStateStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Replaces the stored state. Written to a temporary file and renamed over the old one,
+     * so a crash part-way keeps the previous state.
+     */
+    public void save(String nodeId, TelemetryFrame frame, long savedAtMs) throws IOException {
+        Properties state = new Properties();
+        state.setProperty(KEY_NODE, nodeId);
+        state.setProperty(KEY_SAVED_AT, Long.toString(savedAtMs));
+        if (frame.has(TelemetryFrame.FIELD_DISTANCE)) {
+            state.setProperty(TelemetryFrameDecoder.KEY_DISTANCE, Double.toString(frame.getDistanceCm()));
+        }
+        if (frame.has(TelemetryFrame.FIELD_SOUND)) {
+            state.setProperty(TelemetryFrameDecoder.KEY_SOUND, Long.toString(frame.getSound()));
+        }
+        if (frame.has(TelemetryFrame.FIELD_VIBRATION)) {
+            state.setProperty(TelemetryFrameDecoder.KEY_VIBRATION, Boolean.toString(frame.isVibration()));
+        }
+        if (frame.has(TelemetryFrame.FIELD_FOIL_CONTACT)) {
+            state.setProperty(TelemetryFrameDecoder.KEY_FOIL_CONTACT, Boolean.toString(frame.isFoilContact()));
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            state.store(out, null);
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Reads the stored state into {@code out}, which is cleared first.
+     *
+     * @return the node the state belongs to, or null if nothing usable is stored
+     */
+    public String load(TelemetryFrame out) {
+        out.clear();
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties state = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            state.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        String nodeId = state.getProperty(KEY_NODE);
+        // Properties only hold strings; the decoder takes booleans as they come from the database
+        Map<String, Object> node = new HashMap<>();
+        for (String key : state.stringPropertyNames()) {
+            node.put(key, state.getProperty(key));
+        }
+        booleanValue(node, TelemetryFrameDecoder.KEY_VIBRATION);
+        booleanValue(node, TelemetryFrameDecoder.KEY_FOIL_CONTACT);
+        if (nodeId == null || !TelemetryFrameDecoder.decode(node, out) || out.getPresentFields() == 0) {
+            out.clear();
+            return null;
+        }
+        return nodeId;
+    }
+
+    private static void booleanValue(Map<String, Object> node, String key) {
+        Object value = node.get(key);
+        if (value != null) {
+            node.put(key, Boolean.valueOf((String) value));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects completed {@link LatencyTrace}s into a histogram per stage (time since the
+ * previous stage) plus one for the whole pipeline, and keeps the most recent traces
+ * for export as CSV or JSON. Safe to use from any thread.
+ */
+public class LatencyRecorder {
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+
+    private final LatencyHistogram[] stageHistograms = new LatencyHistogram[STAGES.length];
+    private final LatencyHistogram totalHistogram = new LatencyHistogram();
+    private final LatencyTrace[] recent;
+    private int next = 0;
+    private int size = 0;
+
+    public LatencyRecorder(int recentCapacity) {
+        recent = new LatencyTrace[recentCapacity];
+        for (int i = 0; i < stageHistograms.length; i++) {
+            stageHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(LatencyTrace trace) {
+        for (LatencyStage stage : STAGES) {
+            long span = trace.spanTo(stage);
+            if (span != LatencyTrace.UNKNOWN) {
+                stageHistograms[stage.ordinal()].record(span);
+            }
+        }
+        long total = trace.total();
+        if (total != LatencyTrace.UNKNOWN) {
+            totalHistogram.record(total);
+        }
+        synchronized (recent) {
+            recent[next] = trace;
+            next = (next + 1) % recent.length;
+            if (size < recent.length) size++;
+        }
+    }
+
+    /**
+     * Time from the previous observed stage to {@code stage}.
+     */
+    public LatencyHistogram histogramTo(LatencyStage stage) {
+        return stageHistograms[stage.ordinal()];
+    }
+
+    public LatencyHistogram totalHistogram() {
+        return totalHistogram;
+    }
+
+    /**
+     * The retained traces, oldest first.
+     */
+    public List<LatencyTrace> recentTraces() {
+        synchronized (recent) {
+            List<LatencyTrace> traces = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                traces.add(recent[(next - size + i + recent.length) % recent.length]);
+            }
+            return traces;
+        }
+    }
+
+    /**
+     * One line per stage with its count and p50/p95/p99, for a debug overlay.
+     */
+    public void writeSummary(StringBuilder out) {
+        out.append(String.format(Locale.US, "%-10s %5s %6s %6s %6s%n", "ms", "n", "p50", "p95", "p99"));
+        for (LatencyStage stage : STAGES) {
+            LatencyHistogram histogram = stageHistograms[stage.ordinal()];
+            if (histogram.getCount() > 0) {
+                appendSummaryLine(out, stage.getLabel(), histogram);
+            }
+        }
+        appendSummaryLine(out, "total", totalHistogram);
+    }
+
+    private static void appendSummaryLine(StringBuilder out, String label, LatencyHistogram histogram) {
+        out.append(String.format(Locale.US, "%-10s %5d %6d %6d %6d%n", label, histogram.getCount(),
+                histogram.percentile(50), histogram.percentile(95), histogram.percentile(99)));
+    }
+
+    /**
+     * Writes the retained traces, one row each, with a timestamp column per stage
+     * (epoch ms, empty when not observed).
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append("decision");
+        for (LatencyStage stage : STAGES) {
+            out.append(',').append(stage.getLabel()).append("_ms");
+        }
+        out.append(",total_ms\n");
+        for (LatencyTrace trace : recentTraces()) {
+            out.append(trace.getDecision().name());
+            for (LatencyStage stage : STAGES) {
+                out.append(',');
+                long stamp = trace.get(stage);
+                if (stamp != LatencyTrace.UNKNOWN) out.append(Long.toString(stamp));
+            }
+            out.append(',');
+            long total = trace.total();
+            if (total != LatencyTrace.UNKNOWN) out.append(Long.toString(total));
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Writes the per-stage percentiles and the retained traces as one JSON object.
+     */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\"stages\":{");
+        boolean first = true;
+        for (LatencyStage stage : STAGES) {
+            LatencyHistogram histogram = stageHistograms[stage.ordinal()];
+            if (histogram.getCount() == 0) continue;
+            if (!first) out.append(',');
+            first = false;
+            appendJsonHistogram(out, stage.getLabel(), histogram);
+        }
+        if (!first) out.append(',');
+        appendJsonHistogram(out, "total", totalHistogram);
+        out.append("},\"traces\":[");
+        first = true;
+        for (LatencyTrace trace : recentTraces()) {
+            if (!first) out.append(',');
+            first = false;
+            out.append("{\"decision\":\"").append(trace.getDecision().name()).append('"');
+            for (LatencyStage stage : STAGES) {
+                long stamp = trace.get(stage);
+                if (stamp != LatencyTrace.UNKNOWN) {
+                    out.append(",\"").append(stage.getLabel()).append("_ms\":").append(Long.toString(stamp));
+                }
+            }
+            out.append('}');
+        }
+        out.append("]}");
+    }
+
+    private static void appendJsonHistogram(Appendable out, String label, LatencyHistogram histogram)
+            throws IOException {
+        out.append('"').append(label).append("\":{\"count\":").append(Long.toString(histogram.getCount()))
+                .append(",\"p50\":").append(Long.toString(histogram.percentile(50)))
+                .append(",\"p95\":").append(Long.toString(histogram.percentile(95)))
+                .append(",\"p99\":").append(Long.toString(histogram.percentile(99)))
+                .append(",\"max\":").append(Long.toString(histogram.getMax()))
+                .append('}');
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.boundvision;
+
+/**
+ * Points a detection passes on its way from the sensor to the screen, in order.
+ * Device stages are converted to the local clock with the node's clock offset estimate.
+ */
+public enum LatencyStage {
+    /** The node's monitoring window opened (device clock). */
+    TRIGGERED("triggered"),
+    /** The node closed the window and published its detection (device clock). */
+    DECIDED("decided"),
+    /** The detection reached the phone. */
+    RECEIVED("received"),
+    /** Neighbouring detections were fused into one event. */
+    FUSED("fused"),
+    /** The classification result was delivered to the UI thread. */
+    CLASSIFIED("classified"),
+    /** The first frame of the celebration was drawn. */
+    RENDERED("rendered");
+
+    private final String label;
+
+    LatencyStage(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.boundvision;
+
+import java.util.Arrays;
+
+/**
+ * Local-clock timestamps of one detection at each {@link LatencyStage}.
+ * Stages that weren't observed stay {@link #UNKNOWN}.
+ */
+public class LatencyTrace {
+    public static final long UNKNOWN = -1;
+
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+
+    private final long[] stamps = new long[STAGES.length];
+    private BoundaryDecision decision = BoundaryDecision.NONE;
+
+    public LatencyTrace() {
+        Arrays.fill(stamps, UNKNOWN);
+    }
+
+    /**
+     * Starts a trace from the stages a fused detection already passed.
+     */
+    public static LatencyTrace of(FusedDetection detection) {
+        LatencyTrace trace = new LatencyTrace();
+        trace.mark(LatencyStage.TRIGGERED, detection.getTriggeredMs());
+        trace.mark(LatencyStage.DECIDED, detection.getDecidedMs());
+        trace.mark(LatencyStage.RECEIVED, detection.getFirstTimestampMs());
+        trace.mark(LatencyStage.FUSED, detection.getFusedMs());
+        return trace;
+    }
+
+    public void mark(LatencyStage stage, long timeMs) {
+        stamps[stage.ordinal()] = timeMs;
+    }
+
+    public long get(LatencyStage stage) {
+        return stamps[stage.ordinal()];
+    }
+
+    /**
+     * Time from the previous observed stage to {@code stage}, or {@link #UNKNOWN}.
+     * Negative spans from clock estimation error are reported as 0.
+     */
+    public long spanTo(LatencyStage stage) {
+        long end = stamps[stage.ordinal()];
+        if (end == UNKNOWN) {
+            return UNKNOWN;
+        }
+        for (int i = stage.ordinal() - 1; i >= 0; i--) {
+            if (stamps[i] != UNKNOWN) {
+                return Math.max(0, end - stamps[i]);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Time from the first to the last observed stage, or {@link #UNKNOWN}.
+     */
+    public long total() {
+        long first = UNKNOWN;
+        long last = UNKNOWN;
+        for (long stamp : stamps) {
+            if (stamp == UNKNOWN) continue;
+            if (first == UNKNOWN) first = stamp;
+            last = stamp;
+        }
+        return first == UNKNOWN ? UNKNOWN : Math.max(0, last - first);
+    }
+
+    public BoundaryDecision getDecision() {
+        return decision;
+    }
+
+    public void setDecision(BoundaryDecision decision) {
+        this.decision = decision;
+    }
+}
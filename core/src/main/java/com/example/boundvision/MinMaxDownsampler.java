@@ -0,0 +1,109 @@
+package com.example.boundvision;
+
+import java.util.Arrays;
+
+/**
+ * Streaming min/max reduction of one channel for charting. The most recent span is split into
+ * a fixed number of equal time buckets held in a ring; each sample only updates its bucket's
+ * minimum and maximum, so a session of any length costs O(1) per sample and the bucket count
+ * in memory. Drawing each bucket as a vertical min-max line keeps every spike visible however
+ * many samples fall in it. Buckets with no samples read as NaN, so gaps show as gaps.
+ * Written by one thread and copied out by another; both sides lock, briefly.
+ */
+public class MinMaxDownsampler {
+    private final long bucketMs;
+    private final float[] mins;
+    private final float[] maxs;
+    private long newestBucket = Long.MIN_VALUE; // Bucket number (time / bucketMs) of the newest bucket
+    private volatile long version = 0;
+
+    public MinMaxDownsampler(int buckets, long spanMs) {
+        if (buckets <= 0 || spanMs < buckets) {
+            throw new IllegalArgumentException("Need at least 1 ms per bucket: " + buckets + " in " + spanMs);
+        }
+        this.bucketMs = spanMs / buckets;
+        this.mins = new float[buckets];
+        this.maxs = new float[buckets];
+        clearAll();
+    }
+
+    public synchronized void add(long timeMs, float value) {
+        long bucket = Math.floorDiv(timeMs, bucketMs);
+        if (newestBucket == Long.MIN_VALUE) {
+            newestBucket = bucket;
+        } else if (bucket > newestBucket) {
+            // Scroll: the buckets passed over start empty
+            long steps = Math.min(bucket - newestBucket, mins.length);
+            for (long b = bucket - steps + 1; b <= bucket; b++) {
+                clear(slot(b));
+            }
+            newestBucket = bucket;
+        } else if (newestBucket - bucket >= mins.length) {
+            return;
+        }
+        int slot = slot(bucket);
+        if (Float.isNaN(mins[slot])) {
+            mins[slot] = value;
+            maxs[slot] = value;
+        } else {
+            if (value < mins[slot]) mins[slot] = value;
+            if (value > maxs[slot]) maxs[slot] = value;
+        }
+        version++;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) mins.length);
+    }
+
+    private void clear(int slot) {
+        mins[slot] = Float.NaN;
+        maxs[slot] = Float.NaN;
+    }
+
+    private void clearAll() {
+        for (int i = 0; i < mins.length; i++) {
+            clear(i);
+        }
+    }
+
+    public synchronized void reset() {
+        clearAll();
+        newestBucket = Long.MIN_VALUE;
+        version++;
+    }
+
+    /**
+     * Copies the buckets into the arrays, oldest first, so the newest ends up last.
+     * Both arrays need at least {@link #buckets()} slots.
+     *
+     * @return the end time of the newest bucket, or {@link Long#MIN_VALUE} if nothing was added
+     */
+    public synchronized long copyTo(float[] outMins, float[] outMaxs) {
+        if (newestBucket == Long.MIN_VALUE) {
+            Arrays.fill(outMins, 0, mins.length, Float.NaN);
+            Arrays.fill(outMaxs, 0, maxs.length, Float.NaN);
+            return Long.MIN_VALUE;
+        }
+        int oldest = slot(newestBucket + 1);
+        int tail = mins.length - oldest;
+        System.arraycopy(mins, oldest, outMins, 0, tail);
+        System.arraycopy(mins, 0, outMins, tail, oldest);
+        System.arraycopy(maxs, oldest, outMaxs, 0, tail);
+        System.arraycopy(maxs, 0, outMaxs, tail, oldest);
+        return (newestBucket + 1) * bucketMs;
+    }
+
+    public int buckets() {
+        return mins.length;
+    }
+
+    public long getBucketMs() {
+        return bucketMs;
+    }
+
+    /** Incremented on every change, so a view can skip redrawing when nothing changed. */
+    public long getVersion() {
+        return version;
+    }
+}
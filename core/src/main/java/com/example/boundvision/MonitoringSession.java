@@ -0,0 +1,73 @@
+package com.example.boundvision;
+
+/**
+ * A node's monitoring window, anchored on the device time at which it opened.
+ * Remaining time is computed from the clock rather than counted down, so it stays correct
+ * when updates are delayed or dropped. When the node has several windows open, this is the
+ * oldest one and {@link #getOpenWindows} counts the rest. Updated on the ingestion thread,
+ * read from the UI.
+ */
+public class MonitoringSession {
+    private final ClockOffsetEstimator clock = new ClockOffsetEstimator();
+    private boolean active = false;
+    private long startedDeviceMs = 0;
+    private long periodMs = 0;
+    private int windows = 0;
+
+    public synchronized void update(TelemetryFrame frame, long localReceivedMs) {
+        if (frame.getDeviceTimeMs() != 0) {
+            clock.observe(frame.getDeviceTimeMs(), localReceivedMs);
+        }
+        if (frame.has(TelemetryFrame.FIELD_MONITORING_ACTIVE)) {
+            active = frame.isMonitoringActive();
+        }
+        if (frame.has(TelemetryFrame.FIELD_MONITORING_WINDOWS)) {
+            windows = frame.getMonitoringWindows();
+        }
+        if (frame.has(TelemetryFrame.FIELD_MONITORING_PERIOD)) {
+            periodMs = frame.getMonitoringPeriodMs();
+        }
+        if (frame.has(TelemetryFrame.FIELD_MONITORING_STARTED)) {
+            startedDeviceMs = frame.getMonitoringStartedMs();
+        } else if (frame.has(TelemetryFrame.FIELD_MONITORING_REMAINING) && active) {
+            // Older firmware only reports the time left; anchor the window on the frame instead
+            if (periodMs == 0) periodMs = frame.getMonitoringRemainingMs();
+            startedDeviceMs = frame.getDeviceTimeMs() + frame.getMonitoringRemainingMs() - periodMs;
+        }
+    }
+
+    public synchronized boolean isActive(long localNowMs) {
+        return active && remainingMs(localNowMs) > 0;
+    }
+
+    public synchronized long remainingMs(long localNowMs) {
+        if (!active || !clock.hasEstimate()) {
+            return 0;
+        }
+        long deviceNow = clock.toDeviceTime(localNowMs);
+        return Math.max(0, startedDeviceMs + periodMs - deviceNow);
+    }
+
+    /**
+     * Windows open on the node, at least one while the oldest is running. Firmware that
+     * predates overlapping windows never reports more than one.
+     */
+    public synchronized int getOpenWindows(long localNowMs) {
+        if (!active || remainingMs(localNowMs) == 0) {
+            return 0;
+        }
+        return Math.max(1, windows);
+    }
+
+    /**
+     * Converts a time on the device's clock to the local clock, or returns
+     * {@link LatencyTrace#UNKNOWN} before any frame has been seen.
+     */
+    public synchronized long toLocalTime(long deviceMs) {
+        return clock.hasEstimate() ? clock.toLocalTime(deviceMs) : LatencyTrace.UNKNOWN;
+    }
+
+    public synchronized long getClockOffset() {
+        return clock.getOffset();
+    }
+}
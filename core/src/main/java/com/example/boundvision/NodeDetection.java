@@ -0,0 +1,68 @@
+package com.example.boundvision;
+
+/**
+ * A detection window result reported by a single node. Nodes that decide early report a
+ * provisional result first and a confirmed or retracted one for the same window later.
+ */
+public class NodeDetection {
+    private final String nodeId;
+    private final int ringIndex;
+    private final long timestampMs;
+    private final int evidenceMask;
+    private final long triggeredMs;
+    private final long decidedMs;
+    private final DecisionState state;
+
+    public NodeDetection(String nodeId, int ringIndex, long timestampMs, int evidenceMask) {
+        this(nodeId, ringIndex, timestampMs, evidenceMask, LatencyTrace.UNKNOWN, LatencyTrace.UNKNOWN);
+    }
+
+    /**
+     * @param triggeredMs local time the node's window opened, or {@link LatencyTrace#UNKNOWN}
+     * @param decidedMs   local time the node published the result, or {@link LatencyTrace#UNKNOWN}
+     */
+    public NodeDetection(String nodeId, int ringIndex, long timestampMs, int evidenceMask,
+                         long triggeredMs, long decidedMs) {
+        this(nodeId, ringIndex, timestampMs, evidenceMask, triggeredMs, decidedMs, DecisionState.CONFIRMED);
+    }
+
+    public NodeDetection(String nodeId, int ringIndex, long timestampMs, int evidenceMask,
+                         long triggeredMs, long decidedMs, DecisionState state) {
+        this.nodeId = nodeId;
+        this.ringIndex = ringIndex;
+        this.timestampMs = timestampMs;
+        this.evidenceMask = evidenceMask;
+        this.triggeredMs = triggeredMs;
+        this.decidedMs = decidedMs;
+        this.state = state;
+    }
+
+    // Getters
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getRingIndex() {
+        return ringIndex;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public int getEvidenceMask() {
+        return evidenceMask;
+    }
+
+    public long getTriggeredMs() {
+        return triggeredMs;
+    }
+
+    public long getDecidedMs() {
+        return decidedMs;
+    }
+
+    public DecisionState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.boundvision;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ingests {@code sensors/{nodeId}} updates for every node on one background thread.
+ * Frames go into the {@link NodeRegistry}; only the focused node's frame is forwarded for
+ * display, and confirmed node detections are fused before being reported, so the UI thread
+ * never sees the per-node update rate. Provisional and retracted verdicts skip fusion, since
+ * waiting out the fusion tolerance would cost the time they are meant to save.
+ */
+public class NodeIngestion implements TelemetrySource.Sink {
+
+    /**
+     * Called on the ingestion thread.
+     */
+    public interface Listener {
+        void onFocusedFrame(String nodeId, TelemetryFrame frame);
+
+        void onFusedDetection(FusedDetection detection);
+
+        void onProvisionalDetection(NodeDetection detection);
+    }
+
+    private final NodeRegistry registry;
+    private final DetectionFusion fusion;
+    private final ScheduledExecutorService executor;
+    private final LongSupplier clock;
+    private final Listener listener;
+    private final Runnable flushTask = this::flush;
+    private volatile String focusedNodeId;
+    private ScheduledFuture<?> scheduledFlush;
+    private long scheduledFlushAt = Long.MAX_VALUE;
+
+    public NodeIngestion(NodeRegistry registry, long fusionToleranceMs, int neighbourSpan,
+                         ScheduledExecutorService executor, LongSupplier clock, Listener listener) {
+        this.registry = registry;
+        this.executor = executor;
+        this.clock = clock;
+        this.listener = listener;
+        this.fusion = new DetectionFusion(fusionToleranceMs, neighbourSpan, listener::onFusedDetection);
+    }
+
+    public NodeRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Queues the value of {@code sensors/{nodeId}} for ingestion. Safe to call from any thread.
+     */
+    @Override
+    public void submit(final String nodeId, final Object value) {
+        if (!executor.isShutdown()) {
+            executor.execute(() -> ingest(nodeId, value));
+        }
+    }
+
+    @Override
+    public void remove(final String nodeId) {
+        if (!executor.isShutdown()) {
+            executor.execute(() -> registry.remove(nodeId));
+        }
+    }
+
+    /**
+     * Selects the node whose frames are forwarded; defaults to the first node that reports.
+     */
+    public void setFocusedNode(String nodeId) {
+        focusedNodeId = nodeId;
+        executor.execute(() -> {
+            NodeState node = registry.get(nodeId);
+            if (node != null) listener.onFocusedFrame(nodeId, node.getFrame());
+        });
+    }
+
+    public String getFocusedNode() {
+        return focusedNodeId;
+    }
+
+    private void ingest(String nodeId, Object value) {
+        long now = clock.getAsLong();
+        NodeDetection detection = registry.ingest(nodeId, value, now);
+        NodeState node = registry.get(nodeId);
+        if (node == null) {
+            return;
+        }
+
+        if (focusedNodeId == null) {
+            focusedNodeId = nodeId;
+        }
+        if (nodeId.equals(focusedNodeId)) {
+            listener.onFocusedFrame(nodeId, node.getFrame());
+        }
+
+        if (detection != null && detection.getState() != DecisionState.CONFIRMED) {
+            listener.onProvisionalDetection(detection);
+        } else if (detection != null) {
+            fusion.setRingSize(registry.size());
+            fusion.offer(detection);
+            scheduleFlush(now);
+        }
+    }
+
+    private void flush() {
+        scheduledFlush = null;
+        scheduledFlushAt = Long.MAX_VALUE;
+        long now = clock.getAsLong();
+        fusion.flush(now);
+        scheduleFlush(now);
+    }
+
+    private void scheduleFlush(long now) {
+        long deadline = fusion.nextDeadline();
+        if (deadline == Long.MAX_VALUE || deadline >= scheduledFlushAt) {
+            return;
+        }
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlushAt = deadline;
+        scheduledFlush = executor.schedule(flushTask, Math.max(0, deadline - now), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-node state for every sensor node around the ground, keyed by node id.
+ * Each node writes {@code sensors/{nodeId}} with a {@code telemetry} frame, a {@code detection}
+ * result and its {@code ring_index} (position around the rope). Ingestion is meant to run on a
+ * single background thread; the node map and summary fields can be read from any thread.
+ */
+public class NodeRegistry {
+    // Child keys under sensors/{nodeId}
+    public static final String KEY_TELEMETRY = "telemetry";
+    public static final String KEY_DETECTION = "detection";
+    public static final String KEY_RING_INDEX = "ring_index";
+
+    private final ConcurrentHashMap<String, NodeState> nodes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRingIndex = new AtomicInteger();
+    private volatile AdaptiveThresholds.Config thresholdConfig;
+    private final int historyCapacity;
+    private final long chartSpanMs;
+    private volatile long version = 0;
+
+    public NodeRegistry(DetectionThresholds thresholds, int historyCapacity) {
+        this(thresholds, historyCapacity, SensorCharts.DEFAULT_SPAN_MS);
+    }
+
+    /**
+     * @param chartSpanMs how far back each node's charts reach
+     */
+    public NodeRegistry(DetectionThresholds thresholds, int historyCapacity, long chartSpanMs) {
+        this.thresholdConfig = AdaptiveThresholds.Config.fixed(thresholds);
+        this.historyCapacity = historyCapacity;
+        this.chartSpanMs = chartSpanMs;
+    }
+
+    /**
+     * Replaces the thresholds applied to live telemetry, e.g. when {@code config/thresholds}
+     * changes. Each node starts a new ambient baseline on its next frame. Safe from any thread.
+     */
+    public void setThresholdConfig(AdaptiveThresholds.Config config) {
+        this.thresholdConfig = config;
+    }
+
+    public AdaptiveThresholds.Config getThresholdConfig() {
+        return thresholdConfig;
+    }
+
+    /**
+     * Applies the value of a {@code sensors/{nodeId}} node.
+     *
+     * @return the node's new detection, or null if the detection did not change. The first
+     * detection seen for a node is treated as history and never reported.
+     */
+    public NodeDetection ingest(String nodeId, Object value, long receivedMs) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> node = (Map<?, ?>) value;
+        NodeState state = nodes.get(nodeId);
+        boolean isNew = state == null;
+        if (isNew) {
+            state = nodes.computeIfAbsent(nodeId,
+                    id -> new NodeState(id, nextRingIndex.getAndIncrement(), historyCapacity, chartSpanMs));
+        }
+
+        long ringIndex = SensorValueDecoder.decodeLong(node.get(KEY_RING_INDEX), -1);
+        if (ringIndex >= 0) state.setRingIndex((int) ringIndex);
+
+        if (TelemetryFrameDecoder.decode(node.get(KEY_TELEMETRY), state.getFrame())) {
+            state.onFrame(receivedMs, thresholdConfig);
+        }
+
+        NodeDetection detection = null;
+        Object detectionValue = node.get(KEY_DETECTION);
+        if (detectionValue instanceof Map) {
+            Map<?, ?> result = (Map<?, ?>) detectionValue;
+            long seq = SensorValueDecoder.decodeLong(result.get(TelemetryFrameDecoder.KEY_SEQUENCE), 0);
+            if (seq != state.getLastDetectionSeq()) {
+                if (!isNew) {
+                    detection = new NodeDetection(nodeId, state.getRingIndex(), receivedMs,
+                            decodeDetectionMask(result),
+                            toLocalTime(state, result.get(TelemetryFrameDecoder.KEY_TRIGGER_TIME)),
+                            toLocalTime(state, result.get(TelemetryFrameDecoder.KEY_DEVICE_TIME)),
+                            DecisionState.fromKey(result.get(TelemetryFrameDecoder.KEY_DECISION_STATE)));
+                }
+                state.setLastDetectionSeq(seq);
+            }
+        }
+
+        version++;
+        return detection;
+    }
+
+    private static long toLocalTime(NodeState state, Object deviceTime) {
+        long deviceMs = SensorValueDecoder.decodeLong(deviceTime, LatencyTrace.UNKNOWN);
+        return deviceMs < 0 ? LatencyTrace.UNKNOWN : state.getMonitoringSession().toLocalTime(deviceMs);
+    }
+
+    public static int decodeDetectionMask(Map<?, ?> result) {
+        return DetectionThresholds.evidenceOf(
+                SensorValueDecoder.decodeBoolean(result.get(TelemetryFrameDecoder.KEY_FOIL_CONTACT), false),
+                SensorValueDecoder.decodeBoolean(result.get(TelemetryFrameDecoder.KEY_VIBRATION), false),
+                SensorValueDecoder.decodeBoolean(result.get(TelemetryFrameDecoder.KEY_SOUND), false));
+    }
+
+    public void remove(String nodeId) {
+        nodes.remove(nodeId);
+        version++;
+    }
+
+    public NodeState get(String nodeId) {
+        return nodes.get(nodeId);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Incremented on every ingested update, so readers can skip work when nothing changed.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Copies the current nodes into {@code out}, replacing its contents.
+     */
+    public List<NodeState> snapshot(List<NodeState> out) {
+        out.clear();
+        out.addAll(nodes.values());
+        return out;
+    }
+
+    public List<NodeState> snapshot() {
+        return snapshot(new ArrayList<>(nodes.size()));
+    }
+}
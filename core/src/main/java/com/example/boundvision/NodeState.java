@@ -0,0 +1,113 @@
+package com.example.boundvision;
+
+/**
+ * Latest state and recent history of one boundary sensor node.
+ * The frame and history are only touched by the ingestion thread; the summary
+ * fields are volatile so views can read them from the UI thread.
+ */
+public class NodeState {
+    private final String nodeId;
+    private final TelemetryFrame frame = new TelemetryFrame();
+    private final SensorHistory history;
+    private final SensorCharts charts;
+    private final MonitoringSession monitoringSession = new MonitoringSession();
+
+    private volatile int ringIndex;
+    private volatile long lastSeenMs;
+    private AdaptiveThresholds adaptiveThresholds;
+    private volatile DetectionThresholds thresholds;
+    private volatile int liveEvidence;     // Evidence bits of the latest frame
+    private volatile boolean monitoring;
+    private long lastDetectionSeq = -1;
+    private long frameCount = 0;
+
+    public NodeState(String nodeId, int ringIndex, int historyCapacity) {
+        this(nodeId, ringIndex, historyCapacity, SensorCharts.DEFAULT_SPAN_MS);
+    }
+
+    public NodeState(String nodeId, int ringIndex, int historyCapacity, long chartSpanMs) {
+        this.nodeId = nodeId;
+        this.ringIndex = ringIndex;
+        this.history = new SensorHistory(historyCapacity);
+        this.charts = new SensorCharts(SensorCharts.DEFAULT_BUCKETS, chartSpanMs);
+    }
+
+    void onFrame(long receivedMs, AdaptiveThresholds.Config config) {
+        history.append(frame, receivedMs);
+        charts.add(frame, receivedMs);
+        lastSeenMs = receivedMs;
+        // A new config starts a fresh baseline; telemetry carries only the vibration flag
+        if (adaptiveThresholds == null || adaptiveThresholds.getConfig() != config) {
+            adaptiveThresholds = new AdaptiveThresholds(config);
+        }
+        DetectionThresholds thresholds = adaptiveThresholds.update(receivedMs, frame.getSound(), -1);
+        this.thresholds = thresholds;
+        liveEvidence = thresholds.evidenceOf(frame.getDistanceCm(), frame.getSound(),
+                frame.isVibration(), frame.isFoilContact());
+        monitoring = frame.isMonitoringActive();
+        monitoringSession.update(frame, receivedMs);
+        frameCount++;
+    }
+
+    // Getters
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getRingIndex() {
+        return ringIndex;
+    }
+
+    void setRingIndex(int ringIndex) {
+        this.ringIndex = ringIndex;
+    }
+
+    /** Latest frame; read only on the ingestion thread. */
+    public TelemetryFrame getFrame() {
+        return frame;
+    }
+
+    /** Recent samples; read only on the ingestion thread. */
+    public SensorHistory getHistory() {
+        return history;
+    }
+
+    /** Downsampled channels for charting; safe to copy from any thread. */
+    public SensorCharts getCharts() {
+        return charts;
+    }
+
+    /** Monitoring window of this node; safe to read from any thread. */
+    public MonitoringSession getMonitoringSession() {
+        return monitoringSession;
+    }
+
+    public long getLastSeenMs() {
+        return lastSeenMs;
+    }
+
+    /** Thresholds applied to the latest frame, or null before the first one. */
+    public DetectionThresholds getThresholds() {
+        return thresholds;
+    }
+
+    public int getLiveEvidence() {
+        return liveEvidence;
+    }
+
+    public boolean isMonitoring() {
+        return monitoring;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    long getLastDetectionSeq() {
+        return lastDetectionSeq;
+    }
+
+    void setLastDetectionSeq(long lastDetectionSeq) {
+        this.lastDetectionSeq = lastDetectionSeq;
+    }
+}
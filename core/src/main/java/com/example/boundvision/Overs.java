@@ -0,0 +1,48 @@
+package com.example.boundvision;
+
+/**
+ * Conversions between the "overs.balls" notation (e.g. "4.2") and a count of balls bowled
+ */
+public final class Overs {
+    public static final int BALLS_PER_OVER = 6;
+    public static final int UNKNOWN = -1;
+
+    private Overs() {
+    }
+
+    /**
+     * Parses "4.2" into 26 balls. Returns {@link #UNKNOWN} for null or malformed values.
+     */
+    public static int toBalls(String overs) {
+        if (overs == null) {
+            return UNKNOWN;
+        }
+        int point = overs.indexOf('.');
+        String whole = point < 0 ? overs : overs.substring(0, point);
+        String part = point < 0 ? "0" : overs.substring(point + 1);
+        double completed = SensorValueDecoder.parseDouble(whole, Double.NaN);
+        double balls = SensorValueDecoder.parseDouble(part, Double.NaN);
+        if (Double.isNaN(completed) || Double.isNaN(balls) || completed < 0
+                || balls < 0 || balls >= BALLS_PER_OVER || part.indexOf('.') >= 0) {
+            return UNKNOWN;
+        }
+        return (int) completed * BALLS_PER_OVER + (int) balls;
+    }
+
+    /**
+     * Formats 26 balls as "4.2", or returns null for {@link #UNKNOWN}.
+     */
+    public static String format(int balls) {
+        if (balls < 0) {
+            return null;
+        }
+        return (balls / BALLS_PER_OVER) + "." + (balls % BALLS_PER_OVER);
+    }
+
+    /**
+     * Returns the over (0-based) a ball count falls in, e.g. 26 balls is in over 4.
+     */
+    public static int overOf(int balls) {
+        return balls / BALLS_PER_OVER;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.boundvision;
+
+/**
+ * Class representing a cricket score event like runs, wickets, or extras
+ */
+public class ScoreEvent {
+    // Event types
+    public static final int TYPE_RUN = 0;
+    public static final int TYPE_WICKET = 1;
+    public static final int TYPE_EXTRA = 2;
+
+    private final int type;          // Type of event (run, wicket, extra)
+    private final int value;         // Value of the event (number of runs or type of wicket/extra)
+    private final int balls;         // Balls bowled when the event occurred (e.g. 26 for "4.2"), or Overs.UNKNOWN
+    private final long timestampMs;  // Epoch millis when the event occurred
+    private final boolean autoDetected; // Whether the event was detected automatically by sensors
+
+    public ScoreEvent(int type, int value, int balls, long timestampMs, boolean autoDetected) {
+        this.type = type;
+        this.value = value;
+        this.balls = balls;
+        this.timestampMs = timestampMs;
+        this.autoDetected = autoDetected;
+    }
+
+    public ScoreEvent(int type, int value, String overs, String timestamp, boolean autoDetected) {
+        this(type, value, Overs.toBalls(overs), SensorValueDecoder.decodeLong(timestamp, 0), autoDetected);
+    }
+
+    // Getters
+    public int getType() {
+        return type;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public int getBalls() {
+        return balls;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public String getOvers() {
+        return Overs.format(balls);
+    }
+
+    public String getTimestamp() {
+        return String.valueOf(timestampMs);
+    }
+
+    public boolean isAutoDetected() {
+        return autoDetected;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.boundvision;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumer side of the append-only {@code score_events} list the nodes write to. Each child
+ * is keyed by a database push id, which sorts in the order the server received it, and holds
+ * the writing node, the node's boot epoch, its score sequence number, the window's evidence
+ * and the node's own score type. The score is decided from the evidence with the app's
+ * {@link DecisionTable}, the same rules that classify detections; only children written before
+ * nodes sent their evidence fall back to the node's type.
+ * Children are fed in key order, as a child-added listener delivers them, and each score is
+ * handed on exactly once: anything at or before the acknowledged key was handled in an earlier
+ * session, and a sequence number a node already used in the same epoch is a retried write of
+ * the same score. A node only retries within one boot, so a new epoch (a reboot, a reflashed or
+ * replaced board) starts its numbering afresh. Children without an epoch count as epoch 0.
+ * The acknowledged key, epochs and sequence numbers are what to persist between sessions; a
+ * listener query starting at the acknowledged key then only downloads what is new.
+ * Not thread-safe; feed it from one thread.
+ */
+public class ScoreEventStream {
+    public static final String PATH = "score_events";
+
+    // Keys of each score_events child, shared with the firmware
+    public static final String KEY_NODE = "node";
+    public static final String KEY_EPOCH = "epoch";
+    public static final String KEY_SEQ = "seq";
+    public static final String KEY_TYPE = "type";
+    public static final String KEY_EVIDENCE = "evidence";
+    public static final String KEY_SERVER_MS = "server_ms";
+
+    public interface Listener {
+        void onScoreEvent(String nodeId, long seq, BoundaryDecision decision, ScoreEvent event);
+    }
+
+    private final Listener listener;
+    private final Map<String, Long> acknowledgedEpochs;
+    private final Map<String, Long> acknowledgedSeqs;
+    private String acknowledgedKey;
+    private DecisionTable rules = DecisionTable.defaults();
+
+    public ScoreEventStream(String acknowledgedKey, Map<String, Long> acknowledgedEpochs,
+                            Map<String, Long> acknowledgedSeqs, Listener listener) {
+        this.acknowledgedKey = acknowledgedKey;
+        this.acknowledgedEpochs = new HashMap<>(acknowledgedEpochs);
+        this.acknowledgedSeqs = new HashMap<>(acknowledgedSeqs);
+        this.listener = listener;
+    }
+
+    /**
+     * Applies one child of {@code score_events}.
+     *
+     * @param receivedMs used as the event time when the child has no server timestamp
+     * @return true if the child was a new score and was handed to the listener
+     */
+    public boolean accept(String key, Object value, long receivedMs) {
+        if (acknowledgedKey != null && key.compareTo(acknowledgedKey) <= 0) {
+            return false;
+        }
+        acknowledgedKey = key;
+        if (!(value instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> child = (Map<?, ?>) value;
+        Object node = child.get(KEY_NODE);
+        long seq = SensorValueDecoder.decodeLong(child.get(KEY_SEQ), -1);
+        long evidence = SensorValueDecoder.decodeLong(child.get(KEY_EVIDENCE), -1);
+        BoundaryDecision decision = evidence >= 0
+                ? rules.lookup((int) evidence & DetectionThresholds.WINDOW_EVIDENCE)
+                : decisionOf(child.get(KEY_TYPE));
+        if (!(node instanceof String) || seq < 0 || decision == BoundaryDecision.NONE) {
+            return false;
+        }
+        String nodeId = (String) node;
+        long epoch = SensorValueDecoder.decodeLong(child.get(KEY_EPOCH), 0);
+        Long lastSeq = acknowledgedSeqs.get(nodeId);
+        if (lastSeq != null && seq <= lastSeq && epoch == acknowledgedEpochs.getOrDefault(nodeId, 0L)) {
+            return false;
+        }
+        acknowledgedEpochs.put(nodeId, epoch);
+        acknowledgedSeqs.put(nodeId, seq);
+        long timestampMs = SensorValueDecoder.decodeLong(child.get(KEY_SERVER_MS), receivedMs);
+        listener.onScoreEvent(nodeId, seq, decision, decision.toScoreEvent(Overs.UNKNOWN, timestampMs));
+        return true;
+    }
+
+    /** Rules for deciding the scores that follow, e.g. after they were tuned remotely. */
+    public void setRules(DecisionTable rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Moves the acknowledged key forward without handling anything, e.g. to the newest child on
+     * a first run so the history of earlier matches is not replayed.
+     */
+    public void skipTo(String key) {
+        if (acknowledgedKey == null || key.compareTo(acknowledgedKey) > 0) {
+            acknowledgedKey = key;
+        }
+    }
+
+    private static BoundaryDecision decisionOf(Object type) {
+        if (type instanceof String) {
+            for (BoundaryDecision decision : BoundaryDecision.values()) {
+                if (decision.name().equals(type)) {
+                    return decision;
+                }
+            }
+        }
+        return BoundaryDecision.NONE;
+    }
+
+    /** Key of the last child applied, or null before the first one. */
+    public String getAcknowledgedKey() {
+        return acknowledgedKey;
+    }
+
+    /** Epoch of the last score handed on per node. */
+    public Map<String, Long> getAcknowledgedEpochs() {
+        return Collections.unmodifiableMap(acknowledgedEpochs);
+    }
+
+    /** Last sequence number handed on per node, within its acknowledged epoch. */
+    public Map<String, Long> getAcknowledgedSeqs() {
+        return Collections.unmodifiableMap(acknowledgedSeqs);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.boundvision;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of {@link ScoreEvent}s with fixed-width records.
+ *
+ * <p>Record layout (20 bytes, big-endian): type (1), flags (1), value (2), balls bowled (4),
+ * epoch-ms timestamp (8), CRC32 of the preceding 16 bytes (4). Opening a journal replays it and
+ * truncates any torn or corrupt tail left by a crash, so every record that survives is complete.
+ * Each over keeps a chain of its record numbers, making per-over lookups independent of journal size.
+ *
+ * <p>Only events that know their ball are indexed by over, which today means manually entered
+ * ones: the nodes don't know the ball count, so detected events are recorded with
+ * {@link Overs#UNKNOWN} and are reachable through {@link #read} and replay only.
+ */
+public class ScoreJournal implements Closeable {
+    public static final int RECORD_SIZE = 20;
+
+    private static final int MAGIC = 0x42564A31; // "BVJ1"
+    private static final int HEADER_SIZE = 8;
+    private static final int FLAG_AUTO_DETECTED = 1;
+    private static final int NONE = -1;
+
+    public interface Replay {
+        void onEvent(int recordNumber, ScoreEvent event);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private int recordCount = 0;
+    private File recoveredFrom;
+
+    // Per-over index: first/last record of each over, and the next record in the same over
+    private int[] firstInOver = new int[64];
+    private int[] lastInOver = new int[64];
+    private int[] nextInOver = new int[256];
+
+    private ScoreJournal(FileChannel channel) {
+        this.channel = channel;
+        Arrays.fill(firstInOver, NONE);
+        Arrays.fill(lastInOver, NONE);
+    }
+
+    /**
+     * Opens or creates a journal, replaying existing records into {@code replay} (may be null).
+     */
+    public static ScoreJournal open(File file, Replay replay) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ScoreJournal journal = new ScoreJournal(channel);
+        try {
+            journal.load(replay);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Opens a journal like {@link #open}, but if the file isn't a readable journal (e.g. its
+     * header was overwritten) moves it aside as {@code <name>.corrupt-<nowMs>} and starts an
+     * empty one, so a single bad file doesn't turn journaling off for good.
+     */
+    public static ScoreJournal openOrRecover(File file, Replay replay, long nowMs) throws IOException {
+        try {
+            return open(file, replay);
+        } catch (IOException e) {
+            File aside = new File(file.getPath() + ".corrupt-" + nowMs);
+            if (!file.renameTo(aside)) {
+                throw e;
+            }
+            ScoreJournal journal = open(file, null);
+            journal.recoveredFrom = aside;
+            return journal;
+        }
+    }
+
+    /** Where {@link #openOrRecover} moved an unreadable journal, or null if it opened normally. */
+    public File getRecoveredFrom() {
+        return recoveredFrom;
+    }
+
+    private void load(Replay replay) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() < HEADER_SIZE) {
+            header.putInt(MAGIC).putInt(RECORD_SIZE).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            return;
+        }
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != RECORD_SIZE) {
+            throw new IOException("Not a score journal");
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(RECORD_SIZE * 256);
+        long end = channel.size();
+        long position = HEADER_SIZE;
+        boolean corrupt = false;
+        while (!corrupt && position + RECORD_SIZE <= end) {
+            // Only read whole records; a partial record at the end is a torn write
+            block.clear();
+            block.limit((int) Math.min(block.capacity(), (end - position) / RECORD_SIZE * RECORD_SIZE));
+            while (block.hasRemaining() && channel.read(block, position + block.position()) > 0) {
+                // Keep reading until the block is full
+            }
+            block.flip();
+            while (block.remaining() >= RECORD_SIZE) {
+                ScoreEvent event = decode(block);
+                if (event == null) {
+                    corrupt = true;
+                    break;
+                }
+                index(recordCount, event.getBalls());
+                if (replay != null) replay.onEvent(recordCount, event);
+                recordCount++;
+                position += RECORD_SIZE;
+            }
+        }
+        if (position < end) {
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Appends an event. The write reaches the OS before returning, so it survives the app
+     * being killed; call {@link #sync()} to also survive power loss.
+     */
+    public synchronized int append(ScoreEvent event) throws IOException {
+        record.clear();
+        record.put((byte) event.getType());
+        record.put((byte) (event.isAutoDetected() ? FLAG_AUTO_DETECTED : 0));
+        record.putShort((short) event.getValue());
+        record.putInt(event.getBalls());
+        record.putLong(event.getTimestampMs());
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        long position = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        index(recordCount, event.getBalls());
+        return recordCount++;
+    }
+
+    public synchronized void sync() throws IOException {
+        channel.force(false);
+    }
+
+    public synchronized int size() {
+        return recordCount;
+    }
+
+    public synchronized ScoreEvent read(int recordNumber) throws IOException {
+        if (recordNumber < 0 || recordNumber >= recordCount) {
+            throw new IndexOutOfBoundsException("record " + recordNumber);
+        }
+        record.clear();
+        long position = HEADER_SIZE + (long) recordNumber * RECORD_SIZE;
+        while (record.hasRemaining() && channel.read(record, position + record.position()) > 0) {
+            // Keep reading until the record is complete
+        }
+        record.flip();
+        return decode(record);
+    }
+
+    public synchronized List<ScoreEvent> readAll() throws IOException {
+        List<ScoreEvent> events = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            events.add(read(i));
+        }
+        return events;
+    }
+
+    /**
+     * Returns the events recorded in the given 0-based over, in journal order. Events with
+     * unknown balls are never in any over.
+     */
+    public synchronized List<ScoreEvent> eventsInOver(int over) throws IOException {
+        List<ScoreEvent> events = new ArrayList<>();
+        int next = over >= 0 && over < firstInOver.length ? firstInOver[over] : NONE;
+        while (next != NONE) {
+            events.add(read(next));
+            next = nextInOver[next];
+        }
+        return events;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private ScoreEvent decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, RECORD_SIZE - 4);
+        int type = buffer.get();
+        int flags = buffer.get();
+        int value = buffer.getShort();
+        int balls = buffer.getInt();
+        long timestampMs = buffer.getLong();
+        int checksum = buffer.getInt();
+        if (checksum != (int) crc.getValue()) {
+            return null;
+        }
+        return new ScoreEvent(type, value, balls, timestampMs, (flags & FLAG_AUTO_DETECTED) != 0);
+    }
+
+    private void index(int recordNumber, int balls) {
+        if (recordNumber >= nextInOver.length) {
+            nextInOver = Arrays.copyOf(nextInOver, nextInOver.length * 2);
+        }
+        nextInOver[recordNumber] = NONE;
+
+        if (balls < 0) {
+            return;
+        }
+
+        int over = Overs.overOf(balls);
+        if (over >= firstInOver.length) {
+            int oldLength = firstInOver.length;
+            int newLength = Math.max(oldLength * 2, over + 1);
+            firstInOver = Arrays.copyOf(firstInOver, newLength);
+            lastInOver = Arrays.copyOf(lastInOver, newLength);
+            Arrays.fill(firstInOver, oldLength, newLength, NONE);
+            Arrays.fill(lastInOver, oldLength, newLength, NONE);
+        }
+        if (lastInOver[over] != NONE) nextInOver[lastInOver[over]] = recordNumber;
+        else firstInOver[over] = recordNumber;
+        lastInOver[over] = recordNumber;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.boundvision;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide record of the match: the {@link ScoreJournal} on disk, the {@link ScoreTimeline}
+ * built from it, and the upload of every record through a {@link WriteBehindSync}. All of it
+ * runs on one writer thread, so however many screens record scores there is a single open
+ * journal, and a screen that is recreated (e.g. on rotation) finds the timeline as it was.
+ *
+ * <p>Records are uploaded under {@code syncPath + recordNumber}. Every record below the synced
+ * count has reached the backend; the rest are queued again when the journal is opened.
+ */
+public class ScoreRecorder {
+    private static final int SYNC_CAPACITY = 1024;
+    private static final int SYNC_MAX_BATCH = 32;
+    private static final long SYNC_BATCH_DELAY_MS = 500;
+
+    public interface Listener {
+        /** The timeline changed. Called on the writer thread, which owns the timeline. */
+        void onTimelineChanged(ScoreTimeline timeline);
+    }
+
+    private final File journalFile;
+    private final String syncPath;
+    private final ScheduledExecutorService writer;
+    private final LongSupplier clock;
+    private final LongConsumer syncedListener;
+    private final WriteBehindSync sync;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Writer thread only
+    private final ScoreTimeline timeline = new ScoreTimeline();
+    private ScoreJournal journal;
+    private long syncedRecords;
+
+    /**
+     * @param syncedRecords  how many records had reached the backend when the process last ran
+     * @param syncedListener told the new synced count whenever it changes, to persist it
+     * @param writer         single-threaded; the journal, timeline and uploads run on it
+     */
+    public ScoreRecorder(File journalFile, SyncBackend backend, String syncPath, long syncedRecords,
+                         LongConsumer syncedListener, ScheduledExecutorService writer, LongSupplier clock) {
+        this.journalFile = journalFile;
+        this.syncPath = syncPath;
+        this.syncedRecords = syncedRecords;
+        this.syncedListener = syncedListener;
+        this.writer = writer;
+        this.clock = clock;
+        this.sync = new WriteBehindSync(backend, SYNC_CAPACITY, SYNC_MAX_BATCH, SYNC_BATCH_DELAY_MS, writer,
+                (path, recordNumber) -> writer.execute(() -> onSynced(recordNumber)));
+    }
+
+    /**
+     * Opens the journal on the writer thread, replaying it into the timeline and queueing the
+     * records that haven't been uploaded yet. Anything recorded meanwhile is queued behind it.
+     */
+    public void open() {
+        writer.execute(this::openJournal);
+    }
+
+    /** Appends {@code event} to the journal and the timeline, and queues its upload. */
+    public void record(ScoreEvent event) {
+        writer.execute(() -> {
+            timeline.add(event);
+            if (journal != null) {
+                try {
+                    upload(journal.append(event), event);
+                } catch (IOException e) {
+                    // The event is still counted; it just won't be restored after a restart
+                }
+            }
+            notifyListeners();
+        });
+    }
+
+    /** Tells the uploads whether the backend is reachable. */
+    public void setConnected(boolean connected) {
+        sync.setConnected(connected);
+    }
+
+    /** Adds a listener, which is first called with the timeline as it is now. */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        writer.execute(() -> listener.onTimelineChanged(timeline));
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public WriteBehindSync getSync() {
+        return sync;
+    }
+
+    /** Closes the journal once everything queued before has been written. */
+    public void close() {
+        writer.execute(() -> {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    // Nothing left to do on shutdown
+                }
+                journal = null;
+            }
+        });
+    }
+
+    private void openJournal() {
+        final long alreadySynced = syncedRecords;
+        try {
+            journal = ScoreJournal.openOrRecover(journalFile, (recordNumber, event) -> {
+                timeline.add(event);
+                if (recordNumber >= alreadySynced) {
+                    upload(recordNumber, event);
+                }
+            }, clock.getAsLong());
+            if (journal.getRecoveredFrom() != null) {
+                // The new journal numbers its records from zero again
+                syncedRecords = 0;
+                syncedListener.accept(0);
+            }
+        } catch (IOException e) {
+            journal = null;
+        }
+        notifyListeners();
+    }
+
+    private void upload(long recordNumber, ScoreEvent event) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("type", event.getType());
+        value.put("value", event.getValue());
+        value.put("balls", event.getBalls());
+        value.put("timestamp_ms", event.getTimestampMs());
+        value.put("auto_detected", event.isAutoDetected());
+        // Keyed by record number, so re-sending a record after a restart overwrites rather than duplicates
+        sync.enqueue(syncPath + recordNumber, value, recordNumber);
+    }
+
+    private void onSynced(long recordNumber) {
+        // Only advance over records that all reached the backend; one dropped from a full queue
+        // is sent again when the journal is next opened
+        long synced = Math.min(recordNumber + 1, sync.getLowestUnsyncedToken());
+        if (synced > syncedRecords) {
+            syncedRecords = synced;
+            syncedListener.accept(synced);
+        }
+    }
+
+    private void notifyListeners() {
+        for (Listener listener : listeners) {
+            listener.onTimelineChanged(timeline);
+        }
+    }
+}
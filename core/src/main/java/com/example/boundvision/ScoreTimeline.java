@@ -0,0 +1,161 @@
+package com.example.boundvision;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * In-memory timeline of a match, stored as parallel primitive arrays.
+ * Running totals are kept per event, so the score at any point of the innings is a
+ * binary search rather than a rescan. Events must be added in ball order; an event
+ * with unknown overs is placed at the latest ball seen so far.
+ */
+public class ScoreTimeline {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private short[] values = new short[INITIAL_CAPACITY];
+    private int[] balls = new int[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private boolean[] autoDetected = new boolean[INITIAL_CAPACITY];
+
+    // Totals after each event
+    private int[] runs = new int[INITIAL_CAPACITY];
+    private int[] wickets = new int[INITIAL_CAPACITY];
+    private int[] extras = new int[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    public void add(ScoreEvent event) {
+        add(event.getType(), event.getValue(), event.getBalls(), event.getTimestampMs(), event.isAutoDetected());
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code ball} is earlier than the last event's ball
+     */
+    public void add(int type, int value, int ball, long timestampMs, boolean auto) {
+        int lastBall = size == 0 ? 0 : balls[size - 1];
+        if (ball < 0) {
+            ball = lastBall;
+        } else if (ball < lastBall) {
+            throw new IllegalArgumentException("Event at ball " + ball + " is before ball " + lastBall);
+        }
+        if (size == types.length) {
+            grow();
+        }
+
+        int previousRuns = size == 0 ? 0 : runs[size - 1];
+        int previousWickets = size == 0 ? 0 : wickets[size - 1];
+        int previousExtras = size == 0 ? 0 : extras[size - 1];
+
+        types[size] = (byte) type;
+        values[size] = (short) value;
+        balls[size] = ball;
+        timestamps[size] = timestampMs;
+        autoDetected[size] = auto;
+        runs[size] = previousRuns + (type == ScoreEvent.TYPE_WICKET ? 0 : value);
+        wickets[size] = previousWickets + (type == ScoreEvent.TYPE_WICKET ? 1 : 0);
+        extras[size] = previousExtras + (type == ScoreEvent.TYPE_EXTRA ? value : 0);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ScoreEvent get(int index) {
+        checkIndex(index);
+        return new ScoreEvent(types[index], values[index], balls[index], timestamps[index], autoDetected[index]);
+    }
+
+    /**
+     * Returns the index of the last event at or before {@code ball}, or -1 if there is none.
+     */
+    public int indexAtBall(int ball) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (balls[mid] <= ball) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    // Totals at a point in the innings, e.g. runsAt(Overs.toBalls("14.3"))
+    public int runsAt(int ball) {
+        int index = indexAtBall(ball);
+        return index < 0 ? 0 : runs[index];
+    }
+
+    public int wicketsAt(int ball) {
+        int index = indexAtBall(ball);
+        return index < 0 ? 0 : wickets[index];
+    }
+
+    public int extrasAt(int ball) {
+        int index = indexAtBall(ball);
+        return index < 0 ? 0 : extras[index];
+    }
+
+    /**
+     * Runs per over after {@code ball} balls have been bowled.
+     */
+    public double runRateAt(int ball) {
+        return ball <= 0 ? 0 : runsAt(ball) * (double) Overs.BALLS_PER_OVER / ball;
+    }
+
+    // Current totals
+    public int getRuns() {
+        return size == 0 ? 0 : runs[size - 1];
+    }
+
+    public int getWickets() {
+        return size == 0 ? 0 : wickets[size - 1];
+    }
+
+    public int getExtras() {
+        return size == 0 ? 0 : extras[size - 1];
+    }
+
+    public int getBalls() {
+        return size == 0 ? 0 : balls[size - 1];
+    }
+
+    public double getRunRate() {
+        return runRateAt(getBalls());
+    }
+
+    /**
+     * The current score, e.g. "23/1 (3.2 ov, RR 6.9)". Detected events don't know the ball, so
+     * until some event does the overs and run rate are left out ("23/1") rather than shown as zero.
+     */
+    public String formatTotals() {
+        int ball = getBalls();
+        if (ball <= 0) {
+            return getRuns() + "/" + getWickets();
+        }
+        return String.format(Locale.ROOT, "%d/%d (%s ov, RR %.1f)", getRuns(), getWickets(), Overs.format(ball),
+                runRateAt(ball));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("event " + index);
+        }
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        values = Arrays.copyOf(values, capacity);
+        balls = Arrays.copyOf(balls, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        autoDetected = Arrays.copyOf(autoDetected, capacity);
+        runs = Arrays.copyOf(runs, capacity);
+        wickets = Arrays.copyOf(wickets, capacity);
+        extras = Arrays.copyOf(extras, capacity);
+    }
+}
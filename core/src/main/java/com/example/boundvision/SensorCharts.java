@@ -0,0 +1,46 @@
+package com.example.boundvision;
+
+/**
+ * Chart data of one node: a {@link MinMaxDownsampler} per channel, fed from every telemetry
+ * frame on the ingestion thread and copied out by the chart view. The flag channels chart as
+ * 0 or 1.
+ */
+public class SensorCharts {
+    public static final int DISTANCE = 0;
+    public static final int SOUND = 1;
+    public static final int VIBRATION = 2;
+    public static final int FOIL_CONTACT = 3;
+    public static final int CHANNELS = 4;
+
+    // Roughly a phone's width in pixels; wider views stretch, narrower ones merge buckets
+    public static final int DEFAULT_BUCKETS = 480;
+    public static final long DEFAULT_SPAN_MS = 10 * 60 * 1000;
+
+    private final MinMaxDownsampler[] channels = new MinMaxDownsampler[CHANNELS];
+
+    public SensorCharts(int buckets, long spanMs) {
+        for (int i = 0; i < CHANNELS; i++) {
+            channels[i] = new MinMaxDownsampler(buckets, spanMs);
+        }
+    }
+
+    void add(TelemetryFrame frame, long timeMs) {
+        channels[DISTANCE].add(timeMs, (float) frame.getDistanceCm());
+        channels[SOUND].add(timeMs, frame.getSound());
+        channels[VIBRATION].add(timeMs, frame.isVibration() ? 1 : 0);
+        channels[FOIL_CONTACT].add(timeMs, frame.isFoilContact() ? 1 : 0);
+    }
+
+    public MinMaxDownsampler channel(int channel) {
+        return channels[channel];
+    }
+
+    /** Changes whenever any channel changes. */
+    public long getVersion() {
+        long version = 0;
+        for (MinMaxDownsampler channel : channels) {
+            version += channel.getVersion();
+        }
+        return version;
+    }
+}
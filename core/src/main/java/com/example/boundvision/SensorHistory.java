@@ -0,0 +1,209 @@
+package com.example.boundvision;
+
+/**
+ * Fixed-capacity ring buffer of raw samples from one sensor node, stored in primitive arrays.
+ * Appending is O(1) and never allocates; once full, the oldest sample is overwritten.
+ * Timestamps are expected to be non-decreasing. Not thread-safe: use from a single thread.
+ */
+public class SensorHistory {
+    // Packed boolean channels
+    public static final int FLAG_VIBRATION = 1;
+    public static final int FLAG_FOIL_CONTACT = 1 << 1;
+
+    private final long[] timestamps;
+    private final float[] distances;
+    private final int[] sounds;
+    private final byte[] flags;
+    private int head = 0; // Slot the next sample is written to
+    private int size = 0;
+
+    public SensorHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        timestamps = new long[capacity];
+        distances = new float[capacity];
+        sounds = new int[capacity];
+        flags = new byte[capacity];
+    }
+
+    /**
+     * Creates a history large enough for {@code durationMs} of samples at {@code sampleRateHz}.
+     */
+    public static SensorHistory forDuration(long durationMs, int sampleRateHz) {
+        return new SensorHistory((int) Math.max(1, durationMs * sampleRateHz / 1000));
+    }
+
+    public void append(long timestampMs, float distanceCm, int sound, boolean vibration, boolean foilContact) {
+        timestamps[head] = timestampMs;
+        distances[head] = distanceCm;
+        sounds[head] = sound;
+        flags[head] = (byte) ((vibration ? FLAG_VIBRATION : 0) | (foilContact ? FLAG_FOIL_CONTACT : 0));
+        head = head + 1 == timestamps.length ? 0 : head + 1;
+        if (size < timestamps.length) size++;
+    }
+
+    public void append(TelemetryFrame frame, long timestampMs) {
+        append(timestampMs, (float) frame.getDistanceCm(), (int) frame.getSound(),
+                frame.isVibration(), frame.isFoilContact());
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    // Positional access, where index 0 is the oldest sample still held
+    public long timestampAt(int index) {
+        return timestamps[slot(index)];
+    }
+
+    public float distanceAt(int index) {
+        return distances[slot(index)];
+    }
+
+    public int soundAt(int index) {
+        return sounds[slot(index)];
+    }
+
+    public int flagsAt(int index) {
+        return flags[slot(index)];
+    }
+
+    public long newestTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestampAt(size - 1);
+    }
+
+    /**
+     * Returns the index of the first sample at or after {@code timestampMs}, or {@link #size()}
+     * if there is none.
+     */
+    public int indexAtOrAfter(long timestampMs) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[slot(mid)] < timestampMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Fills {@code out} with statistics over samples in [{@code fromMs}, {@code toMs}).
+     *
+     * @return false if the window holds no samples
+     */
+    public boolean stats(long fromMs, long toMs, WindowStats out) {
+        out.reset();
+        for (int i = indexAtOrAfter(fromMs); i < size; i++) {
+            int s = slot(i);
+            if (timestamps[s] >= toMs) break;
+            out.add(distances[s], sounds[s], flags[s]);
+        }
+        return out.getCount() > 0;
+    }
+
+    /**
+     * Combines the evidence of every sample in [{@code fromMs}, {@code toMs}).
+     */
+    public int evidenceOf(long fromMs, long toMs, DetectionThresholds thresholds) {
+        int mask = 0;
+        for (int i = indexAtOrAfter(fromMs); i < size; i++) {
+            int s = slot(i);
+            if (timestamps[s] >= toMs) break;
+            mask |= thresholds.evidenceOf(distances[s], sounds[s],
+                    (flags[s] & FLAG_VIBRATION) != 0, (flags[s] & FLAG_FOIL_CONTACT) != 0);
+        }
+        return mask;
+    }
+
+    private int slot(int index) {
+        int slot = head - size + index;
+        return slot < 0 ? slot + timestamps.length : slot;
+    }
+
+    /**
+     * Reusable result of a windowed query.
+     */
+    public static class WindowStats {
+        private int count;
+        private float minDistance, maxDistance;
+        private double distanceSum;
+        private int minSound, maxSound;
+        private long soundSum;
+        private int vibrationCount, foilContactCount;
+
+        void reset() {
+            count = 0;
+            minDistance = Float.POSITIVE_INFINITY;
+            maxDistance = Float.NEGATIVE_INFINITY;
+            distanceSum = 0;
+            minSound = Integer.MAX_VALUE;
+            maxSound = Integer.MIN_VALUE;
+            soundSum = 0;
+            vibrationCount = 0;
+            foilContactCount = 0;
+        }
+
+        void add(float distance, int sound, int flags) {
+            count++;
+            if (distance < minDistance) minDistance = distance;
+            if (distance > maxDistance) maxDistance = distance;
+            distanceSum += distance;
+            if (sound < minSound) minSound = sound;
+            if (sound > maxSound) maxSound = sound;
+            soundSum += sound;
+            if ((flags & FLAG_VIBRATION) != 0) vibrationCount++;
+            if ((flags & FLAG_FOIL_CONTACT) != 0) foilContactCount++;
+        }
+
+        // Getters
+        public int getCount() {
+            return count;
+        }
+
+        public float getMinDistance() {
+            return minDistance;
+        }
+
+        public float getMaxDistance() {
+            return maxDistance;
+        }
+
+        public double getMeanDistance() {
+            return count == 0 ? Double.NaN : distanceSum / count;
+        }
+
+        public int getMinSound() {
+            return minSound;
+        }
+
+        public int getMaxSound() {
+            return maxSound;
+        }
+
+        public double getMeanSound() {
+            return count == 0 ? Double.NaN : (double) soundSum / count;
+        }
+
+        public int getVibrationCount() {
+            return vibrationCount;
+        }
+
+        public int getFoilContactCount() {
+            return foilContactCount;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.boundvision;
+
+/**
+ * A single timestamped reading from a boundary sensor node
+ */
+public class SensorSample {
+    private final long timestampMs;   // Time the sample was taken
+    private final double distanceCm;  // Ultrasonic distance
+    private final long sound;         // Smoothed sound level
+    private final boolean vibration;  // Vibration threshold crossed
+    private final boolean foilContact; // Foil contact closed
+
+    public SensorSample(long timestampMs, double distanceCm, long sound, boolean vibration, boolean foilContact) {
+        this.timestampMs = timestampMs;
+        this.distanceCm = distanceCm;
+        this.sound = sound;
+        this.vibration = vibration;
+        this.foilContact = foilContact;
+    }
+
+    public static SensorSample fromFrame(TelemetryFrame frame, long timestampMs) {
+        return new SensorSample(timestampMs, frame.getDistanceCm(), frame.getSound(),
+                frame.isVibration(), frame.isFoilContact());
+    }
+
+    // Getters
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public double getDistanceCm() {
+        return distanceCm;
+    }
+
+    public long getSound() {
+        return sound;
+    }
+
+    public boolean isVibration() {
+        return vibration;
+    }
+
+    public boolean isFoilContact() {
+        return foilContact;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.boundvision;
+
+/**
+ * Decodes raw snapshot values (as returned by {@code DataSnapshot.getValue()}) into primitives.
+ * Values that cannot be decoded return the caller's fallback instead of throwing, and the
+ * decode path does not allocate, so it is safe to call for every sample on the main thread.
+ */
+public final class SensorValueDecoder {
+    // Longest decimal mantissa that fits in a long without overflow checks
+    private static final int MAX_DIGITS = 18;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private SensorValueDecoder() {
+    }
+
+    public static double decodeDouble(Object value, double fallback) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof CharSequence) {
+            return parseDouble((CharSequence) value, fallback);
+        }
+        return fallback;
+    }
+
+    public static long decodeLong(Object value, long fallback) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof CharSequence) {
+            double parsed = parseDouble((CharSequence) value, Double.NaN);
+            return Double.isNaN(parsed) ? fallback : (long) parsed;
+        }
+        return fallback;
+    }
+
+    public static boolean decodeBoolean(Object value, boolean fallback) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue() != 0;
+        }
+        return fallback;
+    }
+
+    /**
+     * Parses a plain decimal such as "-12.5". Exponents, hex and anything else that is
+     * not sign, digits and a single point are rejected with {@code fallback}.
+     */
+    public static double parseDouble(CharSequence text, double fallback) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) == ' ') start++;
+        while (end > start && text.charAt(end - 1) == ' ') end--;
+        if (start == end) {
+            return fallback;
+        }
+
+        boolean negative = false;
+        char first = text.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (seenPoint) return fallback;
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9') {
+                if (digits == MAX_DIGITS) return fallback;
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) fractionDigits++;
+            } else {
+                return fallback;
+            }
+        }
+        if (digits == 0) {
+            return fallback;
+        }
+
+        double result = mantissa / POW10[fractionDigits];
+        return negative ? -result : result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One upstream subscription shared by any number of observers. The upstream is started when
+ * the first observer arrives and stopped once none has been left for the linger time, so a
+ * screen being recreated (a rotation, coming back from another screen) keeps the subscription
+ * instead of tearing it down and opening it again. A new observer is first brought up to date
+ * from what the subscription has cached, then gets updates as they come.
+ * Observers are called with the subscription's lock held, from the upstream's thread; they
+ * should hand the work on rather than do it there.
+ */
+public abstract class SharedSubscription<O> {
+    private final ScheduledExecutorService scheduler;
+    private final long lingerMs;
+    private final List<O> observers = new ArrayList<>();
+    private ScheduledFuture<?> pendingStop;
+    private boolean started = false;
+
+    protected SharedSubscription(ScheduledExecutorService scheduler, long lingerMs) {
+        this.scheduler = scheduler;
+        this.lingerMs = lingerMs;
+    }
+
+    public synchronized void observe(O observer) {
+        if (observers.contains(observer)) {
+            return;
+        }
+        observers.add(observer);
+        if (pendingStop != null) {
+            pendingStop.cancel(false);
+            pendingStop = null;
+        }
+        replay(observer);
+        if (!started) {
+            started = true;
+            start();
+        }
+    }
+
+    public synchronized void removeObserver(O observer) {
+        if (!observers.remove(observer) || !observers.isEmpty() || !started) {
+            return;
+        }
+        pendingStop = scheduler.schedule(this::stopIfUnobserved, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopIfUnobserved() {
+        pendingStop = null;
+        if (started && observers.isEmpty()) {
+            started = false;
+            stop();
+        }
+    }
+
+    public synchronized boolean isStarted() {
+        return started;
+    }
+
+    public synchronized int observerCount() {
+        return observers.size();
+    }
+
+    /** The observers, for delivering an update; call with the lock held. */
+    protected List<O> observers() {
+        return observers;
+    }
+
+    protected abstract void start();
+
+    protected abstract void stop();
+
+    /** Brings a new observer up to date from the cached state. */
+    protected abstract void replay(O observer);
+}
@@ -0,0 +1,94 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The node updates of one {@link TelemetrySource}, shared by every screen that shows them.
+ * The last value of each node is kept, so a new observer starts from the whole ground at
+ * once rather than waiting for every node's next update. Switching the source drops them, and
+ * observers are told each one is gone unless the new source reports it straight away.
+ */
+public class SharedTelemetry extends SharedSubscription<TelemetrySource.Sink> implements TelemetrySource.Sink {
+    private final Map<String, Object> nodes = new HashMap<>();
+    private TelemetrySource source;
+    private IOException startFailure;
+
+    public SharedTelemetry(TelemetrySource source, ScheduledExecutorService scheduler, long lingerMs) {
+        super(scheduler, lingerMs);
+        this.source = source;
+    }
+
+    /**
+     * Replaces the source, starting the new one right away if the current one is running.
+     *
+     * @throws IOException if the new source could not start; the current one is kept
+     */
+    public synchronized void setSource(TelemetrySource next) throws IOException {
+        Map<String, Object> previous = new HashMap<>(nodes);
+        nodes.clear();
+        if (isStarted()) {
+            try {
+                next.start(this);
+            } catch (IOException e) {
+                nodes.putAll(previous);
+                throw e;
+            }
+            source.stop();
+        }
+        source = next;
+        startFailure = null;
+        for (String nodeId : previous.keySet()) {
+            if (!nodes.containsKey(nodeId)) {
+                for (TelemetrySource.Sink observer : observers()) {
+                    observer.remove(nodeId);
+                }
+            }
+        }
+    }
+
+    /** Why the source failed to start when the first observer arrived, or null. */
+    public synchronized IOException getStartFailure() {
+        return startFailure;
+    }
+
+    @Override
+    public synchronized void submit(String nodeId, Object value) {
+        nodes.put(nodeId, value);
+        for (TelemetrySource.Sink observer : observers()) {
+            observer.submit(nodeId, value);
+        }
+    }
+
+    @Override
+    public synchronized void remove(String nodeId) {
+        nodes.remove(nodeId);
+        for (TelemetrySource.Sink observer : observers()) {
+            observer.remove(nodeId);
+        }
+    }
+
+    @Override
+    protected void start() {
+        try {
+            source.start(this);
+            startFailure = null;
+        } catch (IOException e) {
+            startFailure = e;
+        }
+    }
+
+    @Override
+    protected void stop() {
+        source.stop();
+    }
+
+    @Override
+    protected void replay(TelemetrySource.Sink observer) {
+        for (Map.Entry<String, Object> node : nodes.entrySet()) {
+            observer.submit(node.getKey(), node.getValue());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.boundvision;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * A single value, e.g. a config node, watched once and handed to every observer. A new
+ * observer gets the last value straight away, so a screen coming back shows it without
+ * waiting for the network.
+ */
+public class SharedValue<T> extends SharedSubscription<Consumer<T>> {
+
+    /**
+     * Where the value comes from. Calls the sink on every change, from any thread.
+     */
+    public interface Upstream<T> {
+        void start(Consumer<T> sink);
+
+        void stop();
+    }
+
+    private final Upstream<T> upstream;
+    private boolean hasValue = false;
+    private T value;
+
+    public SharedValue(Upstream<T> upstream, ScheduledExecutorService scheduler, long lingerMs) {
+        super(scheduler, lingerMs);
+        this.upstream = upstream;
+    }
+
+    private synchronized void publish(T next) {
+        value = next;
+        hasValue = true;
+        for (Consumer<T> observer : observers()) {
+            observer.accept(next);
+        }
+    }
+
+    @Override
+    protected void start() {
+        upstream.start(this::publish);
+    }
+
+    @Override
+    protected void stop() {
+        upstream.stop();
+    }
+
+    @Override
+    protected void replay(Consumer<T> observer) {
+        if (hasValue) {
+            observer.accept(value);
+        }
+    }
+
+    public synchronized T getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates {@code sensors/{nodeId}} values for a ring of simulated nodes, shaped like the maps
+ * Firebase delivers. Ambient readings are random but reproducible from the seed, and
+ * detections can be scheduled on specific nodes.
+ */
+public class SimulatedNodeFeed {
+
+    public interface Sink {
+        void onNodeValue(String nodeId, Map<String, Object> value, long timeMs);
+    }
+
+    private final int nodeCount;
+    private final long intervalMs;
+    private final Random random;
+    private final long[] detectionSeq;
+    private final List<long[]> scheduled = new ArrayList<>(); // {ringIndex, atMs, evidenceMask}
+
+    public SimulatedNodeFeed(int nodeCount, int rateHz, long seed) {
+        this.nodeCount = nodeCount;
+        this.intervalMs = Math.max(1, 1000 / rateHz);
+        this.random = new Random(seed);
+        this.detectionSeq = new long[nodeCount];
+    }
+
+    public static String nodeId(int ringIndex) {
+        return String.format(Locale.ROOT, "node-%02d", ringIndex);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Makes node {@code ringIndex} report a detection with the given evidence at {@code atMs}.
+     */
+    public void scheduleDetection(int ringIndex, long atMs, int evidenceMask) {
+        scheduled.add(new long[]{ringIndex, atMs, evidenceMask});
+    }
+
+    /**
+     * Emits one value per node per tick for {@code durationMs}, in time order.
+     */
+    public void run(long startMs, long durationMs, Sink sink) {
+        long seq = 0;
+        for (long now = startMs; now < startMs + durationMs; now += intervalMs) {
+            for (int node = 0; node < nodeCount; node++) {
+                int evidence = dueEvidence(node, now);
+                sink.onNodeValue(nodeId(node), nodeValue(node, seq, now, evidence), now);
+            }
+            seq++;
+        }
+    }
+
+    private int dueEvidence(int node, long now) {
+        int evidence = 0;
+        for (int i = scheduled.size() - 1; i >= 0; i--) {
+            long[] detection = scheduled.get(i);
+            if (detection[0] == node && detection[1] <= now) {
+                evidence |= (int) detection[2];
+                scheduled.remove(i);
+            }
+        }
+        if (evidence != 0) {
+            detectionSeq[node]++;
+        }
+        return evidence;
+    }
+
+    private Map<String, Object> nodeValue(int node, long seq, long now, int evidence) {
+        Map<String, Object> telemetry = new HashMap<>();
+        telemetry.put(TelemetryFrameDecoder.KEY_SEQUENCE, seq);
+        telemetry.put(TelemetryFrameDecoder.KEY_DEVICE_TIME, now);
+        telemetry.put(TelemetryFrameDecoder.KEY_DISTANCE, 80 + random.nextDouble() * 120);
+        telemetry.put(TelemetryFrameDecoder.KEY_SOUND, (long) (50 + random.nextInt(350)));
+        telemetry.put(TelemetryFrameDecoder.KEY_VIBRATION, (evidence & DetectionThresholds.EVIDENCE_VIBRATION) != 0);
+        telemetry.put(TelemetryFrameDecoder.KEY_FOIL_CONTACT, (evidence & DetectionThresholds.EVIDENCE_FOIL) != 0);
+        telemetry.put(TelemetryFrameDecoder.KEY_MONITORING_ACTIVE, false);
+
+        Map<String, Object> detection = new HashMap<>();
+        detection.put(TelemetryFrameDecoder.KEY_SEQUENCE, detectionSeq[node]);
+        detection.put(TelemetryFrameDecoder.KEY_FOIL_CONTACT, (evidence & DetectionThresholds.EVIDENCE_FOIL) != 0);
+        detection.put(TelemetryFrameDecoder.KEY_VIBRATION, (evidence & DetectionThresholds.EVIDENCE_VIBRATION) != 0);
+        detection.put(TelemetryFrameDecoder.KEY_SOUND, (evidence & DetectionThresholds.EVIDENCE_SOUND) != 0);
+
+        Map<String, Object> value = new HashMap<>();
+        value.put(NodeRegistry.KEY_RING_INDEX, (long) node);
+        value.put(NodeRegistry.KEY_TELEMETRY, telemetry);
+        value.put(NodeRegistry.KEY_DETECTION, detection);
+        return value;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Timings of the phases of app startup, to see what stands between a launch and the first
+ * frame. A phase is a named span that may run on any thread and overlap others; its offsets
+ * are measured from the trace's origin (process start, where the platform knows it). Ending
+ * a phase that never began records an instant, e.g. the first frame drawn.
+ * Safe to use from any thread.
+ */
+public class StartupTracer {
+    public static final long UNKNOWN = -1;
+
+    // Phases of the app's startup
+    public static final String PHASE_APPLICATION = "application";
+    public static final String PHASE_DATABASE = "database";
+    public static final String PHASE_VIEWS = "views";
+    public static final String PHASE_PIPELINE = "pipeline";
+    public static final String PHASE_LAST_KNOWN_STATE = "last_known";
+    public static final String PHASE_FIRST_FRAME = "first_frame";
+    public static final String PHASE_VIDEO = "video";
+    public static final String PHASE_JOURNAL = "journal";
+    public static final String PHASE_FIRST_DATA = "first_data";
+
+    private final long originMs;
+    private final LongSupplier clockMs;
+    // Begin and end time per phase, in the order phases began
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+
+    public StartupTracer(long originMs, LongSupplier clockMs) {
+        this.originMs = originMs;
+        this.clockMs = clockMs;
+    }
+
+    /** Starts a phase; a phase that already began keeps its first start. */
+    public synchronized void begin(String phase) {
+        if (!phases.containsKey(phase)) {
+            phases.put(phase, new long[] {clockMs.getAsLong(), UNKNOWN});
+        }
+    }
+
+    /** Ends a phase once; later calls are ignored. */
+    public synchronized void end(String phase) {
+        long now = clockMs.getAsLong();
+        long[] span = phases.get(phase);
+        if (span == null) {
+            phases.put(phase, new long[] {now, now});
+        } else if (span[1] == UNKNOWN) {
+            span[1] = now;
+        }
+    }
+
+    /** Time from the origin to the start of the phase, or {@link #UNKNOWN}. */
+    public synchronized long offsetOf(String phase) {
+        long[] span = phases.get(phase);
+        return span == null ? UNKNOWN : span[0] - originMs;
+    }
+
+    /** Time from the origin to the end of the phase, or {@link #UNKNOWN} until it ends. */
+    public synchronized long endOffsetOf(String phase) {
+        long[] span = phases.get(phase);
+        return span == null || span[1] == UNKNOWN ? UNKNOWN : span[1] - originMs;
+    }
+
+    /** Length of the phase, or {@link #UNKNOWN} until it ends. */
+    public synchronized long durationOf(String phase) {
+        long[] span = phases.get(phase);
+        return span == null || span[1] == UNKNOWN ? UNKNOWN : span[1] - span[0];
+    }
+
+    public synchronized boolean isEnded(String phase) {
+        long[] span = phases.get(phase);
+        return span != null && span[1] != UNKNOWN;
+    }
+
+    /** Phase names in the order they began. */
+    public synchronized List<String> phases() {
+        return new ArrayList<>(phases.keySet());
+    }
+
+    /** One line per phase: start and end offsets and length, in ms. */
+    public synchronized void writeSummary(StringBuilder out) {
+        out.append(String.format(Locale.US, "%-12s %6s %6s %6s%n", "startup", "at", "end", "ms"));
+        for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+            long[] span = entry.getValue();
+            boolean ended = span[1] != UNKNOWN;
+            out.append(String.format(Locale.US, "%-12s %6d %6s %6s%n", entry.getKey(), span[0] - originMs,
+                    ended ? String.valueOf(span[1] - originMs) : "-",
+                    ended ? String.valueOf(span[1] - span[0]) : "-"));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.boundvision;
+
+import java.util.Map;
+
+/**
+ * Remote store that {@link WriteBehindSync} flushes batches to. A batch is a multi-path update:
+ * keys are slash-separated paths from the root and values replace whatever is stored there.
+ */
+public interface SyncBackend {
+
+    interface Completion {
+        /**
+         * May be called on any thread.
+         */
+        void onComplete(boolean success);
+    }
+
+    void write(Map<String, Object> updates, Completion completion);
+}
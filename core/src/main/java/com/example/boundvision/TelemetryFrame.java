@@ -0,0 +1,185 @@
+package com.example.boundvision;
+
+/**
+ * One telemetry sample from a boundary sensor node, written by the device as a single update
+ */
+public class TelemetryFrame {
+    // Field bits, used both for "which fields have been received" and for frame diffs
+    public static final int FIELD_DISTANCE = 1;
+    public static final int FIELD_SOUND = 1 << 1;
+    public static final int FIELD_VIBRATION = 1 << 2;
+    public static final int FIELD_FOIL_CONTACT = 1 << 3;
+    public static final int FIELD_MONITORING_ACTIVE = 1 << 4;
+    public static final int FIELD_MONITORING_REMAINING = 1 << 5;
+    public static final int FIELD_MONITORING_STARTED = 1 << 6;
+    public static final int FIELD_MONITORING_PERIOD = 1 << 7;
+    public static final int FIELD_MONITORING_WINDOWS = 1 << 8;
+
+    private long sequence;             // Sample counter assigned by the device
+    private long deviceTimeMs;         // Device millis() when the sample was taken
+    private double distanceCm;         // Ultrasonic distance
+    private long sound;                // Smoothed sound level
+    private boolean vibration;         // Vibration threshold crossed
+    private boolean foilContact;       // Foil contact closed
+    private boolean monitoringActive;  // Device is inside a monitoring window
+    private long monitoringRemainingMs; // Time left in the monitoring window
+    private long monitoringStartedMs;  // Device millis() when the monitoring window opened
+    private long monitoringPeriodMs;   // Length of the monitoring window
+    private int monitoringWindows;     // Windows open at once; the started time is the oldest one's
+    private int presentFields;         // Fields received at least once
+
+    public void copyFrom(TelemetryFrame other) {
+        sequence = other.sequence;
+        deviceTimeMs = other.deviceTimeMs;
+        distanceCm = other.distanceCm;
+        sound = other.sound;
+        vibration = other.vibration;
+        foilContact = other.foilContact;
+        monitoringActive = other.monitoringActive;
+        monitoringRemainingMs = other.monitoringRemainingMs;
+        monitoringStartedMs = other.monitoringStartedMs;
+        monitoringPeriodMs = other.monitoringPeriodMs;
+        monitoringWindows = other.monitoringWindows;
+        presentFields = other.presentFields;
+    }
+
+    /**
+     * Returns the bits of the fields whose value in this frame differs from {@code previous},
+     * including fields that are present here but were never present in {@code previous}.
+     */
+    public int diff(TelemetryFrame previous) {
+        int changed = presentFields & ~previous.presentFields;
+        if (distanceCm != previous.distanceCm) changed |= FIELD_DISTANCE;
+        if (sound != previous.sound) changed |= FIELD_SOUND;
+        if (vibration != previous.vibration) changed |= FIELD_VIBRATION;
+        if (foilContact != previous.foilContact) changed |= FIELD_FOIL_CONTACT;
+        if (monitoringActive != previous.monitoringActive) changed |= FIELD_MONITORING_ACTIVE;
+        if (monitoringRemainingMs != previous.monitoringRemainingMs) changed |= FIELD_MONITORING_REMAINING;
+        if (monitoringStartedMs != previous.monitoringStartedMs) changed |= FIELD_MONITORING_STARTED;
+        if (monitoringPeriodMs != previous.monitoringPeriodMs) changed |= FIELD_MONITORING_PERIOD;
+        if (monitoringWindows != previous.monitoringWindows) changed |= FIELD_MONITORING_WINDOWS;
+        return changed & presentFields;
+    }
+
+    public boolean has(int field) {
+        return (presentFields & field) != 0;
+    }
+
+    public void clear() {
+        sequence = 0;
+        deviceTimeMs = 0;
+        distanceCm = 0;
+        sound = 0;
+        vibration = false;
+        foilContact = false;
+        monitoringActive = false;
+        monitoringRemainingMs = 0;
+        monitoringStartedMs = 0;
+        monitoringPeriodMs = 0;
+        monitoringWindows = 0;
+        presentFields = 0;
+    }
+
+    // Getters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getDeviceTimeMs() {
+        return deviceTimeMs;
+    }
+
+    public double getDistanceCm() {
+        return distanceCm;
+    }
+
+    public long getSound() {
+        return sound;
+    }
+
+    public boolean isVibration() {
+        return vibration;
+    }
+
+    public boolean isFoilContact() {
+        return foilContact;
+    }
+
+    public boolean isMonitoringActive() {
+        return monitoringActive;
+    }
+
+    public long getMonitoringRemainingMs() {
+        return monitoringRemainingMs;
+    }
+
+    public long getMonitoringStartedMs() {
+        return monitoringStartedMs;
+    }
+
+    public long getMonitoringPeriodMs() {
+        return monitoringPeriodMs;
+    }
+
+    public int getMonitoringWindows() {
+        return monitoringWindows;
+    }
+
+    public int getPresentFields() {
+        return presentFields;
+    }
+
+    // Setters
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public void setDeviceTimeMs(long deviceTimeMs) {
+        this.deviceTimeMs = deviceTimeMs;
+    }
+
+    public void setDistanceCm(double distanceCm) {
+        this.distanceCm = distanceCm;
+        presentFields |= FIELD_DISTANCE;
+    }
+
+    public void setSound(long sound) {
+        this.sound = sound;
+        presentFields |= FIELD_SOUND;
+    }
+
+    public void setVibration(boolean vibration) {
+        this.vibration = vibration;
+        presentFields |= FIELD_VIBRATION;
+    }
+
+    public void setFoilContact(boolean foilContact) {
+        this.foilContact = foilContact;
+        presentFields |= FIELD_FOIL_CONTACT;
+    }
+
+    public void setMonitoringActive(boolean monitoringActive) {
+        this.monitoringActive = monitoringActive;
+        presentFields |= FIELD_MONITORING_ACTIVE;
+    }
+
+    public void setMonitoringRemainingMs(long monitoringRemainingMs) {
+        this.monitoringRemainingMs = monitoringRemainingMs;
+        presentFields |= FIELD_MONITORING_REMAINING;
+    }
+
+    public void setMonitoringStartedMs(long monitoringStartedMs) {
+        this.monitoringStartedMs = monitoringStartedMs;
+        presentFields |= FIELD_MONITORING_STARTED;
+    }
+
+    public void setMonitoringPeriodMs(long monitoringPeriodMs) {
+        this.monitoringPeriodMs = monitoringPeriodMs;
+        presentFields |= FIELD_MONITORING_PERIOD;
+    }
+
+    public void setMonitoringWindows(int monitoringWindows) {
+        this.monitoringWindows = monitoringWindows;
+        presentFields |= FIELD_MONITORING_WINDOWS;
+    }
+}
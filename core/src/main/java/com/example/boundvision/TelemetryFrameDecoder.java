@@ -0,0 +1,80 @@
+package com.example.boundvision;
+
+import java.util.Map;
+
+/**
+ * Decodes the value of a {@code /telemetry} node into a {@link TelemetryFrame}.
+ * The device writes every sample as one update, so one snapshot is one frame.
+ */
+public final class TelemetryFrameDecoder {
+    // Child keys written by the firmware
+    public static final String KEY_SEQUENCE = "seq";
+    public static final String KEY_DEVICE_TIME = "device_ms";
+    public static final String KEY_DISTANCE = "distance";
+    public static final String KEY_SOUND = "sound";
+    public static final String KEY_VIBRATION = "vibration";
+    public static final String KEY_FOIL_CONTACT = "foil_contact";
+    public static final String KEY_MONITORING_ACTIVE = "monitoring_active";
+    public static final String KEY_MONITORING_REMAINING = "monitoring_remaining_ms";
+    public static final String KEY_MONITORING_STARTED = "monitoring_started_ms";
+    public static final String KEY_MONITORING_PERIOD = "monitoring_period_ms";
+    public static final String KEY_MONITORING_WINDOWS = "monitoring_windows";
+    // Detection results also carry the device time their window opened
+    public static final String KEY_TRIGGER_TIME = "trigger_ms";
+    // ...and whether they are provisional, confirmed or retracted (see DecisionState)
+    public static final String KEY_DECISION_STATE = "state";
+
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private TelemetryFrameDecoder() {
+    }
+
+    /**
+     * Decodes {@code value} (the result of {@code DataSnapshot.getValue()}) into {@code frame}.
+     * Fields missing from the snapshot keep their previous value in {@code frame}.
+     *
+     * @return false if the value is not a telemetry node
+     */
+    public static boolean decode(Object value, TelemetryFrame frame) {
+        if (!(value instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> node = (Map<?, ?>) value;
+
+        // Values are decoded straight into primitives; absent or malformed fields are skipped
+        Object obj = node.get(KEY_SEQUENCE);
+        if (obj != null) frame.setSequence(SensorValueDecoder.decodeLong(obj, frame.getSequence()));
+
+        obj = node.get(KEY_DEVICE_TIME);
+        if (obj != null) frame.setDeviceTimeMs(SensorValueDecoder.decodeLong(obj, frame.getDeviceTimeMs()));
+
+        double distance = SensorValueDecoder.decodeDouble(node.get(KEY_DISTANCE), Double.NaN);
+        if (!Double.isNaN(distance)) frame.setDistanceCm(distance);
+
+        long sound = SensorValueDecoder.decodeLong(node.get(KEY_SOUND), MISSING);
+        if (sound != MISSING) frame.setSound(sound);
+
+        obj = node.get(KEY_VIBRATION);
+        if (obj != null) frame.setVibration(SensorValueDecoder.decodeBoolean(obj, frame.isVibration()));
+
+        obj = node.get(KEY_FOIL_CONTACT);
+        if (obj != null) frame.setFoilContact(SensorValueDecoder.decodeBoolean(obj, frame.isFoilContact()));
+
+        obj = node.get(KEY_MONITORING_ACTIVE);
+        if (obj != null) frame.setMonitoringActive(SensorValueDecoder.decodeBoolean(obj, frame.isMonitoringActive()));
+
+        long remaining = SensorValueDecoder.decodeLong(node.get(KEY_MONITORING_REMAINING), MISSING);
+        if (remaining != MISSING) frame.setMonitoringRemainingMs(remaining);
+
+        long started = SensorValueDecoder.decodeLong(node.get(KEY_MONITORING_STARTED), MISSING);
+        if (started != MISSING) frame.setMonitoringStartedMs(started);
+
+        long period = SensorValueDecoder.decodeLong(node.get(KEY_MONITORING_PERIOD), MISSING);
+        if (period != MISSING) frame.setMonitoringPeriodMs(period);
+
+        long windows = SensorValueDecoder.decodeLong(node.get(KEY_MONITORING_WINDOWS), MISSING);
+        if (windows != MISSING) frame.setMonitoringWindows((int) windows);
+
+        return true;
+    }
+}
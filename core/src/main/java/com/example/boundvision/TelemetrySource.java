@@ -0,0 +1,24 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+
+/**
+ * Where node updates come from: the cloud database or the local network. Every source
+ * delivers the value of {@code sensors/{nodeId}} in the same map shape, so the rest of the
+ * pipeline doesn't care which one is active.
+ */
+public interface TelemetrySource {
+
+    /**
+     * Receives node updates. May be called on any thread.
+     */
+    interface Sink {
+        void submit(String nodeId, Object value);
+
+        void remove(String nodeId);
+    }
+
+    void start(Sink sink) throws IOException;
+
+    void stop();
+}
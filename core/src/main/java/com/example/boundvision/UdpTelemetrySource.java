@@ -0,0 +1,74 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Receives {@link LanPacketCodec} frames broadcast by the nodes on the local network,
+ * skipping the round trip through the cloud database. Packets are decoded on a dedicated
+ * receive thread and handed to the sink from there.
+ */
+public class UdpTelemetrySource implements TelemetrySource {
+    private final int port;
+    private DatagramSocket socket;
+    private Thread receiver;
+
+    public UdpTelemetrySource(int port) {
+        this.port = port;
+    }
+
+    @Override
+    public synchronized void start(Sink sink) throws IOException {
+        if (socket != null) {
+            return;
+        }
+        DatagramSocket bound = new DatagramSocket(null);
+        bound.setReuseAddress(true);
+        bound.setBroadcast(true);
+        bound.bind(new InetSocketAddress(port));
+        socket = bound;
+        receiver = new Thread(() -> receive(bound, sink), "lan-telemetry");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    private static void receive(DatagramSocket socket, Sink sink) {
+        byte[] buffer = new byte[LanPacketCodec.MAX_PACKET_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+            } catch (IOException e) {
+                // Closed by stop(), or the network went away
+                return;
+            }
+            Map<String, Object> value = new HashMap<>();
+            String nodeId = LanPacketCodec.decode(ByteBuffer.wrap(buffer, 0, packet.getLength()), value);
+            if (nodeId != null) {
+                sink.submit(nodeId, value);
+            }
+        }
+    }
+
+    /**
+     * The bound port, e.g. when constructed with port 0.
+     */
+    public synchronized int getLocalPort() {
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (socket != null) {
+            socket.close();
+            socket = null;
+            receiver = null;
+        }
+    }
+}
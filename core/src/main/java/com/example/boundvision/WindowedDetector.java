@@ -0,0 +1,203 @@
+package com.example.boundvision;
+
+/**
+ * The firmware's detection logic, sample by sample: a reading newly inside its threshold opens
+ * a monitoring window, foil/vibration/sound evidence is collected until the window has run for
+ * the monitoring period, and the collected evidence is then looked up in the rule table.
+ * A trigger that comes at least the retrigger gap after the newest window opens a window of its
+ * own next to it instead of being merged into it, so back-to-back events each get a decision.
+ * Evidence goes to the newest open window. A window that only repeats an earlier detection
+ * (same decision, no new evidence, opened before that one's period was over) is the tail of the
+ * same ball and is reported as {@link BoundaryDecision#NONE}.
+ * While a window is open its verdict is reported early: provisional once its confidence
+ * (how much of the evidence it could still collect keeps the decision, growing towards 1 as
+ * the period runs out) reaches a threshold, confirmed as soon as no further evidence could
+ * change it, and otherwise confirmed or retracted when the window closes.
+ * Used to replay recorded sessions against other thresholds or rules, fixed or adaptive.
+ */
+public class WindowedDetector {
+    public static final long DEFAULT_MONITORING_PERIOD_MS = 5000;
+    public static final long DEFAULT_RETRIGGER_GAP_MS = 1000;
+    // Matches the sketch; a trigger beyond this closes the oldest window early
+    public static final int MAX_OPEN_WINDOWS = 4;
+
+    public static final double DEFAULT_PROVISIONAL_CONFIDENCE = 0.6;
+
+    public interface Listener {
+        void onWindowClosed(long startMs, long endMs, int evidenceMask, BoundaryDecision decision);
+    }
+
+    public interface VerdictListener {
+        void onVerdict(long windowStartMs, long timeMs, int evidenceMask, BoundaryDecision decision,
+                       DecisionState state);
+    }
+
+    private final AdaptiveThresholds thresholds;
+    private final DecisionTable table;
+    private final long monitoringPeriodMs;
+    private final long retriggerGapMs;
+    private final Listener listener;
+    private VerdictListener verdictListener;
+    private double provisionalConfidence = DEFAULT_PROVISIONAL_CONFIDENCE;
+
+    // Open windows as a ring, oldest first
+    private final long[] windowStartMs = new long[MAX_OPEN_WINDOWS];
+    private final int[] windowEvidence = new int[MAX_OPEN_WINDOWS];
+    private final BoundaryDecision[] windowVerdict = new BoundaryDecision[MAX_OPEN_WINDOWS];
+    private final boolean[] windowConfirmed = new boolean[MAX_OPEN_WINDOWS];
+    private int oldest = 0;
+    private int open = 0;
+    private int previousEvidence = 0;
+
+    // Latest window per decision, for de-duplication
+    private final boolean[] decided = new boolean[BoundaryDecision.values().length];
+    private final long[] decidedStartMs = new long[BoundaryDecision.values().length];
+    private final int[] decidedEvidence = new int[BoundaryDecision.values().length];
+
+    public WindowedDetector(DetectionThresholds thresholds, DecisionTable table, long monitoringPeriodMs,
+                            Listener listener) {
+        this(new AdaptiveThresholds(AdaptiveThresholds.Config.fixed(thresholds)), table, monitoringPeriodMs,
+                listener);
+    }
+
+    public WindowedDetector(AdaptiveThresholds thresholds, DecisionTable table, long monitoringPeriodMs,
+                            Listener listener) {
+        this(thresholds, table, monitoringPeriodMs, DEFAULT_RETRIGGER_GAP_MS, listener);
+    }
+
+    public WindowedDetector(AdaptiveThresholds thresholds, DecisionTable table, long monitoringPeriodMs,
+                            long retriggerGapMs, Listener listener) {
+        this.thresholds = thresholds;
+        this.table = table;
+        this.monitoringPeriodMs = monitoringPeriodMs;
+        this.retriggerGapMs = retriggerGapMs;
+        this.listener = listener;
+    }
+
+    /**
+     * Reports verdicts while windows are open. A provisional verdict is reported once its
+     * confidence reaches {@code provisionalConfidence}.
+     */
+    public void setVerdictListener(VerdictListener verdictListener, double provisionalConfidence) {
+        this.verdictListener = verdictListener;
+        this.provisionalConfidence = provisionalConfidence;
+    }
+
+    public void offer(long timeMs, double distanceCm, long sound, long vibration, boolean foilContact) {
+        int evidence = thresholds.update(timeMs, sound, vibration)
+                .evidenceOfRaw(distanceCm, sound, vibration, foilContact);
+        int rising = evidence & ~previousEvidence;
+        previousEvidence = evidence;
+
+        if (evidence != 0 && (open == 0
+                || (rising != 0 && timeMs - windowStartMs[slot(open - 1)] >= retriggerGapMs))) {
+            if (open == MAX_OPEN_WINDOWS) {
+                closeOldest(timeMs);
+            }
+            int slot = slot(open++);
+            windowStartMs[slot] = timeMs;
+            windowEvidence[slot] = 0;
+            windowVerdict[slot] = BoundaryDecision.NONE;
+            windowConfirmed[slot] = false;
+        }
+        if (open > 0) {
+            windowEvidence[slot(open - 1)] |= evidence & DetectionThresholds.WINDOW_EVIDENCE;
+        }
+        for (int i = 0; i < open; i++) {
+            updateVerdict(slot(i), timeMs);
+        }
+        while (open > 0 && timeMs - windowStartMs[oldest] >= monitoringPeriodMs) {
+            closeOldest(timeMs);
+        }
+    }
+
+    private int slot(int index) {
+        return (oldest + index) % MAX_OPEN_WINDOWS;
+    }
+
+    private void updateVerdict(int slot, long timeMs) {
+        if (windowConfirmed[slot]) {
+            return;
+        }
+        int evidence = windowEvidence[slot];
+        BoundaryDecision decision = table.lookup(evidence);
+        if (decision == BoundaryDecision.NONE) {
+            changeProvisional(slot, timeMs, BoundaryDecision.NONE);
+            return;
+        }
+        double agreement = table.agreement(evidence);
+        if (agreement >= 1) {
+            confirm(slot, timeMs, decision);
+            return;
+        }
+        double elapsed = Math.min(1, (double) (timeMs - windowStartMs[slot]) / monitoringPeriodMs);
+        double confidence = agreement + (1 - agreement) * elapsed;
+        changeProvisional(slot, timeMs, confidence >= provisionalConfidence ? decision : BoundaryDecision.NONE);
+    }
+
+    private void changeProvisional(int slot, long timeMs, BoundaryDecision decision) {
+        BoundaryDecision previous = windowVerdict[slot];
+        if (previous == decision) {
+            return;
+        }
+        windowVerdict[slot] = decision;
+        if (previous != BoundaryDecision.NONE) {
+            emit(slot, timeMs, previous, DecisionState.RETRACTED);
+        }
+        if (decision != BoundaryDecision.NONE) {
+            emit(slot, timeMs, decision, DecisionState.PROVISIONAL);
+        }
+    }
+
+    /**
+     * Makes the window's verdict final; repeats of an earlier detection end up as NONE.
+     */
+    private void confirm(int slot, long timeMs, BoundaryDecision decision) {
+        windowConfirmed[slot] = true;
+        if (decision != BoundaryDecision.NONE && isRepeat(decision, slot)) {
+            decision = BoundaryDecision.NONE;
+        }
+        BoundaryDecision previous = windowVerdict[slot];
+        windowVerdict[slot] = decision;
+        if (previous != BoundaryDecision.NONE && previous != decision) {
+            emit(slot, timeMs, previous, DecisionState.RETRACTED);
+        }
+        if (decision != BoundaryDecision.NONE) {
+            emit(slot, timeMs, decision, DecisionState.CONFIRMED);
+        }
+    }
+
+    private boolean isRepeat(BoundaryDecision decision, int slot) {
+        int d = decision.ordinal();
+        int evidence = windowEvidence[slot];
+        long startMs = windowStartMs[slot];
+        if (decided[d] && (evidence & ~decidedEvidence[d]) == 0 && startMs - decidedStartMs[d] < monitoringPeriodMs) {
+            return true;
+        }
+        decided[d] = true;
+        decidedStartMs[d] = startMs;
+        decidedEvidence[d] = evidence;
+        return false;
+    }
+
+    private void emit(int slot, long timeMs, BoundaryDecision decision, DecisionState state) {
+        if (verdictListener != null) {
+            verdictListener.onVerdict(windowStartMs[slot], timeMs, windowEvidence[slot], decision, state);
+        }
+    }
+
+    private void closeOldest(long timeMs) {
+        int slot = oldest;
+        if (!windowConfirmed[slot]) {
+            confirm(slot, timeMs, table.lookup(windowEvidence[slot]));
+        }
+        oldest = slot(1);
+        open--;
+        listener.onWindowClosed(windowStartMs[slot], timeMs, windowEvidence[slot], windowVerdict[slot]);
+    }
+
+    /** Windows currently collecting evidence. */
+    public int getOpenWindows() {
+        return open;
+    }
+}
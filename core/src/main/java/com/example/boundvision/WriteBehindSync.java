@@ -0,0 +1,211 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded outbox of writes that are flushed to a {@link SyncBackend} in batches while the
+ * backend is reachable. Writes to the same path are coalesced, so only the latest value is sent.
+ * One batch is in flight at a time; a failed batch stays queued and is retried with backoff.
+ * When the queue is full the oldest write that isn't in flight is dropped.
+ *
+ * <p>Every write carries a caller-chosen token (e.g. a journal record number) that is reported
+ * back once the write is acknowledged, so the caller can remember how far it has synced.
+ * With increasing tokens, {@link #getLowestUnsyncedToken()} bounds that mark: a dropped write
+ * is never acknowledged, so the mark must not move past it.
+ */
+public class WriteBehindSync {
+
+    public interface Listener {
+        /**
+         * Called for each acknowledged write, in queue order, on the thread that completed the batch.
+         */
+        void onSynced(String path, long token);
+    }
+
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    private static final class Entry {
+        final Object value;
+        final long token;
+        boolean inFlight;
+
+        Entry(Object value, long token) {
+            this.value = value;
+            this.token = token;
+        }
+    }
+
+    private final SyncBackend backend;
+    private final int capacity;
+    private final int maxBatch;
+    private final long batchDelayMs;
+    private final ScheduledExecutorService executor;
+    private final Listener listener;
+    private final Runnable flushTask = this::flushNow;
+    private final LinkedHashMap<String, Entry> pending = new LinkedHashMap<>();
+    private boolean connected = false;
+    private boolean batchInFlight = false;
+    private boolean flushScheduled = false;
+    private long retryDelayMs;
+    private long droppedCount = 0;
+    private long lowestDroppedToken = Long.MAX_VALUE;
+
+    public WriteBehindSync(SyncBackend backend, int capacity, int maxBatch, long batchDelayMs,
+                           ScheduledExecutorService executor, Listener listener) {
+        if (maxBatch <= 0 || capacity <= maxBatch) {
+            throw new IllegalArgumentException("capacity must exceed maxBatch: " + capacity + " / " + maxBatch);
+        }
+        this.backend = backend;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.batchDelayMs = batchDelayMs;
+        this.executor = executor;
+        this.listener = listener;
+        this.retryDelayMs = Math.max(batchDelayMs, 1);
+    }
+
+    /**
+     * Queues {@code value} to be written at {@code path}. Safe to call from any thread.
+     */
+    public void enqueue(String path, Object value, long token) {
+        synchronized (pending) {
+            Entry previous = pending.get(path);
+            if (previous == null && pending.size() >= capacity) {
+                dropOldest();
+            }
+            // Re-putting an existing path keeps its place in the queue
+            pending.put(path, new Entry(value, token));
+            scheduleFlush(batchDelayMs);
+        }
+    }
+
+    /**
+     * Tells the outbox whether the backend is reachable. Flushing resumes as soon as it is.
+     */
+    public void setConnected(boolean connected) {
+        synchronized (pending) {
+            this.connected = connected;
+            if (connected) {
+                retryDelayMs = Math.max(batchDelayMs, 1);
+                scheduleFlush(0);
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        synchronized (pending) {
+            return connected;
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public long getDroppedCount() {
+        synchronized (pending) {
+            return droppedCount;
+        }
+    }
+
+    /**
+     * Returns the lowest token that is queued or was dropped, or {@link Long#MAX_VALUE} if every
+     * write so far has been acknowledged. Tokens below it are all synced.
+     */
+    public long getLowestUnsyncedToken() {
+        synchronized (pending) {
+            long lowest = lowestDroppedToken;
+            for (Entry entry : pending.values()) {
+                lowest = Math.min(lowest, entry.token);
+            }
+            return lowest;
+        }
+    }
+
+    /**
+     * Sends the next batch now if the backend is reachable and no batch is in flight.
+     */
+    public void flushNow() {
+        Map<String, Object> updates;
+        List<String> paths;
+        List<Entry> entries;
+        synchronized (pending) {
+            flushScheduled = false;
+            if (!connected || batchInFlight || pending.isEmpty()) {
+                return;
+            }
+            int size = Math.min(maxBatch, pending.size());
+            updates = new LinkedHashMap<>(size * 2);
+            paths = new ArrayList<>(size);
+            entries = new ArrayList<>(size);
+            for (Map.Entry<String, Entry> e : pending.entrySet()) {
+                if (paths.size() == size) {
+                    break;
+                }
+                e.getValue().inFlight = true;
+                updates.put(e.getKey(), e.getValue().value);
+                paths.add(e.getKey());
+                entries.add(e.getValue());
+            }
+            batchInFlight = true;
+        }
+        backend.write(updates, success -> onBatchComplete(paths, entries, success));
+    }
+
+    private void onBatchComplete(List<String> paths, List<Entry> entries, boolean success) {
+        synchronized (pending) {
+            batchInFlight = false;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                entry.inFlight = false;
+                // A path rewritten while in flight keeps its newer value queued
+                if (success) {
+                    pending.remove(paths.get(i), entry);
+                }
+            }
+            if (success) {
+                retryDelayMs = Math.max(batchDelayMs, 1);
+                if (!pending.isEmpty()) {
+                    scheduleFlush(0);
+                }
+            } else {
+                scheduleFlush(retryDelayMs);
+                retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+        if (success) {
+            for (int i = 0; i < entries.size(); i++) {
+                listener.onSynced(paths.get(i), entries.get(i).token);
+            }
+        }
+    }
+
+    private void dropOldest() {
+        Iterator<Entry> it = pending.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (!entry.inFlight) {
+                it.remove();
+                droppedCount++;
+                lowestDroppedToken = Math.min(lowestDroppedToken, entry.token);
+                return;
+            }
+        }
+    }
+
+    private void scheduleFlush(long delayMs) {
+        if (!connected || flushScheduled || executor.isShutdown()) {
+            return;
+        }
+        flushScheduled = true;
+        executor.schedule(flushTask, delayMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link AmbientBaseline} and {@link AdaptiveThresholds}.
+ */
+public class AdaptiveThresholdsTest {
+    private static AdaptiveThresholds.Config adaptiveConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AdaptiveThresholds.KEY_MODE, AdaptiveThresholds.MODE_ADAPTIVE);
+        config.put(AdaptiveThresholds.KEY_SOUND_SIGMA, "4");
+        config.put(AdaptiveThresholds.KEY_TIME_CONSTANT, 30_000L);
+        return AdaptiveThresholds.Config.fromMap(config);
+    }
+
+    @Test
+    public void baselineTracksMeanAndSpreadAtAnyRate() {
+        Random random = new Random(1);
+        AmbientBaseline fast = new AmbientBaseline(30_000);
+        AmbientBaseline slow = new AmbientBaseline(30_000);
+        for (long t = 0; t < 120_000; t++) {
+            double value = 500 + random.nextGaussian() * 40;
+            fast.update(t, value);
+            if (t % 200 == 0) slow.update(t, value);
+        }
+        assertEquals(500, fast.getMean(), 5);
+        assertEquals(40, fast.getStdDev(), 4);
+        assertEquals(500, slow.getMean(), 10);
+        assertEquals(40, slow.getStdDev(), 8);
+    }
+
+    @Test
+    public void readsConfigAndFallsBackOnBadValues() {
+        AdaptiveThresholds.Config config = adaptiveConfig();
+        assertTrue(config.isAdaptive());
+        assertEquals(4, config.getSoundSigma(), 0);
+        assertEquals(AdaptiveThresholds.ADAPTIVE_LIMITS.getSoundMin(), config.getLimits().getSoundMin());
+
+        Map<String, Object> inverted = new HashMap<>();
+        inverted.put(AdaptiveThresholds.KEY_SOUND_MIN, 5000);
+        assertSame(AdaptiveThresholds.Config.DEFAULT, AdaptiveThresholds.Config.fromMap(inverted));
+        assertSame(AdaptiveThresholds.Config.DEFAULT, AdaptiveThresholds.Config.fromMap("adaptive"));
+        assertFalse(AdaptiveThresholds.Config.fromMap(new HashMap<>()).isAdaptive());
+    }
+
+    @Test
+    public void sustainedLevelShiftBecomesTheNewBaseline() {
+        AdaptiveThresholds thresholds = new AdaptiveThresholds(adaptiveConfig());
+        for (long t = 0; t < 30_000; t += 20) {
+            thresholds.update(t, 100 + (t / 20) % 21 - 10, 200);
+        }
+        long quietMin = thresholds.current().getSoundMin();
+        assertEquals(AdaptiveThresholds.ADAPTIVE_LIMITS.getSoundMin(), quietMin);
+
+        // The crowd gets loud and stays loud: held out as an event first, then absorbed
+        for (long t = 30_000; t < 120_000; t += 20) {
+            thresholds.update(t, 1000 + (t / 20) % 21 - 10, 200);
+        }
+        assertTrue(thresholds.current().getSoundMin() > 1000);
+        assertEquals(0,
+                thresholds.current().evidenceOfRaw(80, 1005, 200, false) & DetectionThresholds.EVIDENCE_SOUND);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link DecisionTable} and {@link BoundaryClassifier}.
+ */
+public class BoundaryClassifierTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void defaultRulesMatchLegacyLogic() {
+        DecisionTable table = DecisionTable.defaults();
+        for (int mask = 0; mask < 8; mask++) {
+            boolean foil = (mask & DetectionThresholds.EVIDENCE_FOIL) != 0;
+            boolean vibration = (mask & DetectionThresholds.EVIDENCE_VIBRATION) != 0;
+            boolean sound = (mask & DetectionThresholds.EVIDENCE_SOUND) != 0;
+
+            BoundaryDecision expected = BoundaryDecision.NONE;
+            if (foil && !vibration && !sound) {
+                expected = BoundaryDecision.SIX;
+            } else if (vibration && sound) {
+                expected = BoundaryDecision.FOUR;
+            } else if (vibration && !sound) {
+                expected = BoundaryDecision.WICKET;
+            }
+            assertEquals("mask " + mask, expected, table.lookup(mask));
+            assertEquals(expected, table.lookup(mask | DetectionThresholds.EVIDENCE_PROXIMITY));
+        }
+    }
+
+    @Test
+    public void firstMatchingRuleWins() {
+        DecisionTable table = DecisionTable.parse("proximity = FOUR; foil = SIX");
+        assertEquals(BoundaryDecision.FOUR, table.lookup(
+                DetectionThresholds.EVIDENCE_PROXIMITY | DetectionThresholds.EVIDENCE_FOIL));
+        assertEquals(BoundaryDecision.SIX, table.lookup(DetectionThresholds.EVIDENCE_FOIL));
+        assertEquals(BoundaryDecision.NONE, table.lookup(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownEvidence() {
+        DecisionTable.parse("bat = SIX");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownOutcome() {
+        DecisionTable.parse("foil = SEVEN");
+    }
+
+    @Test
+    public void windowEvidenceIsCombinedAcrossSamples() {
+        BoundaryClassifier classifier = new BoundaryClassifier(
+                DecisionTable.defaults(), DetectionThresholds.DEFAULT, DIRECT, DIRECT);
+        List<SensorSample> window = Arrays.asList(
+                new SensorSample(1000, 80, 100, true, false),
+                new SensorSample(1200, 80, 1500, false, false));
+        assertEquals(BoundaryDecision.FOUR, classifier.classify(window));
+    }
+
+    @Test
+    public void asyncClassificationEmitsScoreEvent() {
+        BoundaryClassifier classifier = new BoundaryClassifier(
+                DecisionTable.defaults(), DetectionThresholds.DEFAULT, DIRECT, DIRECT);
+        final ScoreEvent[] result = new ScoreEvent[1];
+        classifier.classifyAsync(
+                Collections.singletonList(new SensorSample(5000, 10, 0, false, true)),
+                (decision, evidenceMask, event) -> result[0] = event);
+
+        assertNotNull(result[0]);
+        assertEquals(ScoreEvent.TYPE_RUN, result[0].getType());
+        assertEquals(6, result[0].getValue());
+        assertEquals("5000", result[0].getTimestamp());
+        assertTrue(result[0].isAutoDetected());
+    }
+}
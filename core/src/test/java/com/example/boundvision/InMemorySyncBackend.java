@@ -0,0 +1,26 @@
+package com.example.boundvision;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fake {@link SyncBackend} for local tests. Writes complete immediately and fail while offline.
+ */
+class InMemorySyncBackend implements SyncBackend {
+    final Map<String, Object> store = new HashMap<>();
+    final List<Integer> batchSizes = new ArrayList<>();
+    volatile boolean online = true;
+
+    @Override
+    public synchronized void write(Map<String, Object> updates, Completion completion) {
+        if (!online) {
+            completion.onComplete(false);
+            return;
+        }
+        store.putAll(updates);
+        batchSizes.add(updates.size());
+        completion.onComplete(true);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link LanPacketCodec} and {@link UdpTelemetrySource}.
+ */
+public class LanTelemetryTest {
+
+    private static TelemetryFrame sampleFrame() {
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setSequence(1234);
+        frame.setDeviceTimeMs(3_000_000_000L);
+        frame.setDistanceCm(12.5);
+        frame.setSound(1800);
+        frame.setVibration(true);
+        frame.setMonitoringActive(true);
+        frame.setMonitoringStartedMs(2_999_998_000L);
+        frame.setMonitoringPeriodMs(5000);
+        return frame;
+    }
+
+    @Test
+    public void packetDecodesIntoTheDatabaseShape() {
+        ByteBuffer buffer = ByteBuffer.allocate(LanPacketCodec.MAX_PACKET_SIZE);
+        LanPacketCodec.encode("node-07", 7, sampleFrame(), 42,
+                DetectionThresholds.EVIDENCE_VIBRATION | DetectionThresholds.EVIDENCE_SOUND, buffer);
+        buffer.flip();
+
+        Map<String, Object> value = new HashMap<>();
+        assertEquals("node-07", LanPacketCodec.decode(buffer, value));
+
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 16);
+        registry.ingest("node-07", value, 0);
+        NodeState node = registry.get("node-07");
+        TelemetryFrame frame = node.getFrame();
+        assertEquals(7, node.getRingIndex());
+        assertEquals(1234, frame.getSequence());
+        assertEquals(3_000_000_000L, frame.getDeviceTimeMs());
+        assertEquals(12.5, frame.getDistanceCm(), 0.0);
+        assertEquals(1800, frame.getSound());
+        assertTrue(frame.isVibration());
+        assertFalse(frame.isFoilContact());
+        assertTrue(frame.isMonitoringActive());
+        assertEquals(5000, frame.getMonitoringPeriodMs());
+        assertEquals(DetectionThresholds.EVIDENCE_VIBRATION | DetectionThresholds.EVIDENCE_SOUND,
+                NodeRegistry.decodeDetectionMask((Map<?, ?>) value.get(NodeRegistry.KEY_DETECTION)));
+    }
+
+    @Test
+    public void provisionalStateTravelsWithTheDetection() {
+        ByteBuffer buffer = ByteBuffer.allocate(LanPacketCodec.MAX_PACKET_SIZE);
+        LanPacketCodec.encode("node-01", 1, sampleFrame(), 9, DetectionThresholds.EVIDENCE_VIBRATION,
+                DecisionState.PROVISIONAL, 2_999_999_000L, buffer);
+        buffer.flip();
+
+        Map<String, Object> value = new HashMap<>();
+        LanPacketCodec.decode(buffer, value);
+        Map<?, ?> detection = (Map<?, ?>) value.get(NodeRegistry.KEY_DETECTION);
+        assertEquals(DecisionState.PROVISIONAL,
+                DecisionState.fromKey(detection.get(TelemetryFrameDecoder.KEY_DECISION_STATE)));
+        assertEquals(DetectionThresholds.EVIDENCE_VIBRATION, NodeRegistry.decodeDetectionMask(detection));
+        // The decided window's start, not the oldest open window's
+        assertEquals(2_999_999_000L, detection.get(TelemetryFrameDecoder.KEY_TRIGGER_TIME));
+    }
+
+    @Test
+    public void olderPacketsHaveNoTriggerTime() {
+        ByteBuffer buffer = ByteBuffer.allocate(LanPacketCodec.MAX_PACKET_SIZE);
+        LanPacketCodec.encode("node-02", 2, sampleFrame(), 3, DetectionThresholds.EVIDENCE_FOIL, buffer);
+        buffer.flip();
+        Map<String, Object> value = new HashMap<>();
+        LanPacketCodec.decode(buffer.duplicate(), value);
+        assertFalse(((Map<?, ?>) value.get(NodeRegistry.KEY_DETECTION))
+                .containsKey(TelemetryFrameDecoder.KEY_TRIGGER_TIME));
+
+        // Version 1 firmware ends the packet at the evidence mask
+        buffer.put(2, (byte) 1);
+        buffer.limit(buffer.limit() - 4);
+        value.clear();
+        assertEquals("node-02", LanPacketCodec.decode(buffer, value));
+        Map<?, ?> detection = (Map<?, ?>) value.get(NodeRegistry.KEY_DETECTION);
+        assertFalse(detection.containsKey(TelemetryFrameDecoder.KEY_TRIGGER_TIME));
+        assertEquals(DetectionThresholds.EVIDENCE_FOIL, NodeRegistry.decodeDetectionMask(detection));
+    }
+
+    @Test
+    public void rejectsTruncatedAndForeignPackets() {
+        ByteBuffer buffer = ByteBuffer.allocate(LanPacketCodec.MAX_PACKET_SIZE);
+        LanPacketCodec.encode("node-00", 0, sampleFrame(), 1, 0, buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+        assertNull(LanPacketCodec.decode(buffer, new HashMap<>()));
+
+        assertNull(LanPacketCodec.decode(ByteBuffer.wrap("GET / HTTP/1.1".getBytes()), new HashMap<>()));
+    }
+
+    @Test
+    public void receivesBroadcastFramesOverUdp() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        Map<String, Object> delivered = new HashMap<>();
+        UdpTelemetrySource source = new UdpTelemetrySource(0);
+        source.start(new TelemetrySource.Sink() {
+            @Override
+            public void submit(String nodeId, Object value) {
+                synchronized (delivered) {
+                    delivered.put(nodeId, value);
+                }
+                received.countDown();
+            }
+
+            @Override
+            public void remove(String nodeId) {
+            }
+        });
+
+        try (DatagramSocket sender = new DatagramSocket()) {
+            ByteBuffer buffer = ByteBuffer.allocate(LanPacketCodec.MAX_PACKET_SIZE);
+            LanPacketCodec.encode("node-03", 3, sampleFrame(), 5, DetectionThresholds.EVIDENCE_FOIL, buffer);
+            sender.send(new DatagramPacket(buffer.array(), buffer.position(),
+                    InetAddress.getLoopbackAddress(), source.getLocalPort()));
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+        } finally {
+            source.stop();
+        }
+        synchronized (delivered) {
+            assertTrue(delivered.get("node-03") instanceof Map);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link LatencyHistogram}, {@link LatencyRecorder} and the detection
+ * timestamps carried through {@link NodeRegistry} and {@link DetectionFusion}.
+ */
+public class LatencyRecorderTest {
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        assertEquals(500, histogram.percentile(50), 500 * 0.07);
+        assertEquals(950, histogram.percentile(95), 950 * 0.07);
+        assertEquals(990, histogram.percentile(99), 990 * 0.07);
+        assertEquals(1000, histogram.percentile(100));
+
+        for (long value = 0; value < 3_600_000; value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.upperBoundOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void recordsStageSpansAndExports() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder(2);
+        for (int i = 0; i < 3; i++) {
+            LatencyTrace trace = new LatencyTrace();
+            trace.mark(LatencyStage.TRIGGERED, 1000 * i);
+            trace.mark(LatencyStage.RECEIVED, 1000 * i + 120);
+            trace.mark(LatencyStage.CLASSIFIED, 1000 * i + 125);
+            trace.mark(LatencyStage.RENDERED, 1000 * i + 141);
+            trace.setDecision(BoundaryDecision.FOUR);
+            recorder.record(trace);
+        }
+
+        assertEquals(3, recorder.histogramTo(LatencyStage.RECEIVED).getCount());
+        assertEquals(120, recorder.histogramTo(LatencyStage.RECEIVED).percentile(50), 120 * 0.07);
+        assertEquals(16, recorder.histogramTo(LatencyStage.RENDERED).getMax());
+        assertEquals(0, recorder.histogramTo(LatencyStage.FUSED).getCount());
+        assertEquals(141, recorder.totalHistogram().getMax());
+
+        StringBuilder csv = new StringBuilder();
+        recorder.writeCsv(csv);
+        String[] rows = csv.toString().split("\n");
+        assertEquals(3, rows.length);
+        assertEquals("decision,triggered_ms,decided_ms,received_ms,fused_ms,classified_ms,rendered_ms,total_ms",
+                rows[0]);
+        assertEquals("FOUR,1000,,1120,,1125,1141,141", rows[1]);
+
+        StringBuilder json = new StringBuilder();
+        recorder.writeJson(json);
+        assertTrue(json.toString().contains("\"total\":{\"count\":3,"));
+        assertTrue(json.toString().endsWith("\"rendered_ms\":2141}]}"));
+    }
+
+    @Test
+    public void detectionTimesAreMappedToTheLocalClock() {
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 16);
+        List<FusedDetection> fused = new ArrayList<>();
+        DetectionFusion fusion = new DetectionFusion(100, 1, fused::add);
+
+        // The device clock runs 50 s ahead; the first frame arrives with no delay and sets the offset
+        registry.ingest("node-00", nodeValue(1, 60_000, 0), 10_000);
+        NodeDetection detection = registry.ingest("node-00", nodeValue(2, 65_100, 60_000), 15_200);
+        fusion.offer(detection);
+        fusion.flush(15_300);
+
+        assertEquals(10_000, detection.getTriggeredMs());
+        assertEquals(15_100, detection.getDecidedMs());
+        LatencyTrace trace = LatencyTrace.of(fused.get(0));
+        assertEquals(5_100, trace.spanTo(LatencyStage.DECIDED));
+        assertEquals(100, trace.spanTo(LatencyStage.RECEIVED));
+        assertEquals(100, trace.spanTo(LatencyStage.FUSED));
+    }
+
+    private static Map<String, Object> nodeValue(long detectionSeq, long deviceMs, long triggerMs) {
+        Map<String, Object> telemetry = new HashMap<>();
+        telemetry.put(TelemetryFrameDecoder.KEY_DEVICE_TIME, deviceMs);
+        Map<String, Object> detection = new HashMap<>();
+        detection.put(TelemetryFrameDecoder.KEY_SEQUENCE, detectionSeq);
+        detection.put(TelemetryFrameDecoder.KEY_VIBRATION, true);
+        detection.put(TelemetryFrameDecoder.KEY_TRIGGER_TIME, triggerMs);
+        detection.put(TelemetryFrameDecoder.KEY_DEVICE_TIME, deviceMs);
+        Map<String, Object> node = new HashMap<>();
+        node.put(NodeRegistry.KEY_TELEMETRY, telemetry);
+        node.put(NodeRegistry.KEY_DETECTION, detection);
+        return node;
+    }
+}
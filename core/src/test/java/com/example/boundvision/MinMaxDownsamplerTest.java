@@ -0,0 +1,56 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link MinMaxDownsampler}.
+ */
+public class MinMaxDownsamplerTest {
+    private final float[] mins = new float[10];
+    private final float[] maxs = new float[10];
+
+    @Test
+    public void keepsSpikesOfEveryBucketOverALongSession() {
+        // 10 buckets of 1 s; three hours at 50 Hz with one 20 ms spike per second
+        MinMaxDownsampler downsampler = new MinMaxDownsampler(10, 10_000);
+        for (long t = 0; t < 3 * 60 * 60 * 1000; t += 20) {
+            downsampler.add(t, t % 1000 == 500 ? 4000 : 100 + (t / 20) % 5);
+        }
+
+        long end = downsampler.copyTo(mins, maxs);
+        assertEquals(3 * 60 * 60 * 1000, end);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(100, mins[i], 0);
+            assertEquals(4000, maxs[i], 0);
+        }
+    }
+
+    @Test
+    public void scrollsWithGapsAndDropsSamplesOlderThanTheSpan() {
+        MinMaxDownsampler downsampler = new MinMaxDownsampler(10, 10_000);
+        downsampler.add(0, 1);
+        downsampler.add(2_500, 2);
+        downsampler.add(2_900, 3);
+        downsampler.add(12_000, 7);
+        downsampler.add(1_000, 99);  // Scrolled out already
+        downsampler.add(9_000, 5);   // Late, but still in the span
+
+        assertEquals(13_000, downsampler.copyTo(mins, maxs));
+        // Buckets 3..12 s: the one at 2 s has scrolled out
+        assertTrue(Float.isNaN(mins[0]));
+        assertEquals(5, mins[6], 0);
+        assertEquals(7, maxs[9], 0);
+        for (int i = 1; i < 9; i++) {
+            if (i != 6) assertTrue(Float.isNaN(mins[i]));
+        }
+
+        long version = downsampler.getVersion();
+        downsampler.add(30_000, 1);
+        assertTrue(downsampler.getVersion() > version);
+        downsampler.copyTo(mins, maxs);
+        assertEquals(1, mins[9], 0);
+        assertTrue(Float.isNaN(mins[8]));
+    }
+}
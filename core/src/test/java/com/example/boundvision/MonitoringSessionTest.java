@@ -0,0 +1,89 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link MonitoringSession} and {@link ClockOffsetEstimator}.
+ */
+public class MonitoringSessionTest {
+
+    @Test
+    public void offsetTracksTheLeastDelayedFrame() {
+        ClockOffsetEstimator estimator = new ClockOffsetEstimator();
+        // Device clock is 1000 ms behind local; frames arrive 40, 15 and 90 ms after being sent
+        estimator.observe(10_000, 11_040);
+        estimator.observe(10_200, 11_215);
+        estimator.observe(10_400, 11_490);
+        assertEquals(-1_015, estimator.getOffset());
+    }
+
+    @Test
+    public void offsetStartsAfreshWhenTheDeviceReboots() {
+        ClockOffsetEstimator estimator = new ClockOffsetEstimator();
+        estimator.observe(500_000, 501_020);
+        estimator.observe(500_100, 501_110);
+        assertEquals(-1010, estimator.getOffset());
+
+        // millis() restarts; the old, larger offset must not win
+        estimator.observe(2_000, 520_050);
+        assertEquals(-518_050, estimator.getOffset());
+        assertEquals(522_050, estimator.toLocalTime(4_000));
+    }
+
+    @Test
+    public void remainingTimeComesFromTheClockNotFromUpdates() {
+        MonitoringSession session = new MonitoringSession();
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setDeviceTimeMs(20_000);
+        frame.setMonitoringActive(true);
+        frame.setMonitoringStartedMs(19_000);
+        frame.setMonitoringPeriodMs(5_000);
+        session.update(frame, 120_010);
+
+        // No further frames arrive, the countdown still advances with the local clock
+        assertEquals(4_000, session.remainingMs(120_010));
+        assertEquals(1_500, session.remainingMs(122_510));
+        assertTrue(session.isActive(122_510));
+        assertEquals(0, session.remainingMs(130_000));
+        assertFalse(session.isActive(130_000));
+    }
+
+    @Test
+    public void legacyRemainingFieldIsAnchoredOnTheFrame() {
+        MonitoringSession session = new MonitoringSession();
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setDeviceTimeMs(5_000);
+        frame.setMonitoringActive(true);
+        frame.setMonitoringRemainingMs(4_000);
+        session.update(frame, 50_000);
+        assertEquals(4_000, session.remainingMs(50_000));
+        assertEquals(3_000, session.remainingMs(51_000));
+
+        frame.setMonitoringActive(false);
+        session.update(frame, 51_000);
+        assertEquals(0, session.remainingMs(51_000));
+    }
+
+    @Test
+    public void nextWindowTakesOverWhileTheNodeStaysActive() {
+        MonitoringSession session = new MonitoringSession();
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setDeviceTimeMs(10_000);
+        frame.setMonitoringActive(true);
+        frame.setMonitoringStartedMs(10_000);
+        frame.setMonitoringPeriodMs(5_000);
+        frame.setMonitoringWindows(2);
+        session.update(frame, 10_000);
+        assertEquals(2, session.getOpenWindows(12_000));
+
+        // The first window resolves; the second, opened at 12 s, is now the one counting down
+        frame.setDeviceTimeMs(15_000);
+        frame.setMonitoringStartedMs(12_000);
+        frame.setMonitoringWindows(1);
+        session.update(frame, 15_000);
+        assertEquals(1, session.getOpenWindows(15_000));
+        assertEquals(2_000, session.remainingMs(15_000));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link NodeRegistry} and {@link DetectionFusion} driven by a
+ * {@link SimulatedNodeFeed}.
+ */
+public class MultiNodeIngestionTest {
+
+    @Test
+    public void ingestsEveryNodeOfAFullRing() {
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 100);
+        SimulatedNodeFeed feed = new SimulatedNodeFeed(32, 5, 42);
+        feed.run(0, 10_000, (nodeId, value, timeMs) -> registry.ingest(nodeId, value, timeMs));
+
+        assertEquals(32, registry.size());
+        NodeState node = registry.get(SimulatedNodeFeed.nodeId(31));
+        assertEquals(31, node.getRingIndex());
+        assertEquals(50, node.getFrameCount());
+        assertEquals(50, node.getHistory().size());
+        assertEquals(9_800, node.getLastSeenMs());
+        assertEquals(32 * 50, registry.getVersion());
+    }
+
+    @Test
+    public void fusesNeighbouringDetectionsIntoOneEvent() {
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 16);
+        List<FusedDetection> fused = new ArrayList<>();
+        DetectionFusion fusion = new DetectionFusion(500, 1, fused::add);
+        fusion.setRingSize(32);
+
+        SimulatedNodeFeed feed = new SimulatedNodeFeed(32, 5, 7);
+        // Same ball reported by nodes 31 and 0 (neighbours across the wrap), plus an unrelated node
+        feed.scheduleDetection(31, 2_000, DetectionThresholds.EVIDENCE_VIBRATION);
+        feed.scheduleDetection(0, 2_200, DetectionThresholds.EVIDENCE_SOUND);
+        feed.scheduleDetection(15, 2_000, DetectionThresholds.EVIDENCE_FOIL);
+
+        feed.run(0, 4_000, (nodeId, value, timeMs) -> {
+            NodeDetection detection = registry.ingest(nodeId, value, timeMs);
+            if (detection != null) fusion.offer(detection);
+            fusion.flush(timeMs);
+        });
+
+        assertEquals(2, fused.size());
+        FusedDetection rope = fused.get(0).getNodeIds().contains("node-15") ? fused.get(1) : fused.get(0);
+        assertEquals(DetectionThresholds.EVIDENCE_VIBRATION | DetectionThresholds.EVIDENCE_SOUND,
+                rope.getEvidenceMask());
+        assertEquals(2, rope.getNodeIds().size());
+        assertEquals(BoundaryDecision.FOUR, DecisionTable.defaults().lookup(rope.getEvidenceMask()));
+        assertEquals(0, fusion.pendingCount());
+    }
+
+    @Test
+    public void initialDetectionIsNotReplayed() {
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, 16);
+        SimulatedNodeFeed feed = new SimulatedNodeFeed(1, 5, 1);
+        feed.scheduleDetection(0, 0, DetectionThresholds.EVIDENCE_FOIL);
+        List<NodeDetection> detections = new ArrayList<>();
+        feed.run(0, 1_000, (nodeId, value, timeMs) -> {
+            NodeDetection detection = registry.ingest(nodeId, value, timeMs);
+            if (detection != null) detections.add(detection);
+        });
+        assertTrue(detections.isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ScoreEventStream}.
+ */
+public class ScoreEventStreamTest {
+    private static Map<String, Object> child(String node, long seq, String type, long serverMs) {
+        Map<String, Object> child = new HashMap<>();
+        child.put(ScoreEventStream.KEY_NODE, node);
+        child.put(ScoreEventStream.KEY_SEQ, seq);
+        child.put(ScoreEventStream.KEY_TYPE, type);
+        child.put(ScoreEventStream.KEY_SERVER_MS, serverMs);
+        return child;
+    }
+
+    @Test
+    public void consecutiveSixesAreEachDelivered() {
+        List<ScoreEvent> events = new ArrayList<>();
+        ScoreEventStream stream = new ScoreEventStream(null, Collections.emptyMap(), Collections.emptyMap(),
+                (nodeId, seq, decision, event) -> events.add(event));
+
+        assertTrue(stream.accept("-N1", child("node-00", 1, "SIX", 1_700_000_000_000L), 0));
+        assertTrue(stream.accept("-N2", child("node-00", 2, "SIX", 1_700_000_030_000L), 0));
+        assertTrue(stream.accept("-N3", child("node-01", 1, "WICKET", 1_700_000_060_000L), 0));
+
+        assertEquals(3, events.size());
+        assertEquals(6, events.get(1).getValue());
+        assertEquals(1_700_000_030_000L, events.get(1).getTimestampMs());
+        assertEquals(ScoreEvent.TYPE_WICKET, events.get(2).getType());
+        assertEquals("-N3", stream.getAcknowledgedKey());
+    }
+
+    @Test
+    public void redeliveriesAndRetriedWritesAreDropped() {
+        List<String> delivered = new ArrayList<>();
+        ScoreEventStream.Listener listener = (nodeId, seq, decision, event) -> delivered.add(nodeId + "#" + seq);
+        ScoreEventStream stream = new ScoreEventStream(null, Collections.emptyMap(), Collections.emptyMap(),
+                listener);
+        stream.accept("-N1", child("node-00", 1, "FOUR", 0), 0);
+        // A push retried after a lost reply lands under a new key with the same number
+        assertFalse(stream.accept("-N2", child("node-00", 1, "FOUR", 0), 0));
+        assertEquals("-N2", stream.getAcknowledgedKey());
+
+        // Next session resumes from what was acknowledged; the query repeats the start key
+        ScoreEventStream resumed = new ScoreEventStream(stream.getAcknowledgedKey(),
+                stream.getAcknowledgedEpochs(), stream.getAcknowledgedSeqs(), listener);
+        assertFalse(resumed.accept("-N2", child("node-00", 1, "FOUR", 0), 0));
+        assertTrue(resumed.accept("-N3", child("node-00", 2, "FOUR", 0), 0));
+        assertFalse(resumed.accept("-N4", "not a map", 0));
+        assertEquals(Arrays.asList("node-00#1", "node-00#2"), delivered);
+    }
+
+    @Test
+    public void aRebootedOrReplacedNodeStartsNumberingAgain() {
+        List<String> delivered = new ArrayList<>();
+        ScoreEventStream stream = new ScoreEventStream(null, Collections.emptyMap(), Collections.emptyMap(),
+                (nodeId, seq, decision, event) -> delivered.add(nodeId + "#" + seq));
+        Map<String, Object> first = child("node-00", 7, "SIX", 0);
+        first.put(ScoreEventStream.KEY_EPOCH, 1111L);
+        stream.accept("-N1", first, 0);
+        Map<String, Object> retried = child("node-00", 7, "SIX", 0);
+        retried.put(ScoreEventStream.KEY_EPOCH, 1111L);
+        assertFalse(stream.accept("-N2", retried, 0));
+
+        // Replacement board: its counter restarts at 1 under a new epoch
+        Map<String, Object> replaced = child("node-00", 1, "FOUR", 0);
+        replaced.put(ScoreEventStream.KEY_EPOCH, 2222L);
+        assertTrue(stream.accept("-N3", replaced, 0));
+        assertEquals(Long.valueOf(2222), stream.getAcknowledgedEpochs().get("node-00"));
+        assertEquals(Arrays.asList("node-00#7", "node-00#1"), delivered);
+    }
+
+    @Test
+    public void firstRunSkipsEarlierMatches() {
+        List<ScoreEvent> events = new ArrayList<>();
+        ScoreEventStream stream = new ScoreEventStream(null, Collections.emptyMap(), Collections.emptyMap(),
+                (nodeId, seq, decision, event) -> events.add(event));
+        stream.skipTo("-N9");
+
+        assertFalse(stream.accept("-N9", child("node-00", 9, "SIX", 0), 0));
+        assertTrue(stream.accept("-NA", child("node-00", 10, "FOUR", 0), 42));
+        assertEquals(1, events.size());
+        assertEquals(4, events.get(0).getValue());
+    }
+
+    @Test
+    public void decidesFromTheEvidenceWithTheAppsRules() {
+        List<BoundaryDecision> decisions = new ArrayList<>();
+        ScoreEventStream stream = new ScoreEventStream(null, Collections.emptyMap(), Collections.emptyMap(),
+                (nodeId, seq, decision, event) -> decisions.add(decision));
+        stream.setRules(DecisionTable.parse("foil = FOUR; sound = SIX"));
+
+        Map<String, Object> foil = child("node-00", 1, "SIX", 0);
+        foil.put(ScoreEventStream.KEY_EVIDENCE, (long) DetectionThresholds.EVIDENCE_FOIL);
+        assertTrue(stream.accept("-N1", foil, 0));
+        // The node had no score type for sound alone, but these rules do
+        Map<String, Object> sound = child("node-00", 2, "NONE", 0);
+        sound.put(ScoreEventStream.KEY_EVIDENCE, (long) DetectionThresholds.EVIDENCE_SOUND);
+        assertTrue(stream.accept("-N2", sound, 0));
+        Map<String, Object> vibration = child("node-00", 3, "WICKET", 0);
+        vibration.put(ScoreEventStream.KEY_EVIDENCE, (long) DetectionThresholds.EVIDENCE_VIBRATION);
+        assertFalse(stream.accept("-N3", vibration, 0));
+        // Written before nodes sent their evidence
+        assertTrue(stream.accept("-N4", child("node-01", 1, "WICKET", 0), 0));
+
+        assertEquals(Arrays.asList(BoundaryDecision.FOUR, BoundaryDecision.SIX, BoundaryDecision.WICKET), decisions);
+    }
+}
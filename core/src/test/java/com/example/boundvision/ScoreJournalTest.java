@@ -0,0 +1,123 @@
+package com.example.boundvision;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ScoreJournal}.
+ */
+public class ScoreJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysEventsAfterReopen() throws Exception {
+        File file = folder.newFile("score.journal");
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, "0.3", "1700000000000", true));
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_WICKET, 0, "1.0", "1700000060000", false));
+        }
+
+        final List<ScoreEvent> replayed = new ArrayList<>();
+        try (ScoreJournal journal = ScoreJournal.open(file, (n, event) -> replayed.add(event))) {
+            assertEquals(2, journal.size());
+        }
+        assertEquals(2, replayed.size());
+        ScoreEvent first = replayed.get(0);
+        assertEquals(ScoreEvent.TYPE_RUN, first.getType());
+        assertEquals(4, first.getValue());
+        assertEquals("0.3", first.getOvers());
+        assertEquals("1700000000000", first.getTimestamp());
+        assertTrue(first.isAutoDetected());
+        assertFalse(replayed.get(1).isAutoDetected());
+        assertEquals(8 + 2 * ScoreJournal.RECORD_SIZE, file.length());
+    }
+
+    @Test
+    public void truncatesTornAndCorruptTail() throws Exception {
+        File file = folder.newFile("score.journal");
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, "2.1", "1", true));
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 1, "2.2", "2", true));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            // Corrupt the second record and leave half a record after it
+            raw.seek(8 + ScoreJournal.RECORD_SIZE + 3);
+            raw.write(0x7F);
+            raw.seek(raw.length());
+            raw.write(new byte[ScoreJournal.RECORD_SIZE / 2]);
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            assertEquals(1, journal.size());
+            assertEquals(6, journal.read(0).getValue());
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 2, "2.2", "3", true));
+        }
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            assertEquals(2, journal.size());
+            assertEquals(2, journal.read(1).getValue());
+        }
+    }
+
+    @Test
+    public void movesAnUnreadableJournalAsideAndStartsAgain() throws Exception {
+        File file = folder.newFile("score.journal");
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, "2.1", "1", true));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.write(0);
+        }
+        long corruptLength = file.length();
+
+        try (ScoreJournal journal = ScoreJournal.openOrRecover(file, null, 1234)) {
+            assertEquals(new File(file.getPath() + ".corrupt-1234"), journal.getRecoveredFrom());
+            assertEquals(corruptLength, journal.getRecoveredFrom().length());
+            assertEquals(0, journal.size());
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, "2.2", "2", true));
+        }
+        try (ScoreJournal journal = ScoreJournal.openOrRecover(file, null, 5678)) {
+            assertNull(journal.getRecoveredFrom());
+            assertEquals(1, journal.size());
+            assertEquals(4, journal.read(0).getValue());
+        }
+    }
+
+    @Test
+    public void indexesEventsByOver() throws Exception {
+        File file = folder.newFile("score.journal");
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 1, "13.5", "1", false));
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, "14.1", "2", true));
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, null, "3", true));
+            journal.append(new ScoreEvent(ScoreEvent.TYPE_WICKET, 0, "14.3", "4", false));
+        }
+        try (ScoreJournal journal = ScoreJournal.open(file, null)) {
+            List<ScoreEvent> over = journal.eventsInOver(14);
+            assertEquals(2, over.size());
+            assertEquals("14.1", over.get(0).getOvers());
+            assertEquals("14.3", over.get(1).getOvers());
+            assertEquals(1, journal.eventsInOver(13).size());
+            assertTrue(journal.eventsInOver(99).isEmpty());
+            assertNull(journal.read(2).getOvers());
+        }
+    }
+
+    @Test
+    public void oversRoundTrip() {
+        assertEquals(26, Overs.toBalls("4.2"));
+        assertEquals(24, Overs.toBalls("4"));
+        assertEquals(Overs.UNKNOWN, Overs.toBalls("4.7"));
+        assertEquals(Overs.UNKNOWN, Overs.toBalls("x"));
+        assertEquals("4.2", Overs.format(26));
+        assertNull(Overs.format(Overs.UNKNOWN));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.boundvision;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ScoreRecorder} against an in-memory backend.
+ */
+public class ScoreRecorderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+    private final InMemorySyncBackend backend = new InMemorySyncBackend();
+
+    @After
+    public void tearDown() {
+        writer.shutdownNow();
+    }
+
+    /** Waits for everything queued on the writer so far. */
+    private void awaitWriter() throws Exception {
+        writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private int runs(ScoreRecorder recorder) throws Exception {
+        final AtomicLong runs = new AtomicLong(-1);
+        ScoreRecorder.Listener listener = timeline -> runs.compareAndSet(-1, timeline.getRuns());
+        recorder.addListener(listener);
+        awaitWriter();
+        recorder.removeListener(listener);
+        return (int) runs.get();
+    }
+
+    @Test
+    public void uploadsRecordsAndRestoresTheTimelineOnReopen() throws Exception {
+        File file = new File(folder.getRoot(), "score.journal");
+        final AtomicLong synced = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(2);
+        ScoreRecorder recorder = new ScoreRecorder(file, backend, "scores/", 0, count -> {
+            synced.set(count);
+            done.countDown();
+        }, writer, () -> 1000);
+        recorder.open();
+        recorder.setConnected(true);
+        recorder.record(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, Overs.UNKNOWN, 100, true));
+        recorder.record(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, Overs.UNKNOWN, 200, true));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, synced.get());
+        assertEquals(10, runs(recorder));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> second = (Map<String, Object>) backend.store.get("scores/1");
+        assertEquals(6, second.get("value"));
+        recorder.close();
+        awaitWriter();
+
+        // A second recorder, as after a restart, finds the same timeline and has nothing left to send
+        backend.store.clear();
+        final CountDownLatch third = new CountDownLatch(1);
+        ScoreRecorder reopened = new ScoreRecorder(file, backend, "scores/", synced.get(), count -> {
+            assertEquals(3, count);
+            third.countDown();
+        }, writer, () -> 2000);
+        reopened.open();
+        reopened.setConnected(true);
+        assertEquals(10, runs(reopened));
+        reopened.record(new ScoreEvent(ScoreEvent.TYPE_WICKET, 0, Overs.UNKNOWN, 300, true));
+        assertTrue(third.await(5, TimeUnit.SECONDS));
+        assertEquals(1, backend.store.size());
+        assertTrue(backend.store.containsKey("scores/2"));
+        reopened.close();
+    }
+
+    @Test
+    public void installationsUploadUnderTheirOwnPath() throws Exception {
+        final CountDownLatch done = new CountDownLatch(2);
+        ScoreRecorder first = new ScoreRecorder(new File(folder.getRoot(), "first.journal"), backend,
+                "scores/install-a/", 0, count -> done.countDown(), writer, () -> 1000);
+        ScoreRecorder second = new ScoreRecorder(new File(folder.getRoot(), "second.journal"), backend,
+                "scores/install-b/", 0, count -> done.countDown(), writer, () -> 1000);
+        for (ScoreRecorder recorder : new ScoreRecorder[] {first, second}) {
+            recorder.open();
+            recorder.setConnected(true);
+        }
+        // Both journals start at record 0
+        first.record(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, Overs.UNKNOWN, 100, true));
+        second.record(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, Overs.UNKNOWN, 100, true));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, backend.store.size());
+        assertEquals(4, ((Map<?, ?>) backend.store.get("scores/install-a/0")).get("value"));
+        assertEquals(6, ((Map<?, ?>) backend.store.get("scores/install-b/0")).get("value"));
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void requeuesRecordsThatWereNotSynced() throws Exception {
+        File file = new File(folder.getRoot(), "score.journal");
+        ScoreRecorder offline = new ScoreRecorder(file, backend, "scores/", 0, count -> fail(), writer, () -> 1000);
+        offline.open();
+        offline.record(new ScoreEvent(ScoreEvent.TYPE_RUN, 1, Overs.UNKNOWN, 100, true));
+        offline.record(new ScoreEvent(ScoreEvent.TYPE_RUN, 2, Overs.UNKNOWN, 200, true));
+        offline.close();
+        awaitWriter();
+        assertTrue(backend.store.isEmpty());
+
+        final CountDownLatch done = new CountDownLatch(1);
+        ScoreRecorder reopened = new ScoreRecorder(file, backend, "scores/", 0, count -> {
+            if (count == 2) {
+                done.countDown();
+            }
+        }, writer, () -> 2000);
+        reopened.open();
+        reopened.setConnected(true);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(backend.store.containsKey("scores/0"));
+        assertTrue(backend.store.containsKey("scores/1"));
+        reopened.close();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ScoreTimeline}.
+ */
+public class ScoreTimelineTest {
+
+    @Test
+    public void totalsAtAPointInTheInnings() {
+        ScoreTimeline timeline = new ScoreTimeline();
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, Overs.toBalls("13.5"), 1, true));
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_EXTRA, 1, Overs.toBalls("14.1"), 2, false));
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, Overs.toBalls("14.3"), 3, true));
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_WICKET, 0, Overs.toBalls("14.5"), 4, false));
+
+        int ball = Overs.toBalls("14.3");
+        assertEquals(11, timeline.runsAt(ball));
+        assertEquals(1, timeline.extrasAt(ball));
+        assertEquals(0, timeline.wicketsAt(ball));
+        assertEquals(11 * 6.0 / 87, timeline.runRateAt(ball), 1e-9);
+
+        assertEquals(0, timeline.runsAt(Overs.toBalls("10.0")));
+        assertEquals(11, timeline.getRuns());
+        assertEquals(1, timeline.getWickets());
+        assertEquals(Overs.toBalls("14.5"), timeline.getBalls());
+    }
+
+    @Test
+    public void unknownOversArePlacedAtTheLatestBall() {
+        ScoreTimeline timeline = new ScoreTimeline();
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_RUN, 1, 30, 1, false));
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_RUN, 6, Overs.UNKNOWN, 2, true));
+        assertEquals(30, timeline.get(1).getBalls());
+        assertEquals(7, timeline.runsAt(30));
+    }
+
+    @Test
+    public void totalsLeaveOutOversWhileBallsAreUnknown() {
+        ScoreTimeline timeline = new ScoreTimeline();
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_RUN, 4, Overs.UNKNOWN, 1, true));
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_WICKET, 0, Overs.UNKNOWN, 2, true));
+        assertEquals("4/1", timeline.formatTotals());
+
+        timeline.add(new ScoreEvent(ScoreEvent.TYPE_RUN, 3, Overs.toBalls("1.0"), 3, false));
+        assertEquals("7/1 (1.0 ov, RR 7.0)", timeline.formatTotals());
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        ScoreTimeline timeline = new ScoreTimeline();
+        for (int i = 0; i < 300; i++) {
+            timeline.add(ScoreEvent.TYPE_RUN, 1, i, i, false);
+        }
+        assertEquals(300, timeline.size());
+        assertEquals(151, timeline.runsAt(150));
+        assertEquals("49.5", timeline.get(299).getOvers());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOutOfOrderEvents() {
+        ScoreTimeline timeline = new ScoreTimeline();
+        timeline.add(ScoreEvent.TYPE_RUN, 1, 10, 0, false);
+        timeline.add(ScoreEvent.TYPE_RUN, 1, 9, 0, false);
+    }
+}
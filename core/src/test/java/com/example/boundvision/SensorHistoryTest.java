@@ -0,0 +1,60 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SensorHistory}.
+ */
+public class SensorHistoryTest {
+
+    @Test
+    public void overwritesOldestWhenFull() {
+        SensorHistory history = new SensorHistory(3);
+        for (int i = 0; i < 5; i++) {
+            history.append(i * 200L, 100 - i, i * 10, false, false);
+        }
+        assertEquals(3, history.size());
+        assertEquals(400L, history.timestampAt(0));
+        assertEquals(800L, history.timestampAt(2));
+        assertEquals(800L, history.newestTimestamp());
+        assertEquals(40, history.soundAt(2));
+    }
+
+    @Test
+    public void windowStatsCoverOnlyTheWindow() {
+        SensorHistory history = new SensorHistory(16);
+        history.append(0, 50f, 100, false, false);
+        history.append(200, 10f, 900, true, false);
+        history.append(400, 30f, 300, false, true);
+        history.append(600, 90f, 50, false, false);
+
+        SensorHistory.WindowStats stats = new SensorHistory.WindowStats();
+        assertTrue(history.stats(200, 600, stats));
+        assertEquals(2, stats.getCount());
+        assertEquals(10f, stats.getMinDistance(), 0f);
+        assertEquals(30f, stats.getMaxDistance(), 0f);
+        assertEquals(20.0, stats.getMeanDistance(), 1e-9);
+        assertEquals(300, stats.getMinSound());
+        assertEquals(900, stats.getMaxSound());
+        assertEquals(1, stats.getVibrationCount());
+        assertEquals(1, stats.getFoilContactCount());
+
+        assertFalse(history.stats(1000, 2000, stats));
+    }
+
+    @Test
+    public void windowedEvidenceFeedsClassifier() {
+        SensorHistory history = SensorHistory.forDuration(10_000, 5);
+        assertEquals(50, history.capacity());
+        history.append(1000, 80f, 100, true, false);
+        history.append(1200, 80f, 1500, false, false);
+        history.append(9000, 80f, 100, false, true);
+
+        BoundaryClassifier classifier = new BoundaryClassifier(
+                DecisionTable.defaults(), DetectionThresholds.DEFAULT, Runnable::run, Runnable::run);
+        assertEquals(BoundaryDecision.FOUR, classifier.classify(history, 1000, 6000));
+        assertEquals(BoundaryDecision.SIX, classifier.classify(history, 6000, 11000));
+    }
+}
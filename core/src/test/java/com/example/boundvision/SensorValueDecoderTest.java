@@ -0,0 +1,103 @@
+package com.example.boundvision;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SensorValueDecoder} and {@link DisplayTextFormatter}.
+ */
+public class SensorValueDecoderTest {
+
+    @Test
+    public void decodesBoxedNumbers() {
+        assertEquals(12.5, SensorValueDecoder.decodeDouble(12.5, Double.NaN), 0.0);
+        assertEquals(42.0, SensorValueDecoder.decodeDouble(42L, Double.NaN), 0.0);
+        assertEquals(4000L, SensorValueDecoder.decodeLong(4000L, -1));
+        assertEquals(999L, SensorValueDecoder.decodeLong(999.7, -1));
+        assertTrue(SensorValueDecoder.decodeBoolean(Boolean.TRUE, false));
+    }
+
+    @Test
+    public void decodesNumericStrings() {
+        assertEquals(-12.25, SensorValueDecoder.decodeDouble("-12.25", Double.NaN), 1e-9);
+        assertEquals(7.0, SensorValueDecoder.decodeDouble(" 7 ", Double.NaN), 0.0);
+        assertEquals(1500L, SensorValueDecoder.decodeLong("1500", -1));
+    }
+
+    @Test
+    public void malformedValuesReturnFallback() {
+        assertTrue(Double.isNaN(SensorValueDecoder.decodeDouble("abc", Double.NaN)));
+        assertTrue(Double.isNaN(SensorValueDecoder.decodeDouble("1.2.3", Double.NaN)));
+        assertTrue(Double.isNaN(SensorValueDecoder.decodeDouble("1e5", Double.NaN)));
+        assertTrue(Double.isNaN(SensorValueDecoder.decodeDouble("-", Double.NaN)));
+        assertTrue(Double.isNaN(SensorValueDecoder.decodeDouble(null, Double.NaN)));
+        assertEquals(-1L, SensorValueDecoder.decodeLong(Boolean.TRUE, -1));
+    }
+
+    @Test
+    public void formatsLikeStringFormat() {
+        DisplayTextFormatter formatter = new DisplayTextFormatter(32);
+        assertEquals("12.3 cm", formatter.formatFixed1(12.34, " cm").toString());
+        assertEquals("0.0 cm", formatter.formatFixed1(0.0, " cm").toString());
+        assertEquals("999.0 cm", formatter.formatFixed1(999.0, " cm").toString());
+        assertEquals("-3.5 cm", formatter.formatFixed1(-3.5, " cm").toString());
+        assertEquals("N/A cm", formatter.formatFixed1(Double.NaN, " cm").toString());
+        // Halves round away from zero on the printed value, and small negatives keep their sign
+        for (double value : new double[] {-3.45, 3.45, -0.05, 0.15, 0.25, -0.04, -0.0, 2.675, 1e20, -1e20}) {
+            assertEquals(String.format(Locale.ROOT, "%.1f cm", value),
+                    formatter.formatFixed1(value, " cm").toString());
+        }
+        assertEquals("N/A cm", formatter.formatFixed1(1e40, " cm").toString());
+        assertEquals("4095", formatter.formatLong(4095).toString());
+        assertEquals("0", formatter.formatLong(0).toString());
+        assertEquals("-42", formatter.formatLong(-42).toString());
+        assertEquals(Long.toString(Long.MIN_VALUE), formatter.formatLong(Long.MIN_VALUE).toString());
+        assertEquals(Long.toString(Long.MAX_VALUE), formatter.formatLong(Long.MAX_VALUE).toString());
+    }
+
+    @Test
+    public void steadyStateDecodeDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Boxed inputs are created up front, as the snapshot would already hold them
+        Object distance = 23.7;
+        Object sound = 1200L;
+        Object remaining = "4800";
+        DisplayTextFormatter formatter = new DisplayTextFormatter(32);
+
+        long sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += decodeOnce(distance, sound, remaining, formatter);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            sink += decodeOnce(distance, sound, remaining, formatter);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(sink != 0);
+        // Allow for the bytes the measurement call itself may allocate
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static long decodeOnce(Object distance, Object sound, Object remaining,
+                                   DisplayTextFormatter formatter) {
+        double d = SensorValueDecoder.decodeDouble(distance, Double.NaN);
+        long s = SensorValueDecoder.decodeLong(sound, -1);
+        long r = SensorValueDecoder.decodeLong(remaining, -1);
+        formatter.formatFixed1(d, " cm");
+        return formatter.length() + s + r;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.boundvision;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SharedSubscription}, through {@link SharedValue} and
+ * {@link SharedTelemetry}.
+ */
+public class SharedSubscriptionTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static class CountingUpstream implements SharedValue.Upstream<String> {
+        int starts = 0;
+        int stops = 0;
+        Consumer<String> sink;
+
+        @Override
+        public void start(Consumer<String> sink) {
+            starts++;
+            this.sink = sink;
+        }
+
+        @Override
+        public void stop() {
+            stops++;
+            sink = null;
+        }
+    }
+
+    private void drainScheduler() throws Exception {
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void observersShareOneSubscriptionAndLateOnesGetTheLastValue() {
+        CountingUpstream upstream = new CountingUpstream();
+        SharedValue<String> value = new SharedValue<>(upstream, scheduler, 60_000);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        value.observe(first::add);
+        upstream.sink.accept("rules-1");
+        value.observe(second::add);
+        upstream.sink.accept("rules-2");
+
+        assertEquals(1, upstream.starts);
+        assertEquals(List.of("rules-1", "rules-2"), first);
+        assertEquals(List.of("rules-1", "rules-2"), second);
+    }
+
+    @Test
+    public void aRecreatedScreenKeepsTheSubscription() throws Exception {
+        CountingUpstream upstream = new CountingUpstream();
+        SharedValue<String> value = new SharedValue<>(upstream, scheduler, 60_000);
+        Consumer<String> oldScreen = v -> { };
+
+        // Rotation: the new screen arrives before the old one's linger runs out
+        value.observe(oldScreen);
+        value.removeObserver(oldScreen);
+        value.observe(v -> { });
+        drainScheduler();
+
+        assertTrue(value.isStarted());
+        assertEquals(1, upstream.starts);
+        assertEquals(0, upstream.stops);
+    }
+
+    @Test
+    public void stopsOnceNobodyHasWatchedForTheLinger() throws Exception {
+        CountingUpstream upstream = new CountingUpstream();
+        SharedValue<String> value = new SharedValue<>(upstream, scheduler, 0);
+        Consumer<String> screen = v -> { };
+
+        value.observe(screen);
+        value.removeObserver(screen);
+        drainScheduler();
+        assertFalse(value.isStarted());
+        assertEquals(1, upstream.stops);
+
+        value.observe(screen);
+        assertEquals(2, upstream.starts);
+    }
+
+    @Test
+    public void telemetryReplaysEveryNodeToANewObserver() throws Exception {
+        List<TelemetrySource.Sink> started = new ArrayList<>();
+        TelemetrySource source = new TelemetrySource() {
+            @Override
+            public void start(Sink sink) {
+                started.add(sink);
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+        SharedTelemetry telemetry = new SharedTelemetry(source, scheduler, 60_000);
+        List<String> seen = new ArrayList<>();
+        TelemetrySource.Sink first = new TelemetrySource.Sink() {
+            @Override
+            public void submit(String nodeId, Object value) {
+            }
+
+            @Override
+            public void remove(String nodeId) {
+            }
+        };
+        telemetry.observe(first);
+        started.get(0).submit("node-00", "a");
+        started.get(0).submit("node-01", "b");
+        started.get(0).remove("node-01");
+        started.get(0).submit("node-00", "c");
+
+        telemetry.observe(new TelemetrySource.Sink() {
+            @Override
+            public void submit(String nodeId, Object value) {
+                seen.add(nodeId + "=" + value);
+            }
+
+            @Override
+            public void remove(String nodeId) {
+                seen.add(nodeId + " removed");
+            }
+        });
+        assertEquals(1, started.size());
+        assertEquals(List.of("node-00=c"), seen);
+    }
+
+    @Test
+    public void switchingTheSourceRemovesItsNodes() throws Exception {
+        List<TelemetrySource.Sink> started = new ArrayList<>();
+        TelemetrySource source = new TelemetrySource() {
+            @Override
+            public void start(Sink sink) {
+                started.add(sink);
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+        SharedTelemetry telemetry = new SharedTelemetry(source, scheduler, 60_000);
+        List<String> seen = new ArrayList<>();
+        telemetry.observe(new TelemetrySource.Sink() {
+            @Override
+            public void submit(String nodeId, Object value) {
+                seen.add(nodeId + "=" + value);
+            }
+
+            @Override
+            public void remove(String nodeId) {
+                seen.add(nodeId + " removed");
+            }
+        });
+        started.get(0).submit("node-00", "a");
+        started.get(0).submit("node-01", "b");
+
+        // The new source reports node-01 as soon as it starts
+        telemetry.setSource(new TelemetrySource() {
+            @Override
+            public void start(Sink sink) {
+                sink.submit("node-01", "lan");
+            }
+
+            @Override
+            public void stop() {
+            }
+        });
+        assertEquals(List.of("node-00=a", "node-01=b", "node-01=lan", "node-00 removed"), seen);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.boundvision;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link StartupTracer} and {@link LastKnownStateStore}.
+ */
+public class StartupTracerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long nowMs = 1000;
+
+    @Test
+    public void phasesAreMeasuredFromTheOrigin() {
+        StartupTracer tracer = new StartupTracer(900, () -> nowMs);
+        tracer.begin(StartupTracer.PHASE_APPLICATION);
+        nowMs = 1005;
+        tracer.begin(StartupTracer.PHASE_DATABASE);
+        nowMs = 1010;
+        tracer.end(StartupTracer.PHASE_APPLICATION);
+        nowMs = 1150;
+        tracer.end(StartupTracer.PHASE_FIRST_FRAME);
+        nowMs = 1400;
+        tracer.end(StartupTracer.PHASE_FIRST_FRAME);
+
+        assertEquals(100, tracer.offsetOf(StartupTracer.PHASE_APPLICATION));
+        assertEquals(10, tracer.durationOf(StartupTracer.PHASE_APPLICATION));
+        assertEquals(105, tracer.offsetOf(StartupTracer.PHASE_DATABASE));
+        assertFalse(tracer.isEnded(StartupTracer.PHASE_DATABASE));
+        assertEquals(StartupTracer.UNKNOWN, tracer.durationOf(StartupTracer.PHASE_DATABASE));
+        // Ending without a begin is an instant, and only the first end counts
+        assertEquals(250, tracer.endOffsetOf(StartupTracer.PHASE_FIRST_FRAME));
+        assertEquals(0, tracer.durationOf(StartupTracer.PHASE_FIRST_FRAME));
+        assertEquals(StartupTracer.UNKNOWN, tracer.offsetOf(StartupTracer.PHASE_VIDEO));
+        assertEquals(Arrays.asList(StartupTracer.PHASE_APPLICATION, StartupTracer.PHASE_DATABASE,
+                StartupTracer.PHASE_FIRST_FRAME), tracer.phases());
+
+        StringBuilder summary = new StringBuilder();
+        tracer.writeSummary(summary);
+        assertEquals(4, summary.toString().split("\n").length);
+    }
+
+    @Test
+    public void lastKnownStateSurvivesARestart() throws Exception {
+        File file = new File(folder.getRoot(), "last_known_state");
+        TelemetryFrame frame = new TelemetryFrame();
+        assertNull(new LastKnownStateStore(file).load(frame));
+
+        frame.setDistanceCm(12.5);
+        frame.setSound(1200);
+        frame.setVibration(true);
+        new LastKnownStateStore(file).save("node-01", frame, 1_700_000_000_000L);
+
+        TelemetryFrame restored = new TelemetryFrame();
+        assertEquals("node-01", new LastKnownStateStore(file).load(restored));
+        assertEquals(12.5, restored.getDistanceCm(), 0);
+        assertEquals(1200, restored.getSound());
+        assertTrue(restored.isVibration());
+        assertFalse(restored.has(TelemetryFrame.FIELD_FOIL_CONTACT));
+    }
+
+    @Test
+    public void unreadableStateIsIgnored() throws Exception {
+        File file = folder.newFile("last_known_state");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("distance=\\u00zz\n");
+        }
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setSound(5);
+        assertNull(new LastKnownStateStore(file).load(frame));
+        assertEquals(0, frame.getPresentFields());
+    }
+}
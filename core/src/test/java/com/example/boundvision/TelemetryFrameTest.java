@@ -0,0 +1,66 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TelemetryFrame#diff} and {@link TelemetryFrameDecoder}.
+ */
+public class TelemetryFrameTest {
+
+    @Test
+    public void diffReportsChangedAndNewlyPresentFields() {
+        TelemetryFrame previous = new TelemetryFrame();
+        TelemetryFrame frame = new TelemetryFrame();
+        frame.setDistanceCm(0);
+        frame.setSound(300);
+        // A field seen for the first time counts as changed even if it holds the default value
+        assertEquals(TelemetryFrame.FIELD_DISTANCE | TelemetryFrame.FIELD_SOUND, frame.diff(previous));
+
+        previous.copyFrom(frame);
+        assertEquals(0, frame.diff(previous));
+
+        frame.setSound(301);
+        frame.setVibration(true);
+        assertEquals(TelemetryFrame.FIELD_SOUND | TelemetryFrame.FIELD_VIBRATION, frame.diff(previous));
+
+        // Fields the frame has never received are not reported, whatever the previous frame held
+        TelemetryFrame empty = new TelemetryFrame();
+        assertEquals(0, empty.diff(frame));
+    }
+
+    @Test
+    public void decodingAPartialNodeKeepsTheOtherFields() {
+        TelemetryFrame frame = new TelemetryFrame();
+        Map<String, Object> full = new HashMap<>();
+        full.put(TelemetryFrameDecoder.KEY_DISTANCE, 42.5);
+        full.put(TelemetryFrameDecoder.KEY_SOUND, 700L);
+        full.put(TelemetryFrameDecoder.KEY_VIBRATION, true);
+        assertTrue(TelemetryFrameDecoder.decode(full, frame));
+
+        Map<String, Object> partial = new HashMap<>();
+        partial.put(TelemetryFrameDecoder.KEY_SOUND, 800L);
+        // Malformed values are skipped rather than zeroed
+        partial.put(TelemetryFrameDecoder.KEY_DISTANCE, "far");
+        assertTrue(TelemetryFrameDecoder.decode(partial, frame));
+
+        assertEquals(42.5, frame.getDistanceCm(), 0);
+        assertEquals(800, frame.getSound());
+        assertTrue(frame.isVibration());
+        assertFalse(frame.has(TelemetryFrame.FIELD_FOIL_CONTACT));
+        assertFalse(frame.has(TelemetryFrame.FIELD_MONITORING_ACTIVE));
+    }
+
+    @Test
+    public void missingOrNonMapValuesAreRejected() {
+        TelemetryFrame frame = new TelemetryFrame();
+        assertFalse(TelemetryFrameDecoder.decode(null, frame));
+        assertFalse(TelemetryFrameDecoder.decode(12L, frame));
+        assertTrue(TelemetryFrameDecoder.decode(new HashMap<>(), frame));
+        assertEquals(0, frame.getPresentFields());
+    }
+}
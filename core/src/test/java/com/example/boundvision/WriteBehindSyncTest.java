@@ -0,0 +1,111 @@
+package com.example.boundvision;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link WriteBehindSync} against an in-memory backend.
+ */
+public class WriteBehindSyncTest {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final InMemorySyncBackend backend = new InMemorySyncBackend();
+    private final List<Long> synced = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private WriteBehindSync newSync(int capacity, int maxBatch, CountDownLatch done) {
+        return new WriteBehindSync(backend, capacity, maxBatch, 10, executor, (path, token) -> {
+            synced.add(token);
+            done.countDown();
+        });
+    }
+
+    @Test
+    public void holdsWritesUntilConnectedThenFlushesInBatches() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(4);
+        WriteBehindSync sync = newSync(16, 2, done);
+        sync.enqueue("events/0", "SIX", 0);
+        sync.enqueue("events/1", "FOUR", 1);
+        sync.enqueue("telemetry/distance", 40.0, 2);
+        sync.enqueue("telemetry/distance", 12.5, 3);
+        sync.enqueue("events/2", "WICKET", 4);
+
+        sync.flushNow();
+        assertTrue(backend.store.isEmpty());
+        assertEquals(4, sync.pendingCount());
+
+        sync.setConnected(true);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, sync.pendingCount());
+        assertEquals(12.5, backend.store.get("telemetry/distance"));
+        assertEquals("WICKET", backend.store.get("events/2"));
+        assertEquals(List.of(2, 2), backend.batchSizes);
+        // Coalesced writes keep their original place in the queue
+        assertEquals(List.of(0L, 1L, 3L, 4L), synced);
+    }
+
+    @Test
+    public void failedBatchIsRetried() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        WriteBehindSync sync = newSync(16, 8, done);
+        backend.online = false;
+        sync.setConnected(true);
+        sync.enqueue("events/0", "SIX", 0);
+
+        Thread.sleep(50);
+        assertTrue(backend.store.isEmpty());
+        assertEquals(1, sync.pendingCount());
+
+        backend.online = true;
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("SIX", backend.store.get("events/0"));
+        assertEquals(0, sync.pendingCount());
+    }
+
+    @Test
+    public void dropsOldestWritesWhenFull() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(4);
+        WriteBehindSync sync = newSync(4, 2, done);
+        for (int i = 0; i < 6; i++) {
+            sync.enqueue("events/" + i, i, i);
+        }
+        assertEquals(4, sync.pendingCount());
+        assertEquals(2, sync.getDroppedCount());
+
+        sync.setConnected(true);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(backend.store.containsKey("events/1"));
+        assertEquals(List.of(2L, 3L, 4L, 5L), synced);
+        // Records 0 and 1 never reached the backend, so nothing past them counts as synced
+        assertEquals(0, sync.getLowestUnsyncedToken());
+    }
+
+    @Test
+    public void lowestUnsyncedTokenFollowsAcknowledgements() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(3);
+        WriteBehindSync sync = newSync(16, 2, done);
+        assertEquals(Long.MAX_VALUE, sync.getLowestUnsyncedToken());
+        for (int i = 0; i < 3; i++) {
+            sync.enqueue("events/" + i, i, i);
+        }
+        assertEquals(0, sync.getLowestUnsyncedToken());
+
+        sync.setConnected(true);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Long.MAX_VALUE, sync.getLowestUnsyncedToken());
+    }
+}
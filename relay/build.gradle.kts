@@ -0,0 +1,33 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":core"))
+    testImplementation(libs.junit)
+}
+
+// ./gradlew :relay:run --args="--port 8080 --lan-port 4210"
+application {
+    mainClass.set("com.example.boundvision.RelayMain")
+}
+
+// The load test drives the relay from outside, so it is kept out of the relay's own jar
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output + sourceSets["main"].compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets["main"].runtimeClasspath
+}
+
+// Runs a relay on a simulated ring and points simulated displays at it, e.g.
+// ./gradlew :relay:loadTest --args="--clients 500 --slow 20 --seconds 30"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Fans simulated node traffic out to many simulated displays and reports latency."
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.example.boundvision.RelayLoadTest")
+}
@@ -0,0 +1,300 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Load test of the relay ({@code ./gradlew :relay:loadTest --args="..."}).
+ * <pre>
+ * [--clients 200] [--slow 10] [--nodes 12] [--rate 10] [--seconds 20] [--score-every-ms 2000]
+ * [--max-pending-kb 16]
+ * </pre>
+ * Runs a relay on a simulated ring of nodes and connects simulated displays to it, all on
+ * one selector thread. Slow displays only read one second in five through a small receive
+ * buffer, so back-pressure applies to them; displays that are disconnected reconnect with
+ * the last id they saw, as a browser would. Reports how long node updates and scores took
+ * from the relay to the displays and whether every display got every score. Each display
+ * takes two file descriptors in this process, so raise {@code ulimit -n} for large runs.
+ */
+public final class RelayLoadTest {
+    private static final int SLOW_RECEIVE_BUFFER = 4096;
+    private static final String RELAY_MS = "\"relay_ms\":";
+
+    private RelayLoadTest() {
+    }
+
+    private static final class Display {
+        final boolean slow;
+        final ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        final StringBuilder line = new StringBuilder();
+        SocketChannel channel;
+        String event;
+        String data;
+        long pendingId = RelayEvent.NO_ID;
+        long lastId = RelayEvent.NO_ID;
+        int scores = 0;
+        int reconnects = 0;
+
+        Display(boolean slow) {
+            this.slow = slow;
+        }
+    }
+
+    /** Paces a {@link SimulatedNodeFeed} in real time. */
+    private static final class SimulatedUpstream implements TelemetrySource {
+        private final SimulatedNodeFeed feed;
+        private final long durationMs;
+        private volatile boolean stopped = false;
+
+        SimulatedUpstream(SimulatedNodeFeed feed, long durationMs) {
+            this.feed = feed;
+            this.durationMs = durationMs;
+        }
+
+        @Override
+        public void start(Sink sink) {
+            long startMs = System.currentTimeMillis();
+            Thread thread = new Thread(() -> feed.run(startMs, durationMs, (nodeId, value, timeMs) -> {
+                long waitMs = timeMs - System.currentTimeMillis();
+                if (stopped) {
+                    return;
+                }
+                if (waitMs > 0) {
+                    try {
+                        Thread.sleep(waitMs);
+                    } catch (InterruptedException e) {
+                        stopped = true;
+                        return;
+                    }
+                }
+                sink.submit(nodeId, value);
+            }), "simulated-nodes");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = 200;
+        int slow = 10;
+        int nodes = 12;
+        int rateHz = 10;
+        int seconds = 20;
+        long scoreEveryMs = 2000;
+        int maxPendingKb = 16;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            long value = SensorValueDecoder.decodeLong(args[i + 1], -1);
+            if (value < 0) {
+                usage();
+            }
+            switch (args[i]) {
+                case "--clients": clients = (int) value; break;
+                case "--slow": slow = (int) value; break;
+                case "--nodes": nodes = (int) value; break;
+                case "--rate": rateHz = (int) value; break;
+                case "--seconds": seconds = (int) value; break;
+                case "--score-every-ms": scoreEveryMs = value; break;
+                case "--max-pending-kb": maxPendingKb = (int) value; break;
+                default: usage();
+            }
+        }
+        long durationMs = seconds * 1000L;
+
+        // Scores alternate between a six (the rope's foil) and a four (vibration and sound)
+        SimulatedNodeFeed feed = new SimulatedNodeFeed(nodes, rateHz, 42);
+        long startMs = System.currentTimeMillis();
+        int scheduled = 0;
+        for (long atMs = startMs + 1000; atMs < startMs + durationMs - 1000; atMs += scoreEveryMs) {
+            int evidence = scheduled % 2 == 0 ? DetectionThresholds.EVIDENCE_FOIL
+                    : DetectionThresholds.EVIDENCE_VIBRATION | DetectionThresholds.EVIDENCE_SOUND;
+            feed.scheduleDetection(scheduled % nodes, atMs, evidence);
+            scheduled++;
+        }
+
+        SseRelayServer server = new SseRelayServer(0, 1024, maxPendingKb * 1024, startMs);
+        ScheduledExecutorService ingestionExecutor = Executors.newSingleThreadScheduledExecutor();
+        ScoreboardRelay relay = new ScoreboardRelay(new SimulatedUpstream(feed, durationMs), server,
+                ingestionExecutor, System::currentTimeMillis);
+        server.start();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getLocalPort());
+
+        Selector selector = Selector.open();
+        List<Display> displays = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Display display = new Display(i < slow);
+            connect(display, address, selector);
+            displays.add(display);
+        }
+        relay.start();
+
+        LatencyHistogram nodeLatency = new LatencyHistogram();
+        LatencyHistogram scoreLatency = new LatencyHistogram();
+        long nodeUpdates = 0;
+        // A little longer than the feed, so the last scores are fused and delivered
+        long endMs = System.currentTimeMillis() + durationMs + 2000;
+        while (System.currentTimeMillis() < endMs) {
+            selector.select(100);
+            long now = System.currentTimeMillis();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Display display = (Display) key.attachment();
+                if (!key.isValid() || display.channel != key.channel()) continue;
+                display.buffer.clear();
+                int read;
+                try {
+                    read = display.channel.read(display.buffer);
+                } catch (IOException e) {
+                    read = -1;
+                }
+                if (read < 0) {
+                    // Dropped by the relay for falling behind; come back like a browser would
+                    key.cancel();
+                    display.channel.close();
+                    display.reconnects++;
+                    connect(display, address, selector);
+                    continue;
+                }
+                for (int i = 0; i < read; i++) {
+                    char c = (char) display.buffer.get(i);
+                    if (c != '\n') {
+                        if (c != '\r') display.line.append(c);
+                        continue;
+                    }
+                    long latencyMs = onLine(display, now);
+                    if (latencyMs >= 0 && !display.slow) {
+                        if (ScoreboardRelay.EVENT_SCORE.equals(display.event)) {
+                            scoreLatency.record(latencyMs);
+                        } else {
+                            nodeLatency.record(latencyMs);
+                            nodeUpdates++;
+                        }
+                    }
+                    if (display.line.length() == 0) {
+                        display.event = null;
+                        display.data = null;
+                    }
+                    display.line.setLength(0);
+                }
+            }
+            // Slow displays read one second in five
+            boolean slowReading = (now / 1000) % 5 == 0;
+            for (Display display : displays) {
+                SelectionKey key = display.channel.keyFor(selector);
+                if (display.slow && key != null && key.isValid()) {
+                    key.interestOps(slowReading ? SelectionKey.OP_READ : 0);
+                }
+            }
+        }
+
+        relay.stop();
+        ingestionExecutor.shutdownNow();
+        long published = server.getPublishedEvents();
+        int fastComplete = 0;
+        int slowComplete = 0;
+        int reconnects = 0;
+        for (Display display : displays) {
+            if (display.scores >= published) {
+                if (display.slow) slowComplete++;
+                else fastComplete++;
+            }
+            reconnects += display.reconnects;
+            display.channel.close();
+        }
+        selector.close();
+
+        System.out.printf("%d displays (%d slow), %d nodes at %d Hz for %d s%n", clients, slow, nodes, rateHz, seconds);
+        System.out.printf("node updates to fast displays: %d, latency p50 %d ms, p99 %d ms, max %d ms%n",
+                nodeUpdates, nodeLatency.percentile(50), nodeLatency.percentile(99), nodeLatency.getMax());
+        System.out.printf("scores: %d scheduled, %d published, latency p50 %d ms, p99 %d ms, max %d ms%n",
+                scheduled, published, scoreLatency.percentile(50), scoreLatency.percentile(99), scoreLatency.getMax());
+        System.out.printf("displays with every score: %d of %d fast, %d of %d slow%n",
+                fastComplete, clients - slow, slowComplete, slow);
+        System.out.printf("back-pressure: %d node states skipped, %d slow disconnects, %d reconnects%n",
+                server.getCoalescedStates(), server.getSlowDisconnects(), reconnects);
+        server.stop();
+    }
+
+    /**
+     * Handles one line of the event stream.
+     *
+     * @return the event's latency when the line ends an event that carries one, otherwise -1
+     */
+    private static long onLine(Display display, long nowMs) {
+        StringBuilder line = display.line;
+        if (line.length() == 0) {
+            if (display.pendingId != RelayEvent.NO_ID) {
+                display.lastId = display.pendingId;
+                display.pendingId = RelayEvent.NO_ID;
+            }
+            if (display.data == null) {
+                return -1;
+            }
+            if (ScoreboardRelay.EVENT_SCORE.equals(display.event)) {
+                display.scores++;
+            }
+            int at = display.data.indexOf(RELAY_MS);
+            if (at < 0) {
+                return -1;
+            }
+            int from = at + RELAY_MS.length();
+            int to = from;
+            while (to < display.data.length() && Character.isDigit(display.data.charAt(to))) to++;
+            return nowMs - SensorValueDecoder.decodeLong(display.data.substring(from, to), nowMs);
+        }
+        String text = line.toString();
+        if (text.startsWith("id: ")) {
+            display.pendingId = SensorValueDecoder.decodeLong(text.substring(4), RelayEvent.NO_ID);
+        } else if (text.startsWith("event: ")) {
+            display.event = text.substring(7);
+        } else if (text.startsWith("data: ")) {
+            display.data = text.substring(6);
+        }
+        return -1;
+    }
+
+    private static void connect(Display display, InetSocketAddress address, Selector selector) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        if (display.slow) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, SLOW_RECEIVE_BUFFER);
+        }
+        channel.connect(address);
+        String request = "GET " + SseRelayServer.PATH_EVENTS + " HTTP/1.1\r\nHost: relay\r\n"
+                + (display.lastId != RelayEvent.NO_ID ? "Last-Event-ID: " + display.lastId + "\r\n" : "")
+                + "\r\n";
+        ByteBuffer out = ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII));
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, display);
+        display.channel = channel;
+        display.line.setLength(0);
+        display.event = null;
+        display.data = null;
+        display.pendingId = RelayEvent.NO_ID;
+    }
+
+    private static void usage() {
+        System.err.println("usage: [--clients 200] [--slow 10] [--nodes 12] [--rate 10] [--seconds 20]"
+                + " [--score-every-ms 2000] [--max-pending-kb 16]");
+        System.exit(2);
+    }
+}
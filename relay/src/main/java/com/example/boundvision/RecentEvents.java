@@ -0,0 +1,66 @@
+package com.example.boundvision;
+
+import java.util.List;
+
+/**
+ * The last few sequenced events, so a display that drops off the network for a moment can
+ * reconnect with the id of the last event it saw and be sent only what it missed. Ids are
+ * consecutive; a display further behind than the buffer reaches has to start over from the
+ * current state.
+ * Not thread-safe; use it from the relay's selector thread.
+ */
+public class RecentEvents {
+    private final RelayEvent[] events;
+    private long nextId;
+    private int size = 0;
+
+    /**
+     * @param firstId id of the first event to be added
+     */
+    public RecentEvents(int capacity, long firstId) {
+        this.events = new RelayEvent[capacity];
+        this.nextId = firstId;
+    }
+
+    /** The id the next event has to carry. */
+    public long nextId() {
+        return nextId;
+    }
+
+    public void add(RelayEvent event) {
+        if (event.getId() != nextId) {
+            throw new IllegalArgumentException("Expected id " + nextId + ", got " + event.getId());
+        }
+        events[(int) (nextId % events.length)] = event;
+        nextId++;
+        size = Math.min(size + 1, events.length);
+    }
+
+    /**
+     * Adds every event after {@code lastId} to {@code out}, oldest first.
+     *
+     * @return false if events after {@code lastId} have already been dropped, or the id was
+     * never handed out (e.g. it came from before a relay restart); nothing is added then
+     */
+    public boolean since(long lastId, List<RelayEvent> out) {
+        long oldest = nextId - size;
+        if (lastId < oldest - 1 || lastId >= nextId) {
+            return false;
+        }
+        for (long id = lastId + 1; id < nextId; id++) {
+            out.add(events[(int) (id % events.length)]);
+        }
+        return true;
+    }
+
+    /** Adds every buffered event to {@code out}, oldest first. */
+    public void all(List<RelayEvent> out) {
+        for (long id = nextId - size; id < nextId; id++) {
+            out.add(events[(int) (id % events.length)]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.boundvision;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One event as it goes out to every display: a server-sent events frame, encoded once and
+ * shared by all clients. Sequenced events (scores, detections) carry an id so a display
+ * that reconnects can ask for what it missed; node state is sent without one, since only the
+ * latest value of each node matters.
+ */
+public final class RelayEvent {
+    public static final long NO_ID = -1;
+
+    private final long id;
+    private final String type;
+    private final String key;
+    private final ByteBuffer frame;
+
+    private RelayEvent(long id, String type, String key, ByteBuffer frame) {
+        this.id = id;
+        this.type = type;
+        this.key = key;
+        this.frame = frame;
+    }
+
+    /**
+     * A sequenced event.
+     *
+     * @param data a single line, e.g. a JSON object
+     */
+    public static RelayEvent sequenced(long id, String type, CharSequence data) {
+        return new RelayEvent(id, type, null, encode(id, type, data));
+    }
+
+    /**
+     * Latest state of {@code key}; a newer event with the same key supersedes it for a display
+     * that has not received it yet.
+     */
+    public static RelayEvent state(String key, String type, CharSequence data) {
+        return new RelayEvent(NO_ID, type, key, encode(NO_ID, type, data));
+    }
+
+    private static ByteBuffer encode(long id, String type, CharSequence data) {
+        StringBuilder frame = new StringBuilder(data.length() + type.length() + 32);
+        if (id != NO_ID) {
+            frame.append("id: ").append(id).append('\n');
+        }
+        frame.append("event: ").append(type).append('\n');
+        frame.append("data: ").append(data).append("\n\n");
+        return ByteBuffer.wrap(frame.toString().getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /** The node this state belongs to, or null for a sequenced event. */
+    public String getKey() {
+        return key;
+    }
+
+    /** A fresh view of the encoded frame, positioned at its start. */
+    public ByteBuffer frame() {
+        return frame.duplicate();
+    }
+
+    public int size() {
+        return frame.remaining();
+    }
+}
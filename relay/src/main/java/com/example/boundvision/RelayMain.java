@@ -0,0 +1,69 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Command line entry point of the scoreboard relay ({@code ./gradlew :relay:run --args="..."}).
+ * <pre>
+ * [--port 8080] [--lan-port 4210] [--recent 1024] [--max-pending-kb 256] [--rules "foil = SIX; ..."]
+ * </pre>
+ * Listens once for the nodes' LAN broadcasts and serves every display from
+ * {@code http://<host>:<port>/events}.
+ */
+public final class RelayMain {
+    private RelayMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = SseRelayServer.DEFAULT_PORT;
+        int lanPort = LanPacketCodec.DEFAULT_PORT;
+        int recent = 1024;
+        int maxPendingKb = 256;
+        DecisionTable rules = DecisionTable.defaults();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = (int) SensorValueDecoder.decodeLong(args[i + 1], port);
+                    break;
+                case "--lan-port":
+                    lanPort = (int) SensorValueDecoder.decodeLong(args[i + 1], lanPort);
+                    break;
+                case "--recent":
+                    recent = (int) SensorValueDecoder.decodeLong(args[i + 1], recent);
+                    break;
+                case "--max-pending-kb":
+                    maxPendingKb = (int) SensorValueDecoder.decodeLong(args[i + 1], maxPendingKb);
+                    break;
+                case "--rules":
+                    rules = DecisionTable.parse(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("usage: [--port 8080] [--lan-port 4210] [--recent 1024]"
+                            + " [--max-pending-kb 256] [--rules \"...\"]");
+                    System.exit(2);
+            }
+        }
+
+        SseRelayServer server = new SseRelayServer(port, recent, maxPendingKb * 1024, System.currentTimeMillis());
+        ScheduledExecutorService ingestionExecutor = Executors.newSingleThreadScheduledExecutor();
+        ScoreboardRelay relay = new ScoreboardRelay(new UdpTelemetrySource(lanPort), server,
+                ingestionExecutor, System::currentTimeMillis);
+        relay.setRules(rules);
+        server.start();
+        relay.start();
+        System.out.printf("Relaying LAN port %d to http://0.0.0.0:%d%s%n", lanPort, server.getLocalPort(),
+                SseRelayServer.PATH_EVENTS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            relay.stop();
+            ingestionExecutor.shutdownNow();
+            try {
+                server.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+}
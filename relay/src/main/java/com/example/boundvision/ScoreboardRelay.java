@@ -0,0 +1,176 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.LongSupplier;
+
+/**
+ * Subscribes to the nodes once and republishes what the displays around the ground need
+ * through a {@link SseRelayServer}: each node's latest readings as {@code node} state, and
+ * verdicts as sequenced {@code detection} (provisional or retracted) and {@code score}
+ * (confirmed) events. Node values go through the same {@link NodeIngestion} pipeline as the
+ * app, so detection decoding, fusion and the classifier rules match what a phone would show.
+ * Every event carries {@code relay_ms}, when the relay published it.
+ */
+public class ScoreboardRelay implements TelemetrySource.Sink, NodeIngestion.Listener {
+    public static final String EVENT_NODE = "node";
+    public static final String EVENT_DETECTION = "detection";
+    public static final String EVENT_SCORE = "score";
+
+    // Fusion as in the app
+    private static final long FUSION_TOLERANCE_MS = 1000;
+    private static final int FUSION_NEIGHBOUR_SPAN = 1;
+    // The relay draws no charts; a short history is enough for the ambient baselines
+    private static final int HISTORY_CAPACITY = 64;
+    private static final long CHART_SPAN_MS = 60_000;
+
+    private final TelemetrySource upstream;
+    private final SseRelayServer server;
+    private final ScheduledExecutorService executor;
+    private final LongSupplier clock;
+    private final NodeIngestion ingestion;
+    private volatile DecisionTable rules = DecisionTable.defaults();
+    // Ingestion thread only
+    private final StringBuilder json = new StringBuilder(256);
+
+    /**
+     * @param executor single-threaded; node values are ingested and published on it
+     */
+    public ScoreboardRelay(TelemetrySource upstream, SseRelayServer server,
+                           ScheduledExecutorService executor, LongSupplier clock) {
+        this.upstream = upstream;
+        this.server = server;
+        this.executor = executor;
+        this.clock = clock;
+        NodeRegistry registry = new NodeRegistry(DetectionThresholds.DEFAULT, HISTORY_CAPACITY, CHART_SPAN_MS);
+        this.ingestion = new NodeIngestion(registry, FUSION_TOLERANCE_MS, FUSION_NEIGHBOUR_SPAN,
+                executor, clock, this);
+    }
+
+    public void start() throws IOException {
+        upstream.start(this);
+    }
+
+    public void stop() {
+        upstream.stop();
+    }
+
+    /** Replaces the classifier rules, e.g. with the set from {@code config/classifier_rules}. */
+    public void setRules(DecisionTable rules) {
+        this.rules = rules;
+    }
+
+    public NodeRegistry getRegistry() {
+        return ingestion.getRegistry();
+    }
+
+    @Override
+    public void submit(final String nodeId, Object value) {
+        ingestion.submit(nodeId, value);
+        // Queued behind the ingestion, so the node's frame is up to date when this runs
+        if (!executor.isShutdown()) {
+            executor.execute(() -> publishNode(nodeId));
+        }
+    }
+
+    @Override
+    public void remove(final String nodeId) {
+        ingestion.remove(nodeId);
+        if (!executor.isShutdown()) {
+            executor.execute(() -> {
+                json.setLength(0);
+                json.append("{\"node\":");
+                appendString(json, nodeId);
+                json.append(",\"removed\":true,\"relay_ms\":").append(clock.getAsLong()).append('}');
+                server.clearState(nodeId, EVENT_NODE, json);
+            });
+        }
+    }
+
+    private void publishNode(String nodeId) {
+        NodeState node = ingestion.getRegistry().get(nodeId);
+        if (node == null) {
+            return;
+        }
+        TelemetryFrame frame = node.getFrame();
+        json.setLength(0);
+        json.append("{\"node\":");
+        appendString(json, nodeId);
+        json.append(",\"ring\":").append(node.getRingIndex());
+        if (frame.has(TelemetryFrame.FIELD_DISTANCE)) {
+            json.append(",\"distance\":").append(frame.getDistanceCm());
+        }
+        if (frame.has(TelemetryFrame.FIELD_SOUND)) {
+            json.append(",\"sound\":").append(frame.getSound());
+        }
+        if (frame.has(TelemetryFrame.FIELD_VIBRATION)) {
+            json.append(",\"vibration\":").append(frame.isVibration());
+        }
+        if (frame.has(TelemetryFrame.FIELD_FOIL_CONTACT)) {
+            json.append(",\"foil_contact\":").append(frame.isFoilContact());
+        }
+        if (frame.has(TelemetryFrame.FIELD_MONITORING_ACTIVE)) {
+            json.append(",\"monitoring_active\":").append(frame.isMonitoringActive());
+        }
+        json.append(",\"relay_ms\":").append(clock.getAsLong()).append('}');
+        server.publishState(nodeId, EVENT_NODE, json);
+    }
+
+    @Override
+    public void onFocusedFrame(String nodeId, TelemetryFrame frame) {
+        // Every node is published as it arrives
+    }
+
+    @Override
+    public void onFusedDetection(FusedDetection detection) {
+        BoundaryDecision decision = rules.lookup(detection.getEvidenceMask());
+        ScoreEvent event = decision.toScoreEvent(Overs.UNKNOWN, detection.getFirstTimestampMs());
+        if (event == null) {
+            return;
+        }
+        json.setLength(0);
+        json.append("{\"decision\":\"").append(decision.name()).append('"');
+        json.append(",\"type\":").append(event.getType());
+        json.append(",\"value\":").append(event.getValue());
+        json.append(",\"timestamp_ms\":").append(event.getTimestampMs());
+        json.append(",\"triggered_ms\":").append(detection.getTriggeredMs());
+        json.append(",\"evidence\":").append(detection.getEvidenceMask());
+        json.append(",\"nodes\":[");
+        for (int i = 0; i < detection.getNodeIds().size(); i++) {
+            if (i > 0) json.append(',');
+            appendString(json, detection.getNodeIds().get(i));
+        }
+        json.append("],\"relay_ms\":").append(clock.getAsLong()).append('}');
+        server.publish(EVENT_SCORE, json);
+    }
+
+    @Override
+    public void onProvisionalDetection(NodeDetection detection) {
+        json.setLength(0);
+        json.append("{\"decision\":\"").append(rules.lookup(detection.getEvidenceMask()).name()).append('"');
+        json.append(",\"state\":\"").append(detection.getState().name()).append('"');
+        json.append(",\"timestamp_ms\":").append(detection.getTimestampMs());
+        json.append(",\"triggered_ms\":").append(detection.getTriggeredMs());
+        json.append(",\"evidence\":").append(detection.getEvidenceMask());
+        json.append(",\"node\":");
+        appendString(json, detection.getNodeId());
+        json.append(",\"relay_ms\":").append(clock.getAsLong()).append('}');
+        server.publish(EVENT_DETECTION, json);
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,508 @@
+package com.example.boundvision;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves relay events to any number of displays as server-sent events ({@code GET /events}),
+ * which a browser reads with {@code EventSource} and which reconnects on its own.
+ * All sockets are non-blocking and served by one selector thread; each event is encoded once
+ * and the same bytes are written to every display.
+ *
+ * <p>A display that cannot keep up is not allowed to hold the others back. Node state
+ * published while its socket is still busy is held back and replaced by newer state of the
+ * same node, so it skips straight to the latest values. Sequenced events are always queued;
+ * once more than {@code maxPendingBytes} are waiting the display is disconnected, and when
+ * it reconnects with the last id it saw it is sent what it missed from the recent events.
+ *
+ * <p>{@code GET /status} reports the number of displays and how often back-pressure applied.
+ */
+public class SseRelayServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final String PATH_EVENTS = "/events";
+    public static final String PATH_STATUS = "/status";
+    public static final String EVENT_SYNC = "sync";
+    // How long a display waits before reconnecting
+    public static final long RETRY_MS = 2000;
+    // Keeps idle connections open through proxies and finds displays that have gone away
+    public static final long HEARTBEAT_MS = 15_000;
+
+    private static final int MAX_REQUEST_BYTES = 8192;
+    private static final String QUERY_LAST_EVENT_ID = "lastEventId=";
+    private static final byte[] STREAM_HEADERS = ("HTTP/1.1 200 OK\r\n"
+            + "Content-Type: text/event-stream\r\n"
+            + "Cache-Control: no-cache\r\n"
+            + "Connection: keep-alive\r\n"
+            + "Access-Control-Allow-Origin: *\r\n"
+            + "\r\n"
+            + "retry: " + RETRY_MS + "\n\n").getBytes(StandardCharsets.US_ASCII);
+    private static final ByteBuffer HEARTBEAT = ByteBuffer.wrap(":\n\n".getBytes(StandardCharsets.US_ASCII))
+            .asReadOnlyBuffer();
+
+    private final int port;
+    private final int maxPendingBytes;
+    private final RecentEvents recentEvents;
+    // Latest state per key, for displays that connect later; selector thread only
+    private final Map<String, RelayEvent> latestState = new LinkedHashMap<>();
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final List<Client> clients = new ArrayList<>();
+    private final List<Client> dirty = new ArrayList<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+    private final AtomicLong coalescedStates = new AtomicLong();
+    private volatile int clientCount = 0;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    private static final class Client {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final long acceptedNanos = System.nanoTime();
+        ByteBuffer request = ByteBuffer.allocate(MAX_REQUEST_BYTES);
+        boolean streaming = false;
+        boolean closeWhenFlushed = false;
+        boolean closed = false;
+        boolean isDirty = false;
+        final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        long queuedBytes = 0;
+        // Node state waiting for the queue to drain, newest per key
+        final Map<String, RelayEvent> held = new LinkedHashMap<>();
+
+        Client(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /**
+     * @param port            0 picks a free port, see {@link #getLocalPort()}
+     * @param recentCapacity  sequenced events kept for displays that reconnect
+     * @param maxPendingBytes how much may wait for one display before it is disconnected
+     * @param firstId         id of the first sequenced event; starting from the wall clock
+     *                        keeps ids from an earlier run of the relay from being mistaken
+     *                        for ones of this run
+     */
+    public SseRelayServer(int port, int recentCapacity, int maxPendingBytes, long firstId) {
+        this.port = port;
+        this.maxPendingBytes = maxPendingBytes;
+        this.recentEvents = new RecentEvents(recentCapacity, firstId);
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port), 256);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        thread = new Thread(this::run, "relay-selector");
+        thread.start();
+    }
+
+    public int getLocalPort() {
+        return serverChannel == null ? -1 : serverChannel.socket().getLocalPort();
+    }
+
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        thread.join();
+    }
+
+    /**
+     * Sends a sequenced event to every display and keeps it for those that reconnect.
+     * Safe to call from any thread.
+     *
+     * @param data a single line, e.g. a JSON object
+     */
+    public void publish(String type, CharSequence data) {
+        final String line = data.toString();
+        execute(() -> {
+            RelayEvent event = RelayEvent.sequenced(recentEvents.nextId(), type, line);
+            recentEvents.add(event);
+            publishedEvents.incrementAndGet();
+            // Backwards, since a display that has fallen too far behind is closed and removed
+            for (int i = clients.size() - 1; i >= 0; i--) {
+                Client client = clients.get(i);
+                if (client.streaming) sendSequenced(client, event);
+            }
+        });
+    }
+
+    /**
+     * Sends the latest state of {@code key} (a node) to every display and to displays that
+     * connect later. Safe to call from any thread.
+     */
+    public void publishState(String key, String type, CharSequence data) {
+        final RelayEvent event = RelayEvent.state(key, type, data);
+        execute(() -> {
+            latestState.put(key, event);
+            for (Client client : clients) {
+                if (client.streaming) sendState(client, event);
+            }
+        });
+    }
+
+    /**
+     * Like {@link #publishState}, but the key is forgotten afterwards, e.g. a node that has
+     * been removed. Displays that connect later are not told about it.
+     */
+    public void clearState(String key, String type, CharSequence data) {
+        final RelayEvent event = RelayEvent.state(key, type, data);
+        execute(() -> {
+            latestState.remove(key);
+            for (Client client : clients) {
+                if (client.streaming) sendState(client, event);
+            }
+        });
+    }
+
+    private void execute(Runnable task) {
+        if (!running) {
+            return;
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    public int getClientCount() {
+        return clientCount;
+    }
+
+    /** Sequenced events published so far. */
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    /** Displays disconnected because too much was waiting for them. */
+    public long getSlowDisconnects() {
+        return slowDisconnects.get();
+    }
+
+    /** Node states a busy display skipped because a newer one replaced them. */
+    public long getCoalescedStates() {
+        return coalescedStates.get();
+    }
+
+    private void run() {
+        long nextHeartbeat = System.nanoTime() + HEARTBEAT_MS * 1_000_000;
+        try {
+            while (running) {
+                long waitMs = Math.max(1, (nextHeartbeat - System.nanoTime()) / 1_000_000);
+                selector.select(waitMs);
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Client client = (Client) key.attachment();
+                    if (key.isReadable()) read(client);
+                    if (!client.closed && key.isValid() && key.isWritable()) markDirty(client);
+                }
+
+                if (System.nanoTime() - nextHeartbeat >= 0) {
+                    heartbeat();
+                    nextHeartbeat = System.nanoTime() + HEARTBEAT_MS * 1_000_000;
+                }
+
+                // Writes are batched: everything queued for a display in this round goes out together
+                for (Client client : dirty) {
+                    client.isDirty = false;
+                    if (!client.closed) flush(client);
+                }
+                dirty.clear();
+            }
+        } catch (IOException e) {
+            // The selector itself failed; nothing sensible left to serve
+        } finally {
+            for (Client client : new ArrayList<>(clients)) {
+                close(client);
+            }
+            closeQuietly();
+        }
+    }
+
+    private void accept() {
+        while (true) {
+            SocketChannel channel = null;
+            try {
+                channel = serverChannel.accept();
+                if (channel == null) {
+                    return;
+                }
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                Client client = new Client(channel, key);
+                key.attach(client);
+                clients.add(client);
+                clientCount = clients.size();
+            } catch (IOException e) {
+                // e.g. out of file descriptors; the displays already connected are still served
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                        // Already gone
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void read(Client client) {
+        try {
+            if (client.streaming) {
+                // Displays have nothing more to say; this only notices a closed connection
+                readBuffer.clear();
+                if (client.channel.read(readBuffer) < 0) close(client);
+                return;
+            }
+            if (client.channel.read(client.request) < 0) {
+                close(client);
+                return;
+            }
+        } catch (IOException e) {
+            close(client);
+            return;
+        }
+        String head = requestHead(client.request);
+        if (head != null) {
+            client.request = null;
+            handleRequest(client, head);
+        } else if (!client.request.hasRemaining()) {
+            respond(client, "431 Request Header Fields Too Large", "");
+        }
+    }
+
+    private static String requestHead(ByteBuffer request) {
+        byte[] bytes = request.array();
+        for (int i = 3; i < request.position(); i++) {
+            if (bytes[i - 3] == '\r' && bytes[i - 2] == '\n' && bytes[i - 1] == '\r' && bytes[i] == '\n') {
+                return new String(bytes, 0, i - 3, StandardCharsets.ISO_8859_1);
+            }
+        }
+        return null;
+    }
+
+    private void handleRequest(Client client, String head) {
+        String[] lines = head.split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length < 2 || !requestLine[0].equals("GET")) {
+            respond(client, "405 Method Not Allowed", "");
+            return;
+        }
+        String target = requestLine[1];
+        int queryStart = target.indexOf('?');
+        String path = queryStart < 0 ? target : target.substring(0, queryStart);
+        if (path.equals(PATH_STATUS)) {
+            respond(client, "200 OK", String.format(Locale.ROOT,
+                    "{\"clients\":%d,\"published_events\":%d,\"slow_disconnects\":%d,"
+                            + "\"coalesced_states\":%d,\"recent_events\":%d}",
+                    clients.size(), publishedEvents.get(), slowDisconnects.get(), coalescedStates.get(), recentEvents.size()));
+            return;
+        }
+        if (!path.equals(PATH_EVENTS)) {
+            respond(client, "404 Not Found", "");
+            return;
+        }
+
+        // EventSource sends the header when it reconnects; a first connection may use the query
+        long lastId = RelayEvent.NO_ID;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0 && lines[i].substring(0, colon).trim().equalsIgnoreCase("Last-Event-ID")) {
+                lastId = SensorValueDecoder.decodeLong(lines[i].substring(colon + 1).trim(), RelayEvent.NO_ID);
+            }
+        }
+        if (lastId == RelayEvent.NO_ID && queryStart >= 0) {
+            for (String parameter : target.substring(queryStart + 1).split("&")) {
+                if (parameter.startsWith(QUERY_LAST_EVENT_ID)) {
+                    lastId = SensorValueDecoder.decodeLong(parameter.substring(QUERY_LAST_EVENT_ID.length()),
+                            RelayEvent.NO_ID);
+                }
+            }
+        }
+        startStream(client, lastId);
+    }
+
+    private void startStream(Client client, long lastId) {
+        client.streaming = true;
+        enqueue(client, ByteBuffer.wrap(STREAM_HEADERS));
+
+        List<RelayEvent> missed = new ArrayList<>();
+        boolean resumed = lastId != RelayEvent.NO_ID && recentEvents.since(lastId, missed);
+        // Gives the display an id to reconnect with even before the next sequenced event;
+        // a display that could not be resumed should reload the scores it shows
+        long syncId = resumed ? lastId : recentEvents.nextId() - 1;
+        RelayEvent sync = RelayEvent.sequenced(syncId, EVENT_SYNC,
+                "{\"last_id\":" + syncId + ",\"resumed\":" + resumed + "}");
+        enqueue(client, sync.frame());
+        for (RelayEvent state : latestState.values()) {
+            enqueue(client, state.frame());
+        }
+        for (RelayEvent event : missed) {
+            enqueue(client, event.frame());
+        }
+        markDirty(client);
+    }
+
+    private void respond(Client client, String status, String body) {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String headers = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + content.length + "\r\n"
+                + "Access-Control-Allow-Origin: *\r\n"
+                + "Connection: close\r\n\r\n";
+        client.request = null;
+        enqueue(client, ByteBuffer.wrap(headers.getBytes(StandardCharsets.US_ASCII)));
+        enqueue(client, ByteBuffer.wrap(content));
+        client.closeWhenFlushed = true;
+        markDirty(client);
+    }
+
+    private void sendSequenced(Client client, RelayEvent event) {
+        if (client.queuedBytes + event.size() > maxPendingBytes) {
+            // A burst may just not have been written yet; only a full socket counts as slow
+            flush(client);
+            if (client.closed) {
+                return;
+            }
+        }
+        if (client.queuedBytes + event.size() > maxPendingBytes) {
+            // It reconnects with its last id and catches up from the recent events
+            slowDisconnects.incrementAndGet();
+            close(client);
+            return;
+        }
+        enqueue(client, event.frame());
+        markDirty(client);
+    }
+
+    private void sendState(Client client, RelayEvent event) {
+        if (client.queue.isEmpty()) {
+            enqueue(client, event.frame());
+            markDirty(client);
+        } else if (client.held.put(event.getKey(), event) != null) {
+            coalescedStates.incrementAndGet();
+        }
+    }
+
+    private void heartbeat() {
+        long now = System.nanoTime();
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Client client = clients.get(i);
+            if (!client.streaming && now - client.acceptedNanos > HEARTBEAT_MS * 1_000_000) {
+                // Connected but never sent a complete request
+                close(client);
+            } else if (client.streaming && client.queue.isEmpty()) {
+                enqueue(client, HEARTBEAT.duplicate());
+                markDirty(client);
+            }
+        }
+    }
+
+    private static void enqueue(Client client, ByteBuffer frame) {
+        client.queue.add(frame);
+        client.queuedBytes += frame.remaining();
+    }
+
+    private void markDirty(Client client) {
+        if (!client.isDirty) {
+            client.isDirty = true;
+            dirty.add(client);
+        }
+    }
+
+    private void flush(Client client) {
+        try {
+            while (true) {
+                if (client.queue.isEmpty()) {
+                    if (client.held.isEmpty()) break;
+                    for (RelayEvent state : client.held.values()) {
+                        enqueue(client, state.frame());
+                    }
+                    client.held.clear();
+                }
+                long written = client.channel.write(client.queue.toArray(new ByteBuffer[0]));
+                client.queuedBytes -= written;
+                while (!client.queue.isEmpty() && !client.queue.peek().hasRemaining()) {
+                    client.queue.poll();
+                }
+                if (!client.queue.isEmpty()) {
+                    // The socket is full; carry on when it can take more
+                    client.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            close(client);
+            return;
+        }
+        if (client.closeWhenFlushed) {
+            close(client);
+        } else {
+            client.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void close(Client client) {
+        if (client.closed) {
+            return;
+        }
+        client.closed = true;
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        clients.remove(client);
+        clientCount = clients.size();
+    }
+
+    private void closeQuietly() {
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            // Shutting down anyway
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.boundvision;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SseRelayServer} and {@link RecentEvents}, over real sockets.
+ */
+public class SseRelayServerTest {
+    private SseRelayServer server;
+
+    @After
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private static final class Display implements AutoCloseable {
+        final Socket socket = new Socket();
+        BufferedReader reader;
+
+        Display(int port, String lastEventId, int receiveBuffer) throws Exception {
+            if (receiveBuffer > 0) {
+                socket.setReceiveBufferSize(receiveBuffer);
+            }
+            socket.connect(new InetSocketAddress("127.0.0.1", port));
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /events HTTP/1.1\r\nHost: relay\r\n"
+                    + (lastEventId != null ? "Last-Event-ID: " + lastEventId + "\r\n" : "")
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        /** Reads events, as "id event data", until one of type {@code until} arrives. */
+        List<String> readUntil(String until) throws Exception {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            }
+            List<String> events = new ArrayList<>();
+            String id = "-";
+            String event = null;
+            String data = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("id: ")) {
+                    id = line.substring(4);
+                } else if (line.startsWith("event: ")) {
+                    event = line.substring(7);
+                } else if (line.startsWith("data: ")) {
+                    data = line.substring(6);
+                } else if (line.isEmpty() && data != null) {
+                    events.add(id + " " + event + " " + data);
+                    if (event.equals(until)) {
+                        return events;
+                    }
+                    id = "-";
+                    event = null;
+                    data = null;
+                }
+            }
+            fail("Stream closed after " + events);
+            return events;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void aReconnectingDisplayGetsOnlyWhatItMissed() throws Exception {
+        server = new SseRelayServer(0, 16, 64 * 1024, 100);
+        server.start();
+        server.publishState("node-00", "node", "{\"sound\":1}");
+        server.publishState("node-00", "node", "{\"sound\":2}");
+        server.publish("score", "{\"n\":1}");
+
+        try (Display display = new Display(server.getLocalPort(), null, 0)) {
+            assertEquals(Arrays.asList("100 sync {\"last_id\":100,\"resumed\":false}", "- node {\"sound\":2}"),
+                    display.readUntil("node"));
+            server.publish("score", "{\"n\":2}");
+            assertEquals(Arrays.asList("101 score {\"n\":2}"), display.readUntil("score"));
+        }
+
+        server.publish("score", "{\"n\":3}");
+        server.publish("score", "{\"n\":4}");
+        try (Display display = new Display(server.getLocalPort(), "101", 0)) {
+            List<String> events = display.readUntil("score");
+            events.addAll(display.readUntil("score"));
+            assertEquals(Arrays.asList("101 sync {\"last_id\":101,\"resumed\":true}", "- node {\"sound\":2}",
+                    "102 score {\"n\":3}", "103 score {\"n\":4}"), events);
+        }
+
+        // Too far back: the display is told to start over and gets the current state only
+        try (Display display = new Display(server.getLocalPort(), "7", 0)) {
+            assertEquals(Arrays.asList("103 sync {\"last_id\":103,\"resumed\":false}", "- node {\"sound\":2}"),
+                    display.readUntil("node"));
+        }
+    }
+
+    @Test
+    public void aDisplayThatStopsReadingIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        server = new SseRelayServer(0, 8, 4096, 1);
+        server.start();
+        char[] padding = new char[1000];
+        Arrays.fill(padding, 'x');
+        String data = "{\"pad\":\"" + new String(padding) + "\"}";
+
+        // Connected with a small receive buffer and never read from
+        Display stalled = new Display(server.getLocalPort(), null, 1024);
+        try (Display reading = new Display(server.getLocalPort(), null, 0)) {
+            reading.readUntil(SseRelayServer.EVENT_SYNC);
+            AtomicInteger received = new AtomicInteger();
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!reading.readUntil("score").get(0).endsWith("{\"last\":true}")) {
+                        received.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    received.set(-1);
+                }
+            });
+            reader.start();
+
+            // Kept just ahead of the reading display, which then never has much waiting
+            int published = 0;
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (server.getSlowDisconnects() == 0 && System.currentTimeMillis() < deadline) {
+                if (received.get() < 0) {
+                    fail("The reading display was disconnected");
+                }
+                if (published - received.get() < 2) {
+                    server.publish("score", data);
+                    published++;
+                } else {
+                    Thread.yield();
+                }
+            }
+            server.publish("score", "{\"last\":true}");
+            reader.join(10_000);
+
+            assertEquals(1, server.getSlowDisconnects());
+            assertEquals(published, received.get());
+        } finally {
+            stalled.close();
+        }
+    }
+
+    @Test
+    public void recentEventsOnlyResumeWithinTheBuffer() {
+        RecentEvents recent = new RecentEvents(3, 10);
+        List<RelayEvent> out = new ArrayList<>();
+        assertTrue(recent.since(9, out));
+        for (int i = 0; i < 5; i++) {
+            recent.add(RelayEvent.sequenced(recent.nextId(), "score", "{}"));
+        }
+
+        assertTrue(recent.since(11, out));
+        assertEquals(3, out.size());
+        assertEquals(12, out.get(0).getId());
+        out.clear();
+        assertTrue(recent.since(14, out));
+        assertTrue(out.isEmpty());
+        assertFalse(recent.since(10, out));
+        assertFalse(recent.since(15, out));
+        assertTrue(out.isEmpty());
+    }
+}
@@ -0,0 +1,23 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":core"))
+    testImplementation(libs.junit)
+}
+
+// Replays a recorded session against one or more threshold sets, e.g.
+// ./gradlew :replay:run --args="evaluate match.bvr labels.csv sound=600-4000 sound=700-4000"
+application {
+    mainClass.set("com.example.boundvision.ReplayMain")
+}
+
+tasks.named<JavaExec>("run") {
+    workingDir = rootDir
+}
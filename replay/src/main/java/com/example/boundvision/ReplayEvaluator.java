@@ -0,0 +1,233 @@
+package com.example.boundvision;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replays a {@link SensorRecording} through a {@link WindowedDetector} and scores the
+ * detections against hand-labelled events. A detection matches a label when the labelled
+ * event falls inside its window (or up to the tolerance before it opened) and the decision
+ * agrees; a detection with the wrong decision counts as both a false positive and a miss.
+ */
+public final class ReplayEvaluator {
+
+    public static final class Label {
+        private final long timeMs;
+        private final BoundaryDecision decision;
+
+        public Label(long timeMs, BoundaryDecision decision) {
+            this.timeMs = timeMs;
+            this.decision = decision;
+        }
+
+        public long getTimeMs() {
+            return timeMs;
+        }
+
+        public BoundaryDecision getDecision() {
+            return decision;
+        }
+    }
+
+    public static final class Report {
+        private final AdaptiveThresholds.Config thresholds;
+        private int windows;
+        private int detections;
+        private int truePositives;
+        private int falsePositives;
+        private int falseNegatives;
+        private int misclassified;
+        private long replayNanos;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram earlyLatency = new LatencyHistogram();
+
+        Report(AdaptiveThresholds.Config thresholds) {
+            this.thresholds = thresholds;
+        }
+
+        public AdaptiveThresholds.Config getThresholds() {
+            return thresholds;
+        }
+
+        /** Monitoring windows opened, including those that decided nothing. */
+        public int getWindows() {
+            return windows;
+        }
+
+        public int getDetections() {
+            return detections;
+        }
+
+        public int getTruePositives() {
+            return truePositives;
+        }
+
+        public int getFalsePositives() {
+            return falsePositives;
+        }
+
+        public int getFalseNegatives() {
+            return falseNegatives;
+        }
+
+        public int getMisclassified() {
+            return misclassified;
+        }
+
+        public double getPrecision() {
+            int predicted = truePositives + falsePositives;
+            return predicted == 0 ? 1 : (double) truePositives / predicted;
+        }
+
+        public double getRecall() {
+            int actual = truePositives + falseNegatives;
+            return actual == 0 ? 1 : (double) truePositives / actual;
+        }
+
+        /** Time from the labelled event to the end of the window that caught it. */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Time from the labelled event to the first verdict for it, provisional or confirmed,
+         * that was not retracted before the window closed.
+         */
+        public LatencyHistogram getEarlyLatency() {
+            return earlyLatency;
+        }
+
+        public long getReplayNanos() {
+            return replayNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s | windows %d, detections %d | tp %d fp %d fn %d (misclassified %d) | "
+                            + "precision %.3f recall %.3f | latency p50 %d ms p95 %d ms | "
+                            + "early p50 %d ms p95 %d ms | replayed in %d ms",
+                    thresholds, windows, detections, truePositives, falsePositives, falseNegatives,
+                    misclassified, getPrecision(), getRecall(), latency.percentile(50),
+                    latency.percentile(95), earlyLatency.percentile(50), earlyLatency.percentile(95),
+                    replayNanos / 1_000_000);
+        }
+    }
+
+    private ReplayEvaluator() {
+    }
+
+    /**
+     * Reads labels as {@code time_ms,DECISION} lines, e.g. {@code 81234,FOUR}.
+     * Blank lines and lines starting with # are ignored.
+     *
+     * @throws IllegalArgumentException if a line cannot be parsed
+     */
+    public static List<Label> parseLabels(Reader reader) throws IOException {
+        List<Label> labels = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            long time = comma < 0 ? -1 : SensorValueDecoder.decodeLong(line.substring(0, comma).trim(), -1);
+            if (time < 0) {
+                throw new IllegalArgumentException("Bad label on line " + number + ": " + line);
+            }
+            try {
+                labels.add(new Label(time,
+                        BoundaryDecision.valueOf(line.substring(comma + 1).trim().toUpperCase(Locale.ROOT))));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Bad decision on line " + number + ": " + line);
+            }
+        }
+        labels.sort((a, b) -> Long.compare(a.timeMs, b.timeMs));
+        return labels;
+    }
+
+    public static Report evaluate(SensorRecording recording, List<Label> labels, DetectionThresholds thresholds,
+                                  DecisionTable table, long monitoringPeriodMs, long toleranceMs) {
+        return evaluate(recording, labels, AdaptiveThresholds.Config.fixed(thresholds), table,
+                monitoringPeriodMs, toleranceMs);
+    }
+
+    public static Report evaluate(SensorRecording recording, List<Label> labels, AdaptiveThresholds.Config thresholds,
+                                  DecisionTable table, long monitoringPeriodMs, long toleranceMs) {
+        return evaluate(recording, labels, thresholds, table, monitoringPeriodMs,
+                WindowedDetector.DEFAULT_RETRIGGER_GAP_MS, toleranceMs);
+    }
+
+    public static Report evaluate(SensorRecording recording, List<Label> labels, AdaptiveThresholds.Config thresholds,
+                                  DecisionTable table, long monitoringPeriodMs, long retriggerGapMs,
+                                  long toleranceMs) {
+        final Report report = new Report(thresholds);
+        final boolean[] matched = new boolean[labels.size()];
+        // First standing verdict per window and decision, keyed by window start and decision
+        final Map<Long, Long> firstVerdictMs = new HashMap<>();
+        long start = System.nanoTime();
+
+        WindowedDetector detector = new WindowedDetector(new AdaptiveThresholds(thresholds), table,
+                monitoringPeriodMs, retriggerGapMs,
+                (startMs, endMs, evidenceMask, decision) -> {
+                    report.windows++;
+                    if (decision == BoundaryDecision.NONE) {
+                        return;
+                    }
+                    report.detections++;
+                    int label = firstUnmatched(labels, matched, startMs - toleranceMs, endMs);
+                    if (label < 0) {
+                        report.falsePositives++;
+                        return;
+                    }
+                    matched[label] = true;
+                    if (labels.get(label).decision == decision) {
+                        report.truePositives++;
+                        report.latency.record(endMs - labels.get(label).timeMs);
+                        Long early = firstVerdictMs.get(verdictKey(startMs, decision));
+                        report.earlyLatency.record((early != null ? early : endMs) - labels.get(label).timeMs);
+                    } else {
+                        report.misclassified++;
+                        report.falsePositives++;
+                        report.falseNegatives++;
+                    }
+                });
+        detector.setVerdictListener((windowStartMs, timeMs, evidenceMask, decision, state) -> {
+            if (state == DecisionState.RETRACTED) {
+                firstVerdictMs.remove(verdictKey(windowStartMs, decision));
+            } else {
+                firstVerdictMs.putIfAbsent(verdictKey(windowStartMs, decision), timeMs);
+            }
+        }, WindowedDetector.DEFAULT_PROVISIONAL_CONFIDENCE);
+        recording.replay(detector);
+        report.replayNanos = System.nanoTime() - start;
+
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) report.falseNegatives++;
+        }
+        return report;
+    }
+
+    private static long verdictKey(long windowStartMs, BoundaryDecision decision) {
+        return windowStartMs * BoundaryDecision.values().length + decision.ordinal();
+    }
+
+    private static int firstUnmatched(List<Label> labels, boolean[] matched, long fromMs, long toMs) {
+        for (int i = 0; i < labels.size(); i++) {
+            long time = labels.get(i).timeMs;
+            if (time > toMs) break;
+            if (!matched[i] && time >= fromMs) return i;
+        }
+        return -1;
+    }
+}
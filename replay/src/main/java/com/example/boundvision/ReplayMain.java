@@ -0,0 +1,89 @@
+package com.example.boundvision;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Command line entry point of the replay harness ({@code ./gradlew :replay:run --args="..."}).
+ * <pre>
+ * record   &lt;serial.log&gt; &lt;session.bvr&gt;
+ * evaluate &lt;session.bvr|serial.log&gt; &lt;labels.csv&gt; [thresholds ...]
+ * </pre>
+ * Each threshold set is written like {@code distance=15,sound=600-4000,vibration=1000-1800,period=5000};
+ * with none given, the firmware defaults are used. Adding {@code sigma=4} (and optionally
+ * {@code tau=30000}) makes the set adaptive, with the sound and vibration minimums as floors;
+ * {@code gap=1000} sets how long after a window opens a new trigger gets a window of its own.
+ */
+public final class ReplayMain {
+    private static final long MATCH_TOLERANCE_MS = 1000;
+
+    private ReplayMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("record")) {
+            SensorRecording recording = load(new File(args[1]));
+            recording.write(new File(args[2]));
+            System.out.printf("Recorded %d samples (%d s) to %s (%d bytes)%n", recording.size(),
+                    recording.durationMs() / 1000, args[2], new File(args[2]).length());
+            return;
+        }
+        if (args.length >= 3 && args[0].equals("evaluate")) {
+            SensorRecording recording = load(new File(args[1]));
+            List<ReplayEvaluator.Label> labels;
+            try (Reader reader = new FileReader(args[2])) {
+                labels = ReplayEvaluator.parseLabels(reader);
+            }
+            System.out.printf("%d samples (%d s), %d labelled events%n", recording.size(),
+                    recording.durationMs() / 1000, labels.size());
+
+            int sets = Math.max(1, args.length - 3);
+            for (int i = 0; i < sets; i++) {
+                String spec = args.length > 3 ? args[3 + i] : "";
+                long period = WindowedDetector.DEFAULT_MONITORING_PERIOD_MS;
+                double sigma = Double.NaN;
+                long tau = AdaptiveThresholds.DEFAULT_TIME_CONSTANT_MS;
+                long gap = WindowedDetector.DEFAULT_RETRIGGER_GAP_MS;
+                StringBuilder thresholds = new StringBuilder();
+                for (String part : spec.split(",")) {
+                    if (part.startsWith("period=")) {
+                        period = SensorValueDecoder.decodeLong(part.substring("period=".length()), period);
+                    } else if (part.startsWith("sigma=")) {
+                        sigma = SensorValueDecoder.parseDouble(part.substring("sigma=".length()), Double.NaN);
+                        if (Double.isNaN(sigma)) throw new IllegalArgumentException("Bad sigma: " + part);
+                    } else if (part.startsWith("gap=")) {
+                        gap = SensorValueDecoder.decodeLong(part.substring("gap=".length()), gap);
+                    } else if (part.startsWith("tau=")) {
+                        tau = SensorValueDecoder.decodeLong(part.substring("tau=".length()), tau);
+                    } else if (!part.isEmpty()) {
+                        if (thresholds.length() > 0) thresholds.append(',');
+                        thresholds.append(part);
+                    }
+                }
+                DetectionThresholds limits = DetectionThresholds.parse(thresholds.toString());
+                AdaptiveThresholds.Config config = Double.isNaN(sigma)
+                        ? AdaptiveThresholds.Config.fixed(limits)
+                        : AdaptiveThresholds.Config.adaptive(limits, sigma, tau);
+                ReplayEvaluator.Report report = ReplayEvaluator.evaluate(recording, labels, config,
+                        DecisionTable.defaults(), period, gap, MATCH_TOLERANCE_MS);
+                System.out.println("period=" + period + ",gap=" + gap + "," + report);
+            }
+            return;
+        }
+        System.err.println("usage: record <serial.log> <session.bvr>");
+        System.err.println("       evaluate <session.bvr|serial.log> <labels.csv> [thresholds ...]");
+        System.exit(2);
+    }
+
+    private static SensorRecording load(File file) throws IOException {
+        if (file.getName().endsWith(".bvr")) {
+            return SensorRecording.read(file);
+        }
+        try (Reader reader = new FileReader(file)) {
+            return SerialLogParser.parse(reader, SerialLogParser.DEFAULT_LOOP_INTERVAL_MS);
+        }
+    }
+}
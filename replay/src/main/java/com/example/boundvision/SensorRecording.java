@@ -0,0 +1,163 @@
+package com.example.boundvision;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Raw sensor stream of one node as the firmware samples it, for replay.
+ *
+ * <p>File layout (big-endian): magic "BVR1" (4), sample count (4), then per sample the time
+ * since the previous sample as an unsigned varint, distance in tenths of a cm (2), sound (2),
+ * vibration (2) and flags (1). A loop sample at 50 Hz takes 8 bytes, so a full day's match
+ * is a few megabytes.
+ */
+public class SensorRecording {
+    public static final int FLAG_FOIL_CONTACT = 1;
+
+    private static final int MAGIC = 0x42565231; // "BVR1"
+
+    private long[] times = new long[1024];
+    private float[] distances = new float[1024];
+    private short[] sounds = new short[1024];
+    private short[] vibrations = new short[1024];
+    private byte[] flags = new byte[1024];
+    private int size = 0;
+
+    public void append(long timeMs, float distanceCm, int sound, int vibration, boolean foilContact) {
+        if (size > 0 && timeMs < times[size - 1]) {
+            throw new IllegalArgumentException("Samples must be in time order: " + timeMs);
+        }
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            sounds = Arrays.copyOf(sounds, capacity);
+            vibrations = Arrays.copyOf(vibrations, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        times[size] = timeMs;
+        // Stored in tenths of a cm on disk, so keep the in-memory value at the same precision
+        distances[size] = Math.round(Math.min(Math.max(distanceCm, 0f), 3276.7f) * 10) / 10f;
+        sounds[size] = clampShort(sound);
+        vibrations[size] = clampShort(vibration);
+        flags[size] = (byte) (foilContact ? FLAG_FOIL_CONTACT : 0);
+        size++;
+    }
+
+    private static short clampShort(int value) {
+        return (short) Math.min(Math.max(value, 0), Short.MAX_VALUE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long timeAt(int index) {
+        return times[index];
+    }
+
+    public float distanceAt(int index) {
+        return distances[index];
+    }
+
+    public int soundAt(int index) {
+        return sounds[index];
+    }
+
+    public int vibrationAt(int index) {
+        return vibrations[index];
+    }
+
+    public boolean foilContactAt(int index) {
+        return (flags[index] & FLAG_FOIL_CONTACT) != 0;
+    }
+
+    public long durationMs() {
+        return size == 0 ? 0 : times[size - 1] - times[0];
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(size);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarint(out, times[i] - previous);
+            previous = times[i];
+            out.writeShort(Math.round(distances[i] * 10));
+            out.writeShort(sounds[i]);
+            out.writeShort(vibrations[i]);
+            out.writeByte(flags[i]);
+        }
+        out.flush();
+    }
+
+    public static SensorRecording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a sensor recording");
+        }
+        int count = in.readInt();
+        SensorRecording recording = new SensorRecording();
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            time += readVarint(in);
+            float distance = in.readShort() / 10f;
+            short sound = in.readShort();
+            short vibration = in.readShort();
+            byte sampleFlags = in.readByte();
+            recording.append(time, distance, sound, vibration, (sampleFlags & FLAG_FOIL_CONTACT) != 0);
+        }
+        return recording;
+    }
+
+    /**
+     * Feeds every sample to {@code detector}, in order.
+     */
+    public void replay(WindowedDetector detector) {
+        for (int i = 0; i < size; i++) {
+            detector.offer(times[i], distances[i], sounds[i], vibrations[i], (flags[i] & FLAG_FOIL_CONTACT) != 0);
+        }
+    }
+
+    public void write(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            write(out);
+        }
+    }
+
+    public static SensorRecording read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.boundvision;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Turns the sketch's serial output into a {@link SensorRecording}. Sample lines look like
+ * <pre>Time: 81234ms | Distance: 42.10cm | Vib (Analog): 1210 | Sound: 640 | Foil Contact: DISCONNECTED</pre>
+ * Every other line (monitoring banners, results) is skipped. Logs from firmware that didn't
+ * print the time are timed by line, one loop interval apart.
+ */
+public final class SerialLogParser {
+    public static final long DEFAULT_LOOP_INTERVAL_MS = 20;
+
+    private SerialLogParser() {
+    }
+
+    public static SensorRecording parse(Reader reader, long loopIntervalMs) throws IOException {
+        SensorRecording recording = new SensorRecording();
+        BufferedReader lines = new BufferedReader(reader);
+        long untimed = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.indexOf("Distance:") < 0) {
+                continue;
+            }
+            double printedTime = field(line, "Time:");
+            double distance = field(line, "Distance:");
+            double vibration = field(line, "Vib (Analog):");
+            double sound = field(line, "Sound:");
+            if (Double.isNaN(distance) || Double.isNaN(vibration) || Double.isNaN(sound)) {
+                continue; // Torn line, e.g. the port was opened mid-print
+            }
+            long time = Double.isNaN(printedTime) ? untimed : (long) printedTime;
+            untimed = time + loopIntervalMs;
+            if (recording.size() > 0 && time < recording.timeAt(recording.size() - 1)) {
+                continue; // The board was reset mid-log
+            }
+            boolean foil = line.indexOf("Foil Contact: CONNECTED") >= 0;
+            recording.append(time, (float) distance, (int) sound, (int) vibration, foil);
+        }
+        return recording;
+    }
+
+    /**
+     * Parses the number after {@code label}, up to the next unit or separator, or returns NaN.
+     */
+    private static double field(String line, String label) {
+        int start = line.indexOf(label);
+        if (start < 0) {
+            return Double.NaN;
+        }
+        start += label.length();
+        while (start < line.length() && line.charAt(start) == ' ') start++;
+        int end = start;
+        while (end < line.length() && (Character.isDigit(line.charAt(end))
+                || line.charAt(end) == '.' || line.charAt(end) == '-')) {
+            end++;
+        }
+        return SensorValueDecoder.parseDouble(line.subSequence(start, end), Double.NaN);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests replaying simulated grounds with fixed and {@link AdaptiveThresholds}.
+ */
+public class AdaptiveReplayTest {
+    private static final long PERIOD = WindowedDetector.DEFAULT_MONITORING_PERIOD_MS;
+    private static final List<ReplayEvaluator.Label> FOUR_AT_60S =
+            Collections.singletonList(new ReplayEvaluator.Label(60_000, BoundaryDecision.FOUR));
+
+    /** 120 s at 50 Hz of uniform ambient noise around {@code soundLevel}, with a FOUR at 60 s. */
+    private static SensorRecording session(int soundLevel, int soundNoise, int hitSound) {
+        Random random = new Random(7);
+        SensorRecording recording = new SensorRecording();
+        for (long t = 0; t < 120_000; t += 20) {
+            int sound = soundLevel + random.nextInt(2 * soundNoise + 1) - soundNoise;
+            int vibration = 200 + random.nextInt(41) - 20;
+            if (t >= 60_000 && t < 60_100) vibration = 1200;
+            if (t >= 60_040 && t < 60_200) sound = hitSound;
+            recording.append(t, 80f, sound, vibration, false);
+        }
+        return recording;
+    }
+
+    private static AdaptiveThresholds.Config adaptiveConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AdaptiveThresholds.KEY_MODE, AdaptiveThresholds.MODE_ADAPTIVE);
+        config.put(AdaptiveThresholds.KEY_SOUND_SIGMA, "4");
+        config.put(AdaptiveThresholds.KEY_TIME_CONSTANT, 30_000L);
+        return AdaptiveThresholds.Config.fromMap(config);
+    }
+
+    @Test
+    public void loudGroundNoLongerOpensWindowsOnAmbientNoise() {
+        SensorRecording recording = session(900, 100, 2500);
+
+        ReplayEvaluator.Report fixed = ReplayEvaluator.evaluate(recording, FOUR_AT_60S,
+                DetectionThresholds.DEFAULT, DecisionTable.defaults(), PERIOD, 1000);
+        ReplayEvaluator.Report adaptive = ReplayEvaluator.evaluate(recording, FOUR_AT_60S,
+                adaptiveConfig(), DecisionTable.defaults(), PERIOD, 1000);
+
+        assertTrue(fixed.getWindows() > 20);
+        assertEquals(1, adaptive.getWindows());
+        assertEquals(1, adaptive.getTruePositives());
+        assertEquals(0, adaptive.getFalsePositives());
+    }
+
+    @Test
+    public void quietGroundStillHearsSoftHits() {
+        SensorRecording recording = session(100, 30, 450);
+
+        ReplayEvaluator.Report fixed = ReplayEvaluator.evaluate(recording, FOUR_AT_60S,
+                DetectionThresholds.DEFAULT, DecisionTable.defaults(), PERIOD, 1000);
+        ReplayEvaluator.Report adaptive = ReplayEvaluator.evaluate(recording, FOUR_AT_60S,
+                adaptiveConfig(), DecisionTable.defaults(), PERIOD, 1000);
+
+        assertEquals(1, fixed.getMisclassified());
+        assertEquals(1, adaptive.getTruePositives());
+        assertEquals(1, adaptive.getWindows());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.boundvision;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the record/replay harness: {@link SerialLogParser},
+ * {@link SensorRecording}, {@link WindowedDetector} and {@link ReplayEvaluator}.
+ */
+public class ReplayHarnessTest {
+    private static final String LABELS = "# time_ms,decision\n10000,FOUR\n30000,SIX\n\n70000,WICKET\n";
+
+    /** 80 s of 20 ms loop output: a FOUR at 10 s, a SIX at 30 s and a lone noise spike at 50 s. */
+    private static String serialLog() {
+        StringBuilder log = new StringBuilder("Connecting to WiFi...\n");
+        for (long t = 0; t < 80_000; t += 20) {
+            int vibration = t >= 10_000 && t < 10_100 ? 1200 : 200;
+            int sound = (t >= 10_040 && t < 10_200) || (t >= 50_000 && t < 50_040) ? 700 : 100;
+            boolean foil = t >= 30_000 && t < 30_060;
+            log.append(String.format(Locale.US,
+                    "Time: %dms | Distance: 80.00cm | Vib (Analog): %d | Sound: %d | Foil Contact: %s%n",
+                    t, vibration, sound, foil ? "CONNECTED" : "DISCONNECTED"));
+            if (t == 15_000) {
+                log.append("\n*** MONITORING COMPLETE - RESULTS ***\nTime: 15020ms | Distance: 8\n");
+            }
+        }
+        return log.toString();
+    }
+
+    @Test
+    public void parsesSerialOutputAndRoundTripsTheRecording() throws IOException {
+        SensorRecording recording = SerialLogParser.parse(new StringReader(serialLog()), 20);
+        assertEquals(4000, recording.size());
+        assertEquals(79_980, recording.durationMs());
+        assertEquals(1200, recording.vibrationAt(500));
+        assertTrue(recording.foilContactAt(1500));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recording.write(bytes);
+        assertTrue(bytes.size() < recording.size() * 9);
+        SensorRecording copy = SensorRecording.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(recording.size(), copy.size());
+        for (int i = 0; i < recording.size(); i++) {
+            assertEquals(recording.timeAt(i), copy.timeAt(i));
+            assertEquals(recording.distanceAt(i), copy.distanceAt(i), 0f);
+            assertEquals(recording.soundAt(i), copy.soundAt(i));
+            assertEquals(recording.foilContactAt(i), copy.foilContactAt(i));
+        }
+    }
+
+    @Test
+    public void untimedLogsAreSpacedByTheLoopInterval() throws IOException {
+        String log = "Distance: 40.00cm | Vib (Analog): 10 | Sound: 20 | Foil Contact: DISCONNECTED\n"
+                + "Distance: 39.50cm | Vib (Analog): 11 | Sound: 21 | Foil Contact: CONNECTED\n";
+        SensorRecording recording = SerialLogParser.parse(new StringReader(log), 20);
+        assertEquals(2, recording.size());
+        assertEquals(20, recording.timeAt(1));
+        assertEquals(39.5f, recording.distanceAt(1), 0f);
+        assertTrue(recording.foilContactAt(1));
+    }
+
+    @Test
+    public void scoresDetectionsAgainstLabels() throws IOException {
+        SensorRecording recording = SerialLogParser.parse(new StringReader(serialLog()), 20);
+        List<ReplayEvaluator.Label> labels = ReplayEvaluator.parseLabels(new StringReader(LABELS));
+
+        ReplayEvaluator.Report report = ReplayEvaluator.evaluate(recording, labels, DetectionThresholds.DEFAULT,
+                DecisionTable.defaults(), WindowedDetector.DEFAULT_MONITORING_PERIOD_MS, 1000);
+        assertEquals(3, report.getWindows());
+        assertEquals(2, report.getDetections());
+        assertEquals(2, report.getTruePositives());
+        assertEquals(0, report.getFalsePositives());
+        assertEquals(1, report.getFalseNegatives());
+        assertEquals(1.0, report.getPrecision(), 1e-9);
+        assertEquals(2 / 3.0, report.getRecall(), 1e-9);
+        assertEquals(5000, report.getLatency().getMax());
+
+        // Raising the sound floor hides the FOUR's sound, so its window decides WICKET instead
+        ReplayEvaluator.Report strict = ReplayEvaluator.evaluate(recording, labels,
+                DetectionThresholds.parse("sound=800-4000"), DecisionTable.defaults(),
+                WindowedDetector.DEFAULT_MONITORING_PERIOD_MS, 1000);
+        assertEquals(1, strict.getTruePositives());
+        assertEquals(1, strict.getMisclassified());
+        assertEquals(2, strict.getFalseNegatives());
+    }
+
+    @Test
+    public void backToBackEventsGetTheirOwnWindows() {
+        // A FOUR at 10 s, a SIX on the same node 2 s later, and the FOUR's ball rattling the rope at 13.5 s
+        SensorRecording recording = new SensorRecording();
+        for (long t = 0; t < 30_000; t += 20) {
+            boolean four = (t >= 10_000 && t < 10_100) || (t >= 13_500 && t < 13_600);
+            recording.append(t, 80f, four ? 700 : 100, four ? 1200 : 200, t >= 12_000 && t < 12_060);
+        }
+        List<BoundaryDecision> decisions = new ArrayList<>();
+        List<Long> starts = new ArrayList<>();
+        WindowedDetector detector = new WindowedDetector(DetectionThresholds.DEFAULT, DecisionTable.defaults(),
+                WindowedDetector.DEFAULT_MONITORING_PERIOD_MS, (startMs, endMs, evidenceMask, decision) -> {
+                    decisions.add(decision);
+                    starts.add(startMs);
+                });
+        recording.replay(detector);
+
+        assertEquals(Arrays.asList(BoundaryDecision.FOUR, BoundaryDecision.SIX, BoundaryDecision.NONE), decisions);
+        assertEquals(Arrays.asList(10_000L, 12_000L, 13_500L), starts);
+        assertEquals(0, detector.getOpenWindows());
+    }
+
+    @Test
+    public void conclusiveEvidenceIsConfirmedBeforeTheWindowCloses() {
+        DecisionTable table = DecisionTable.defaults();
+        int four = DetectionThresholds.EVIDENCE_VIBRATION | DetectionThresholds.EVIDENCE_SOUND;
+        assertEquals(1.0, table.agreement(four), 0);
+        assertEquals(0.5, table.agreement(DetectionThresholds.EVIDENCE_VIBRATION), 0);
+
+        // Vibration alone at 10 s (WICKET so far), sound joins it at 10.8 s and makes it a FOUR
+        SensorRecording recording = new SensorRecording();
+        for (long t = 0; t < 20_000; t += 20) {
+            boolean vibration = t >= 10_000 && t < 10_900;
+            boolean sound = t >= 10_800 && t < 10_900;
+            recording.append(t, 80f, sound ? 700 : 100, vibration ? 1200 : 200, false);
+        }
+        List<String> verdicts = new ArrayList<>();
+        List<BoundaryDecision> closed = new ArrayList<>();
+        WindowedDetector detector = new WindowedDetector(DetectionThresholds.DEFAULT, table,
+                WindowedDetector.DEFAULT_MONITORING_PERIOD_MS,
+                (startMs, endMs, evidenceMask, decision) -> closed.add(decision));
+        detector.setVerdictListener((startMs, timeMs, evidenceMask, decision, state) ->
+                verdicts.add(timeMs + " " + state + " " + decision), 0.55);
+        recording.replay(detector);
+
+        assertEquals(Arrays.asList("10500 PROVISIONAL WICKET", "10800 RETRACTED WICKET", "10800 CONFIRMED FOUR"),
+                verdicts);
+        assertEquals(Collections.singletonList(BoundaryDecision.FOUR), closed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownDecisionLabels() throws IOException {
+        ReplayEvaluator.parseLabels(new StringReader("1000,SEVEN\n"));
+    }
+}
@@ -21,4 +21,8 @@ dependencyResolutionManagement {
 
 rootProject.name = "Bound Vision"
 include(":app")
+include(":core")
+include(":benchmark")
+include(":relay")
+include(":replay")
  
\ No newline at end of file